@@ -6,6 +6,7 @@ import algorithms.cnf.Formula;
 import algorithms.cnf.exceptions.UnsatisfiableFormulaException;
 import algorithms.cnf.utils.FileReaderUtils;
 
+import java.io.File;
 import java.util.*;
 
 /**
@@ -180,6 +181,12 @@ public class App {
         System.out.println("Please enter the path of the file containing the SAT Formula:");
         String path = scanner.next();
 
-        return FileReaderUtils.parseFormulaFromFile(path);
+        long start = System.nanoTime();
+        Formula formula = FileReaderUtils.parseFormulaFromFile(path);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Read %d clauses in %.3f s (%.1f MB/s).%n", formula.getNumberOfClauses(), seconds,
+                new File(path).length() / 1e6 / seconds);
+
+        return formula;
     }
 }
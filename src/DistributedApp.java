@@ -0,0 +1,92 @@
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+import algorithms.cnf.utils.FileReaderUtils;
+import algorithms.cubes.CubeGenerator;
+import algorithms.distributed.CubeCoordinator;
+import algorithms.distributed.CubeWorker;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Program Starting Point of the distributed solver, an alternative to the interactive {@link App}.
+ * The coordinator splits a formula into cubes and hands them to worker processes over sockets. It can
+ * start worker processes on the local machine itself; workers on other machines are started with the
+ * worker command.
+ */
+public class DistributedApp {
+    /**
+     * Main method.
+     *
+     * @param args Either "coordinator &lt;formula file&gt; &lt;port&gt; [cube depth] [local workers]" or
+     *             "worker &lt;host&gt; &lt;port&gt;".
+     * @throws Exception The coordinator or worker failed.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args.length <= 5 && args[0].equals("coordinator")) {
+            int depth = args.length > 3 ? Integer.parseInt(args[3]) : CubeGenerator.DEFAULT_DEPTH;
+            int localWorkers = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+            coordinate(args[1], Integer.parseInt(args[2]), depth, localWorkers);
+        } else if (args.length == 3 && args[0].equals("worker")) {
+            int solved = new CubeWorker(args[1], Integer.parseInt(args[2]), new SolverConfiguration()).run();
+            System.out.println("Worker solved " + solved + " cubes.");
+        } else {
+            System.out.println("Usage: DistributedApp coordinator <formula file> <port> [cube depth] [local workers]");
+            System.out.println("       DistributedApp worker <host> <port>");
+        }
+    }
+
+    /**
+     * Runs the coordinator until the search is over and prints the outcome.
+     *
+     * @param path         The path of the formula file.
+     * @param port         The port the workers connect to, 0 for any free port.
+     * @param depth        Number of split decisions of a cube.
+     * @param localWorkers Number of worker processes started on the local machine.
+     * @throws IOException          The server socket or a local worker cannot be started.
+     * @throws InterruptedException The thread was interrupted while waiting for the workers.
+     */
+    private static void coordinate(String path, int port, int depth, int localWorkers)
+            throws IOException, InterruptedException {
+        Formula formula = FileReaderUtils.parseFormulaFromFile(path);
+        long start = System.nanoTime();
+        List<int[]> cubes = new CubeGenerator(formula, depth, CubeGenerator.DEFAULT_CANDIDATES).generate();
+        System.out.printf("Generated %d cubes in %.3f s.%n", cubes.size(), (System.nanoTime() - start) / 1e9);
+
+        CubeCoordinator coordinator = new CubeCoordinator(formula, cubes);
+        List<Process> processes = new ArrayList<>();
+        SolverResult result;
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Waiting for workers on port " + server.getLocalPort() + ".");
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int i = 0; i < localWorkers; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        DistributedApp.class.getName(), "worker", "localhost", String.valueOf(server.getLocalPort()))
+                        .inheritIO().start());
+            }
+            start = System.nanoTime();
+            result = coordinator.run(server);
+        } finally {
+            for (Process process : processes) {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+
+        System.out.printf("Solved in %.3f s by %d workers, %d cubes reassigned.%n", (System.nanoTime() - start) / 1e9,
+                coordinator.getNumberOfWorkers(), coordinator.getNumberOfReassignedCubes());
+        if (result == SolverResult.SATISFIABLE) {
+            System.out.println("The solution of the SAT Problem is:");
+            System.out.println(Arrays.toString(coordinator.getModel()));
+        } else {
+            System.out.println("No satisfying assignments exists for the SAT Formula.");
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package algorithms;
 
-import algorithms.cnf.*;
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cdcl.UnsatCore;
+import algorithms.cnf.Formula;
 import algorithms.cnf.exceptions.UnsatisfiableFormulaException;
-
+import algorithms.cubes.CubeAndConquerSolver;
+import algorithms.localsearch.LocalSearchSolver;
+import algorithms.portfolio.PortfolioMember;
+import algorithms.portfolio.PortfolioSolver;
+import algorithms.preprocessing.Preprocessor;
+import algorithms.proof.ProofFormat;
+import algorithms.proof.ProofWriter;
+
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
- * Class containing a General SAT solver implemented using DPLL algorithm.
+ * Class containing a General SAT solver implemented using Conflict-Driven Clause Learning.
  */
 public class GeneralSAT {
     /**
@@ -21,193 +30,156 @@ public class GeneralSAT {
      * @throws UnsatisfiableFormulaException No satisfiable solution exist.
      */
     public static boolean[] solveGeneralSAT(Formula formula) throws UnsatisfiableFormulaException {
-        boolean[] solution = new boolean[formula.getNumberOfVariables()];
+        return solveGeneralSAT(formula, new SolverConfiguration());
+    }
 
-        List<Variable> variables = new ArrayList<>();
-        for (int i = 1; i <= formula.getNumberOfVariables(); i++) {
-            variables.add(new Variable(i));
-        }
+    /**
+     * Computes a satisfying assignment for a General CNF SAT formula with the given solver parameters.
+     * With preprocessing, the solver searches the simplified formula and its assignment is extended to the
+     * eliminated variables.
+     *
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param configuration The tunable parameters of the solver.
+     * @return A satisfying assignment of the variables.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist.
+     */
+    public static boolean[] solveGeneralSAT(Formula formula, SolverConfiguration configuration)
+            throws UnsatisfiableFormulaException {
+        Preprocessor preprocessor = configuration.isPreprocessing() ? new Preprocessor(formula) : null;
+        CDCLSolver solver = new CDCLSolver(preprocessor != null ? preprocessor.simplify() : formula, configuration);
 
-        if (dpll(formula, variables, new Model(), solution)) {
-            return solution;
+        if (solver.solve() == SolverResult.SATISFIABLE) {
+            return preprocessor != null ? preprocessor.extendModel(solver.getModel()) : solver.getModel();
         } else {
             throw new UnsatisfiableFormulaException("No satisfying assignments exists for the SAT Formula.");
         }
     }
 
     /**
-     * The recursive Davis–Putnam–Logemann–Loveland algorithm implementation.
+     * Computes a satisfying assignment for a General CNF SAT formula with a portfolio of diversified
+     * solvers running in parallel.
      *
-     * @param formula   The formula in CNF that is being solved.
-     * @param variables The list of variables with no assigned values.
-     * @param model     A model of some variable and their assignments, under which the formula is tested.
-     * @param solution  the array where the solution will be written.
-     * @return Is the formula solvable under current model.
+     * @param formula         The formula in Conjunctive Normal Form.
+     * @param numberOfWorkers Number of solvers running in parallel, usually the number of cores.
+     * @return A satisfying assignment of the variables.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist.
      */
-    public static boolean dpll(Formula formula, List<Variable> variables, Model model, boolean[] solution) {
-        if (everyClauseTrueUnderModel(formula, model)) {
-            for (Variable variable : model.getAssignments().keySet()) {
-                solution[variable.getVar() - 1] = model.getAssignments().get(variable);
-            }
-            return true;
-        }
-        if (someClauseFalseUnderModel(formula, model)) {
-            return false;
-        }
+    public static boolean[] solveGeneralSATInParallel(Formula formula, int numberOfWorkers)
+            throws UnsatisfiableFormulaException {
+        PortfolioSolver solver = new PortfolioSolver(formula, numberOfWorkers);
 
-        VariableAssignment pureVariable = findPureVariable(formula, variables, model);
-        if (pureVariable != null) {
-            List<Variable> unassigned = removeFromList(variables, pureVariable.getVariable());
-            Model union = model.addToModelAndCopy(pureVariable.getVariable(), pureVariable.getAssignment());
-            return dpll(formula, unassigned, union, solution);
-        }
-
-        VariableAssignment unitClauseVariable = findUnitClause(formula, model);
-        if (unitClauseVariable != null) {
-            List<Variable> unassigned = removeFromList(variables, unitClauseVariable.getVariable());
-            Model union = model.addToModelAndCopy(unitClauseVariable.getVariable(), unitClauseVariable.getAssignment());
-            return dpll(formula, unassigned, union, solution);
+        if (solver.solve() == SolverResult.SATISFIABLE) {
+            return solver.getModel();
+        } else {
+            throw new UnsatisfiableFormulaException("No satisfying assignments exists for the SAT Formula.");
         }
-
-        Variable first = variables.get(0);
-        List<Variable> rest = removeFromList(variables, first);
-
-        Model unionTrue = model.addToModelAndCopy(first, true);
-        Model unionFalse = model.addToModelAndCopy(first, false);
-        return dpll(formula, rest, unionTrue, solution) || dpll(formula, rest, unionFalse, solution);
     }
 
     /**
-     * Checks if the formula is true under the current values of the model.
+     * Computes a satisfying assignment for a General CNF SAT formula by racing a CDCL solver against a
+     * ProbSAT local search, which is often much faster on satisfiable random and scheduling formulas while
+     * the CDCL solver still proves unsatisfiability.
      *
-     * @param formula The formula in CNF that is being solved.
-     * @param model   A model of some variable and their assignments, under which the formula is tested.
-     * @return Is the formula true.
+     * @param formula The formula in Conjunctive Normal Form.
+     * @return A satisfying assignment of the variables.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist.
      */
-    private static boolean everyClauseTrueUnderModel(Formula formula, Model model) {
-        return formula.getClauses()
-                .stream()
-                .map(model::determineClauseValue)
-                .noneMatch(value -> value == null || !value);
+    public static boolean[] solveGeneralSATWithLocalSearch(Formula formula) throws UnsatisfiableFormulaException {
+        List<PortfolioMember> members = new ArrayList<>();
+        members.add(new CDCLSolver(formula));
+        members.add(new LocalSearchSolver(formula));
+        PortfolioSolver solver = new PortfolioSolver(members);
+
+        if (solver.solve() == SolverResult.SATISFIABLE) {
+            return solver.getModel();
+        } else {
+            throw new UnsatisfiableFormulaException("No satisfying assignments exists for the SAT Formula.");
+        }
     }
 
     /**
-     * Checks if the formula is false under the current values of the model.
+     * Computes a satisfying assignment for a General CNF SAT formula by cube-and-conquer: the formula is
+     * split into cubes by lookahead, and the cubes are solved in parallel on the common pool.
      *
-     * @param formula The formula in CNF that is being solved.
-     * @param model   A model of some variable and their assignments, under which the formula is tested.
-     * @return Is the formula false.
+     * @param formula The formula in Conjunctive Normal Form.
+     * @return A satisfying assignment of the variables.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist.
      */
-    private static boolean someClauseFalseUnderModel(Formula formula, Model model) {
-        return formula.getClauses()
-                .stream()
-                .map(model::determineClauseValue)
-                .anyMatch(value -> value != null && !value);
+    public static boolean[] solveGeneralSATWithCubes(Formula formula) throws UnsatisfiableFormulaException {
+        CubeAndConquerSolver solver = new CubeAndConquerSolver(formula);
+
+        if (solver.solve() == SolverResult.SATISFIABLE) {
+            return solver.getModel();
+        } else {
+            throw new UnsatisfiableFormulaException("No satisfying assignments exists for the SAT Formula.");
+        }
     }
 
     /**
-     * Finds a DPLL pure variable and returns it with the proper assignment.
+     * Computes a satisfying assignment for a General CNF SAT formula in which the given literals are true.
+     * When there is none, the exception holds the assumptions responsible for it, minimized within the
+     * given time budget.
      *
-     * @param formula   The formula in CNF that is being solved.
-     * @param variables The list of variables with no assigned values.
-     * @param model     A model of some variable and their assignments, under which the formula is tested.
-     * @return A pure variable and its assignment.
+     * @param formula          The formula in Conjunctive Normal Form.
+     * @param assumptions      The encoded literals assumed true.
+     * @param coreBudgetMillis Number of milliseconds the minimization of the failed assumptions may take.
+     * @return A satisfying assignment of the variables.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist under the assumptions.
      */
-    public static VariableAssignment findPureVariable(Formula formula, List<Variable> variables, Model model) {
-        VariableAssignment pureVariable = null;
-
-        Set<Variable> variablesToKeep = new HashSet<>(variables);
-        Set<Variable> candidatePurePositive = new HashSet<>();
-        Set<Variable> candidatePureNegative = new HashSet<>();
-
-        for (Clause clause : formula.getClauses()) {
-            Boolean value = model.determineClauseValue(clause);
-            if (value != null && value) {
-                continue;
-            }
-
-            clause.getPositiveVariables()
-                    .stream()
-                    .filter(variablesToKeep::contains)
-                    .forEach(candidatePurePositive::add);
-
-            clause.getNegativeVariables()
-                    .stream()
-                    .filter(variablesToKeep::contains)
-                    .forEach(candidatePureNegative::add);
-        }
-
-        for (Variable variable : variablesToKeep) {
-            if (candidatePurePositive.contains(variable) && candidatePureNegative.contains(variable)) {
-                candidatePurePositive.remove(variable);
-                candidatePureNegative.remove(variable);
-            }
-        }
+    public static boolean[] solveGeneralSAT(Formula formula, int[] assumptions, long coreBudgetMillis)
+            throws UnsatisfiableFormulaException {
+        CDCLSolver solver = new CDCLSolver(formula);
 
-        if (candidatePurePositive.size() > 0) {
-            pureVariable = new VariableAssignment(candidatePurePositive.iterator().next(), true);
-        } else if (candidatePureNegative.size() > 0) {
-            pureVariable = new VariableAssignment(candidatePureNegative.iterator().next(), false);
+        if (solver.solve(assumptions) == SolverResult.SATISFIABLE) {
+            return solver.getModel();
+        } else {
+            int[] core = UnsatCore.minimize(solver, solver.getFailedAssumptions(), coreBudgetMillis);
+            throw new UnsatisfiableFormulaException("No satisfying assignments exists for the SAT Formula under "
+                    + "the assumptions.", core);
         }
-
-        return pureVariable;
     }
 
-
     /**
-     * Finds a variable in a DPLL unit clause and returns it with the proper assignment.
+     * Computes a subset of the clauses of an unsatisfiable formula which is unsatisfiable on its own,
+     * minimized within the given time budget.
      *
-     * @param formula The formula in CNF that is being solved.
-     * @param model   The current model of solutions.
-     * @return The variable and its assignment which makes the unit clause true.
+     * @param formula      The formula in Conjunctive Normal Form.
+     * @param budgetMillis Number of milliseconds the minimization of the core may take.
+     * @return The indices of the clauses of the core in increasing order.
+     * @throws IllegalArgumentException The formula is satisfiable.
      */
-    public static VariableAssignment findUnitClause(Formula formula, Model model) {
-        VariableAssignment unitClauseVariable = null;
-
-        for (Clause clause : formula.getClauses()) {
-            if (model.determineClauseValue(clause) != null) {
-                continue;
-            }
-
-            Literal unitClauseLiteral = null;
-            if (clause.getNumberOfLiterals() == 1) {
-                unitClauseLiteral = clause.getFirst();
-            } else {
-                for (Literal literal : clause.getLiterals()) {
-                    if (model.getAssignments().get(literal.getAtom()) != null) {
-                        continue;
-                    }
-                    if (unitClauseLiteral == null) {
-                        unitClauseLiteral = literal;
-                    } else {
-                        unitClauseLiteral = null;
-                        break;
-                    }
-
-                }
-            }
-
-            if (unitClauseLiteral != null) {
-                int variable = unitClauseLiteral.getAtom().getVar();
-                boolean isPositive = !unitClauseLiteral.isNegated();
-                unitClauseVariable = new VariableAssignment(new Variable(variable), isPositive);
-                break;
-            }
+    public static int[] findUnsatisfiableCore(Formula formula, long budgetMillis) {
+        int[] core = UnsatCore.findClauseCore(formula, new SolverConfiguration(), budgetMillis);
+        if (core == null) {
+            throw new IllegalArgumentException("The formula is satisfiable.");
         }
-
-        return unitClauseVariable;
+        return core;
     }
 
     /**
-     * Returns a new list with the variable removed.
+     * Computes a satisfying assignment for a General CNF SAT formula. When there is none, a proof of
+     * unsatisfiability is left in the given file, to be validated by an independent checker.
      *
-     * @param variables The list of unassigned variables.
-     * @param variable  The variable being removed from the list.
-     * @return The new list of variables.
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param proofFileName The name of the proof file.
+     * @param format        The format of the proof.
+     * @return A satisfying assignment of the variables.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist.
+     * @throws IOException                   The proof cannot be written.
      */
-    private static List<Variable> removeFromList(List<Variable> variables, Variable variable) {
-        return variables.stream()
-                .filter(symbol -> !variable.equals(symbol))
-                .collect(Collectors.toCollection(() -> new ArrayList<>(variables.size())));
+    public static boolean[] solveGeneralSATWithProof(Formula formula, String proofFileName, ProofFormat format)
+            throws UnsatisfiableFormulaException, IOException {
+        SolverResult result;
+        CDCLSolver solver;
+        try (ProofWriter proof = new ProofWriter(proofFileName, format)) {
+            solver = new CDCLSolver(formula, new SolverConfiguration(), proof);
+            result = solver.solve();
+        }
+
+        if (result == SolverResult.SATISFIABLE) {
+            return solver.getModel();
+        } else {
+            throw new UnsatisfiableFormulaException("No satisfying assignments exists for the SAT Formula.");
+        }
     }
 }
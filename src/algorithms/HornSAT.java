@@ -1,35 +1,102 @@
 package algorithms;
 
-import algorithms.cnf.Clause;
+import algorithms.cnf.ClauseArena;
 import algorithms.cnf.Formula;
 import algorithms.cnf.Literal;
-import algorithms.cnf.Variable;
 import algorithms.cnf.exceptions.UnsatisfiableFormulaException;
 
 /**
  * Class containing a Horn-SAT solver.
+ * The solver follows Dowling and Gallier: every clause keeps a counter of its negative literals whose
+ * variable has not been set to true yet, and when a counter reaches zero the positive literal of the clause
+ * is forced. Every literal is visited a constant number of times, so a formula is solved in time linear in
+ * its total number of literals. The formula is only read, so it can be solved again under other facts.
  */
 public class HornSAT {
     /**
      * Computes a satisfying assignment for a Horn-SAT formula.
      *
-     * @param formula The formula in 2-SAT Conjunctive Normal Form.
-     * @return A satisfying assignment of the variables.
+     * @param formula The formula in Horn-SAT Conjunctive Normal Form.
+     * @return The minimal satisfying assignment of the variables.
      * @throws UnsatisfiableFormulaException No satisfiable solution exist.
      */
-     public static boolean[] solveHornSAT(Formula formula) throws UnsatisfiableFormulaException {
-        boolean[] solution = new boolean[formula.getNumberOfVariables()];
-
-        while (!formula.getEmptyImplications().isEmpty()) {
-            Variable variable = formula.removeEmptyImplication();
-            solution[variable.getVar() - 1] = true;
-            for (Clause clause : variable.getClausesContainingNegation()) {
-                if (clause.getNumberOfLiterals() == 1) {
-                    throw new UnsatisfiableFormulaException("No satisfying assignments exist for the Horn-SAT.");
+    public static boolean[] solveHornSAT(Formula formula) throws UnsatisfiableFormulaException {
+        return solveHornSAT(formula, new int[0]);
+    }
+
+    /**
+     * Computes a satisfying assignment for a Horn-SAT formula in which some variables are additionally
+     * required to be true.
+     *
+     * @param formula The formula in Horn-SAT Conjunctive Normal Form.
+     * @param facts   The variables which must be true, numbered from 1.
+     * @return The minimal satisfying assignment of the variables which sets the facts to true.
+     * @throws UnsatisfiableFormulaException No satisfiable solution exist.
+     */
+    public static boolean[] solveHornSAT(Formula formula, int[] facts) throws UnsatisfiableFormulaException {
+        int numberOfVariables = formula.getNumberOfVariables();
+        ClauseArena arena = formula.getArena();
+        int numberOfClauses = arena.getNumberOfClauses();
+
+        int[] counters = new int[numberOfClauses];
+        int[] heads = new int[numberOfClauses];
+        int[] offsets = new int[numberOfVariables + 2];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int size = arena.getSize(clause);
+            for (int i = 0; i < size; i++) {
+                int literal = arena.getLiteral(clause, i);
+                if (Literal.isNegated(literal)) {
+                    counters[clause]++;
+                    offsets[Literal.variable(literal) + 1]++;
+                } else if (heads[clause] == 0) {
+                    heads[clause] = Literal.variable(literal);
+                } else {
+                    throw new IllegalArgumentException("The formula is not Horn-SAT.");
                 }
-                clause.removeLiteral(new Literal(variable, true));
-                if (clause.isEmptyImplication() && !clause.getFirst().getAtom().equals(variable)) {
-                    formula.addEmptyImplication(clause.getFirst().getAtom());
+            }
+        }
+        for (int variable = 0; variable <= numberOfVariables; variable++) {
+            offsets[variable + 1] += offsets[variable];
+        }
+
+        int[] next = new int[numberOfVariables + 1];
+        System.arraycopy(offsets, 0, next, 0, numberOfVariables + 1);
+        int[] clausesContainingNegation = new int[offsets[numberOfVariables + 1]];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int size = arena.getSize(clause);
+            for (int i = 0; i < size; i++) {
+                int literal = arena.getLiteral(clause, i);
+                if (Literal.isNegated(literal)) {
+                    clausesContainingNegation[next[Literal.variable(literal)]++] = clause;
+                }
+            }
+        }
+
+        boolean[] solution = new boolean[numberOfVariables];
+        int[] queue = new int[numberOfVariables];
+        int queueSize = 0;
+        for (int fact : facts) {
+            if (fact < 1 || fact > numberOfVariables) {
+                throw new IllegalArgumentException("Variable " + fact + " is out of the range 1.."
+                        + numberOfVariables + ".");
+            }
+            if (!solution[fact - 1]) {
+                solution[fact - 1] = true;
+                queue[queueSize++] = fact;
+            }
+        }
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            if (counters[clause] == 0) {
+                queueSize = force(heads[clause], solution, queue, queueSize);
+            }
+        }
+
+        for (int queueHead = 0; queueHead < queueSize; queueHead++) {
+            int variable = queue[queueHead];
+            for (int i = offsets[variable]; i < offsets[variable + 1]; i++) {
+                int clause = clausesContainingNegation[i];
+                if (--counters[clause] == 0) {
+                    queueSize = force(heads[clause], solution, queue, queueSize);
                 }
             }
         }
@@ -37,4 +104,27 @@ public class HornSAT {
         return solution;
     }
 
+    /**
+     * Sets the positive literal of a clause whose negative literals are all false to true, and adds its
+     * variable to the queue of variables to propagate if it was not already true.
+     *
+     * @param head      The variable of the positive literal, or 0 if the clause has none.
+     * @param solution  The assignment being built.
+     * @param queue     The queue of variables set to true.
+     * @param queueSize The number of variables in the queue.
+     * @return The new number of variables in the queue.
+     * @throws UnsatisfiableFormulaException The clause has no positive literal.
+     */
+    private static int force(int head, boolean[] solution, int[] queue, int queueSize)
+            throws UnsatisfiableFormulaException {
+        if (head == 0) {
+            throw new UnsatisfiableFormulaException("No satisfying assignments exist for the Horn-SAT.");
+        }
+        if (!solution[head - 1]) {
+            solution[head - 1] = true;
+            queue[queueSize++] = head;
+        }
+        return queueSize;
+    }
+
 }
@@ -1,8 +1,13 @@
 package algorithms;
 
 import algorithms.cnf.Clause;
+import algorithms.cnf.ClauseArena;
 import algorithms.cnf.Formula;
 import algorithms.cnf.Literal;
+import algorithms.proof.ProofChecker;
+import algorithms.proof.ProofFormat;
+
+import java.io.IOException;
 
 /**
  * Utility method for SAT checking and solving.
@@ -16,11 +21,13 @@ public class SATUtils {
      * @return Is the formula satisfied
      */
     public static boolean checkAssignment(Formula formula, boolean[] assignment) {
-        for (Clause clause : formula.getClauses()) {
+        ClauseArena arena = formula.getArena();
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
             boolean clauseValue = false;
-            for (Literal literal : clause.getLiterals()) {
-                boolean literalAssignment = assignment[literal.getAtom().getVar() - 1];
-                if ((!literal.isNegated() && literalAssignment) || (literal.isNegated() && !literalAssignment)) {
+            for (int i = 0; i < arena.getSize(clause); i++) {
+                int literal = arena.getLiteral(clause, i);
+                boolean literalAssignment = assignment[Literal.variable(literal) - 1];
+                if (Literal.isNegated(literal) != literalAssignment) {
                     clauseValue = true;
                     break;
                 }
@@ -33,6 +40,19 @@ public class SATUtils {
         return true;
     }
 
+    /**
+     * Checks whether a proof of unsatisfiability of the formula is valid or not
+     *
+     * @param formula       The formula in conjunctive normal form
+     * @param proofFileName The name of the proof file
+     * @param format        The format of the proof
+     * @return Is the formula proven unsatisfiable
+     * @throws IOException The proof cannot be read
+     */
+    public static boolean checkProof(Formula formula, String proofFileName, ProofFormat format) throws IOException {
+        return new ProofChecker(formula).check(proofFileName, format);
+    }
+
     /**
      * Checks whether the formula is an instance of 2-SAT or not
      *
@@ -1,13 +1,9 @@
 package algorithms;
 
-import algorithms.cnf.Clause;
+import algorithms.cnf.ClauseArena;
 import algorithms.cnf.Formula;
-import algorithms.cnf.Literal;
 import algorithms.cnf.exceptions.UnsatisfiableFormulaException;
-import algorithms.graph.Graph;
-
-import java.util.Map;
-import java.util.Stack;
+import algorithms.graph.CsrGraph;
 
 /**
  * Class containing a 2-SAT solver
@@ -15,37 +11,73 @@ import java.util.Stack;
 public class TwoSAT {
     /**
      * Computes a satisfying assignment for a 2-SAT formula.
+     * The implication graph has one vertex per encoded literal and is built straight from the clause
+     * arena in Compressed Sparse Row form: every clause (a or b) gives the edges not a to b and not b to a.
+     * A unit clause (a) gives the edge not a to a.
      *
      * @param formula The formula in 2-SAT Conjunctive Normal Form.
      * @return A satisfying assignment of the variables.
      * @throws UnsatisfiableFormulaException No satisfiable solution exist.
      */
     public static boolean[] solve2SAT(Formula formula) throws UnsatisfiableFormulaException {
-        boolean[] solution = new boolean[formula.getNumberOfVariables()];
-
-        Graph<Literal> graph = new Graph<>(true);
-        for (Clause clause : formula.getClauses()) {
-            Literal first = clause.getFirst();
-            Literal second = clause.getSecond();
+        int numberOfVariables = formula.getNumberOfVariables();
+        boolean[] solution = new boolean[numberOfVariables];
 
-            graph.addEdge(new Literal(-first.getAsInt()), second);
-            graph.addEdge(new Literal(-second.getAsInt()), first);
+        CsrGraph graph = buildImplicationGraph(formula.getArena(), 2 * (numberOfVariables + 1));
+        int[] scc = graph.getStronglyConnectedComponents();
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            int positive = 2 * variable;
+            if (scc[positive] == scc[positive + 1]) {
+                throw new UnsatisfiableFormulaException("No satisfying assignments exists for the 2-SAT Formula.");
+            }
+            solution[variable - 1] = scc[positive] < scc[positive + 1];
         }
 
-        Map<Literal, Integer> scc = graph.getStronglyConnectedComponents();
-        for (int variable = 1; variable <= formula.getNumberOfVariables(); variable++) {
-            if (scc.get(new Literal(variable)).equals(scc.get(new Literal(-variable)))) {
+        return solution;
+    }
+
+    /**
+     * Builds the implication graph of a 2-SAT formula in two passes over the clauses: the first counts
+     * the edges leaving every literal and the second places them.
+     *
+     * @param arena            The clauses of the formula.
+     * @param numberOfVertices Number of encoded literals.
+     * @return The implication graph.
+     * @throws UnsatisfiableFormulaException The formula contains an empty clause.
+     */
+    private static CsrGraph buildImplicationGraph(ClauseArena arena, int numberOfVertices)
+            throws UnsatisfiableFormulaException {
+        int numberOfClauses = arena.getNumberOfClauses();
+        int[] offsets = new int[numberOfVertices + 1];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int size = arena.getSize(clause);
+            if (size == 0) {
                 throw new UnsatisfiableFormulaException("No satisfying assignments exists for the 2-SAT Formula.");
             }
+            int first = arena.getLiteral(clause, 0);
+            int second = arena.getLiteral(clause, size - 1);
+            offsets[(first ^ 1) + 1]++;
+            if (size > 1) {
+                offsets[(second ^ 1) + 1]++;
+            }
         }
-
-        Stack<Literal> verticesStack = graph.getVerticesStack();
-        while (!verticesStack.empty()) {
-            Literal sinkVertex = verticesStack.pop();
-            solution[sinkVertex.getAtom().getVar() - 1] = !sinkVertex.isNegated();
+        for (int v = 0; v < numberOfVertices; v++) {
+            offsets[v + 1] += offsets[v];
         }
 
-        return solution;
+        int[] next = new int[numberOfVertices];
+        System.arraycopy(offsets, 0, next, 0, numberOfVertices);
+        int[] targets = new int[offsets[numberOfVertices]];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int size = arena.getSize(clause);
+            int first = arena.getLiteral(clause, 0);
+            int second = arena.getLiteral(clause, size - 1);
+            targets[next[first ^ 1]++] = second;
+            if (size > 1) {
+                targets[next[second ^ 1]++] = first;
+            }
+        }
+        return new CsrGraph(offsets, targets);
     }
 
 }
@@ -0,0 +1,1351 @@
+package algorithms.cdcl;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+import algorithms.cnf.Literal;
+import algorithms.cnf.OffHeapClauseArena;
+import algorithms.portfolio.ClauseExchange;
+import algorithms.portfolio.PortfolioMember;
+import algorithms.proof.ProofWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Conflict-Driven Clause Learning solver for general CNF formulas.
+ * Conflicts are analysed up to the First Unique Implication Point, the learned clause is added to the
+ * {@link ClauseDatabase} and the search jumps back non-chronologically to the asserting level.
+ * Unit propagation uses two watched literals per clause, so assigning a literal only visits the clauses
+ * watching its negation. Decisions follow the exponential VSIDS heuristic of {@link VariableOrder} and,
+ * with phase saving, assign variables the value they had before being unassigned. The search restarts
+ * as decided by a {@link RestartPolicy}; with trail reuse a restart keeps the decisions which would be
+ * taken again, so restarting costs little.
+ * <p>
+ * The learned clauses are sorted in tiers by their Literal Block Distance. Core clauses, of distance at
+ * most {@value #CORE_LBD}, are kept forever; mid tier clauses, of distance at most {@value #TIER2_LBD},
+ * are kept while they take part in conflicts; the other clauses are periodically halved by activity.
+ * When the learned clauses use more memory than the configured limit, the database is reduced further,
+ * protected tiers included, so memory stays bounded during long searches.
+ * <p>
+ * A solver can run as a worker of a {@link algorithms.portfolio.PortfolioSolver}: the search can be
+ * cancelled from another thread, and once connected to a {@link ClauseExchange} the solver exports its
+ * short learned clauses and imports the ones of the other workers at every restart.
+ * <p>
+ * With a {@link ProofWriter} the solver streams a proof of unsatisfiability: every learned clause is
+ * added to the proof and every deleted clause removed from it, and the empty clause ends the proof when
+ * the formula is found unsatisfiable. Every assignment implied at level 0 becomes a unit clause of the
+ * proof, and LRAT proofs also give every added clause the chain of clauses deriving it, collected during
+ * conflict analysis. Proofs cover the clauses given to the constructor; they cannot be combined with clause
+ * sharing, and unsatisfiability under assumptions is not proved.
+ * <p>
+ * A solver can be called several times, with different assumptions: literals which are decided first, in
+ * order, before any other decision. Variables and clauses can be added between the calls. Learned clauses
+ * never depend on the assumptions, so they are kept from one call to the next, together with the
+ * activities and saved phases, and clauses satisfied at level 0 are removed before a new search.
+ * <p>
+ * The clauses of a formula stored on the heap are copied into a database on the heap. The clauses of a
+ * formula stored outside of it, in an {@link OffHeapClauseArena} or a memory-mapped file, are copied into a
+ * database in direct memory, so formulas larger than the heap can be solved. With an
+ * {@link OffHeapClauseArena} the database gets the part of the memory budget of the arena which the arena
+ * does not use, and a {@link algorithms.cnf.exceptions.MemoryBudgetExceededException} is thrown when the
+ * original and learned clauses do not fit in it.
+ * <p>
+ * The propagation methods used by lookahead and probing assign literals outside of the search; every call
+ * to a solve method starts again from decision level 0.
+ * <p>
+ * Literals use the encoding of {@link Literal#encode(int)}, so that a literal and its negation differ
+ * only in the lowest bit.
+ */
+public class CDCLSolver implements PortfolioMember {
+    /**
+     * Largest Literal Block Distance of the learned clauses which are never deleted.
+     */
+    private static final int CORE_LBD = 2;
+
+    /**
+     * Largest Literal Block Distance of the learned clauses which are kept while they are used.
+     */
+    private static final int TIER2_LBD = 6;
+
+    /**
+     * The tunable parameters of the solver.
+     */
+    private final SolverConfiguration configuration;
+
+    /**
+     * Number of variables in the formula.
+     */
+    private int numberOfVariables;
+
+    /**
+     * The original and learned clauses.
+     */
+    private final ClauseDatabase database;
+
+    /**
+     * For each literal, the clauses watching it. The watched literals of a clause are its first two.
+     */
+    private WatchList[] watches;
+
+    /**
+     * The assignment trail.
+     */
+    private final Trail trail;
+
+    /**
+     * The order in which unassigned variables are picked for decisions.
+     */
+    private final VariableOrder order;
+
+    /**
+     * Decides when the search restarts.
+     */
+    private final RestartPolicy restartPolicy;
+
+    /**
+     * Saved phase of every variable: is its last value false.
+     */
+    private boolean[] negativePhases;
+
+    /**
+     * Reference of the clause that implied each variable, -1 for decisions and level 0 units.
+     */
+    private int[] reasons;
+
+    /**
+     * Position in the trail of the next literal whose consequences have to be propagated.
+     */
+    private int propagationHead;
+
+    /**
+     * Variables marked during conflict analysis.
+     */
+    private boolean[] seen;
+
+    /**
+     * Stamp of every decision level, used for counting the distinct levels of a clause.
+     */
+    private int[] levelStamps;
+
+    /**
+     * Last stamp used in the level stamps.
+     */
+    private int stamp;
+
+    /**
+     * Number of conflicts met by the search.
+     */
+    private long conflicts;
+
+    /**
+     * Number of decisions taken by the search.
+     */
+    private long decisions;
+
+    /**
+     * Number of reductions of the learned clause database.
+     */
+    private int reductions;
+
+    /**
+     * Number of conflicts at which the next reduction of the learned clause database happens.
+     */
+    private long nextReduction;
+
+    /**
+     * Reusable buffer in which conflict analysis collects the literals of the learned clause.
+     */
+    private int[] learnedBuffer;
+
+    /**
+     * Source of the random choices of the solver.
+     */
+    private final Random random;
+
+    /**
+     * Set when the search is asked to stop.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * The exchange of learned clauses with other solvers, null if the solver runs alone.
+     */
+    private ClauseExchange exchange;
+
+    /**
+     * Number of the solver among the workers sharing the exchange.
+     */
+    private int workerId;
+
+    /**
+     * Sequence number of the first clause of the exchange not imported yet.
+     */
+    private long exchangeCursor;
+
+    /**
+     * Number of conflicts at the start of the current export window.
+     */
+    private long exportWindowStart;
+
+    /**
+     * Number of clauses exported in the current export window.
+     */
+    private int exportedInWindow;
+
+    /**
+     * The assumptions of the current search, decided first and in order.
+     */
+    private int[] assumptions;
+
+    /**
+     * Set once the formula is proven unsatisfiable, whatever the assumptions.
+     */
+    private boolean unsatisfiable;
+
+    /**
+     * Number of level 0 assignments when the satisfied clauses were last removed.
+     */
+    private int simplifiedAssignments;
+
+    /**
+     * The assumptions responsible for the unsatisfiability found by the last search.
+     */
+    private int[] failedAssumptions;
+
+    /**
+     * Value of {@link System#nanoTime()} after which the search gives up.
+     */
+    private long deadline;
+
+    /**
+     * The writer of the proof of unsatisfiability, null if no proof is written.
+     */
+    private final ProofWriter proof;
+
+    /**
+     * Is the proof written in LRAT, which needs the chain of clauses deriving every learned clause.
+     */
+    private final boolean lrat;
+
+    /**
+     * Identifier in the proof of the next clause.
+     */
+    private int nextClauseId;
+
+    /**
+     * Identifier in the proof of the unit clause of every variable assigned at level 0, for LRAT.
+     */
+    private int[] unitIds;
+
+    /**
+     * The chain of clauses deriving the last derived clause, for LRAT.
+     */
+    private int[] hints;
+
+    /**
+     * Number of clauses in the chain.
+     */
+    private int hintCount;
+
+    /**
+     * The identifiers of the clauses resolved by conflict analysis, conflict first, for LRAT.
+     */
+    private int[] chain;
+
+    /**
+     * Number of resolved clauses.
+     */
+    private int chainSize;
+
+    /**
+     * Constructor using the default configuration.
+     *
+     * @param formula The formula in Conjunctive Normal Form.
+     */
+    public CDCLSolver(Formula formula) {
+        this(formula, new SolverConfiguration());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param configuration The tunable parameters of the solver.
+     */
+    public CDCLSolver(Formula formula, SolverConfiguration configuration) {
+        this(formula, configuration, null);
+    }
+
+    /**
+     * Constructor of a solver writing a proof of unsatisfiability.
+     *
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param configuration The tunable parameters of the solver.
+     * @param proof         The writer of the proof, null for no proof. The solver does not close it.
+     */
+    public CDCLSolver(Formula formula, SolverConfiguration configuration, ProofWriter proof) {
+        this.configuration = configuration;
+        this.proof = proof;
+        lrat = proof != null && proof.isLrat();
+        numberOfVariables = formula.getNumberOfVariables();
+        ClauseArena arena = formula.getArena();
+        if (arena instanceof HeapClauseArena) {
+            database = new ClauseDatabase(configuration.getClauseDecay());
+        } else if (arena instanceof OffHeapClauseArena) {
+            OffHeapClauseArena offHeap = (OffHeapClauseArena) arena;
+            database = new ClauseDatabase(configuration.getClauseDecay(),
+                    offHeap.getMemoryBudget() - offHeap.getAllocatedBytes());
+        } else {
+            database = new ClauseDatabase(configuration.getClauseDecay(), Long.MAX_VALUE);
+        }
+        watches = new WatchList[2 * numberOfVariables + 2];
+        for (int i = 0; i < watches.length; i++) {
+            watches[i] = new WatchList();
+        }
+        trail = new Trail(numberOfVariables);
+        order = new VariableOrder(numberOfVariables, configuration.getVariableDecay());
+        restartPolicy = new RestartPolicy(configuration);
+        negativePhases = new boolean[numberOfVariables + 1];
+        levelStamps = new int[numberOfVariables + 1];
+        reasons = new int[numberOfVariables + 1];
+        Arrays.fill(reasons, -1);
+        seen = new boolean[numberOfVariables + 1];
+        assumptions = new int[0];
+        failedAssumptions = new int[0];
+        deadline = Long.MAX_VALUE;
+        learnedBuffer = new int[16];
+        nextReduction = configuration.getFirstReduction();
+        random = new Random(configuration.getRandomSeed());
+        if (configuration.getRandomSeed() != 0) {
+            order.perturb(random);
+        }
+        Arrays.fill(negativePhases, configuration.isNegativeInitialPhase());
+        unitIds = new int[lrat ? numberOfVariables + 1 : 0];
+        hints = new int[16];
+        chain = new int[16];
+
+        nextClauseId = arena.getNumberOfClauses() + 1;
+        int[] literals = new int[16];
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
+            int size = arena.getSize(clause);
+            if (size > literals.length) {
+                literals = new int[Math.max(size, 2 * literals.length)];
+            }
+            for (int i = 0; i < size; i++) {
+                literals[i] = arena.getLiteral(clause, i);
+            }
+            addClause(literals, size, clause + 1);
+        }
+    }
+
+    /**
+     * Adds a new variable, unassigned and with no activity.
+     *
+     * @return The number of the variable.
+     */
+    public int newVariable() {
+        numberOfVariables++;
+        if (numberOfVariables >= reasons.length) {
+            int capacity = 2 * reasons.length;
+            int oldWatches = watches.length;
+            watches = Arrays.copyOf(watches, 2 * capacity);
+            for (int i = oldWatches; i < watches.length; i++) {
+                watches[i] = new WatchList();
+            }
+            negativePhases = Arrays.copyOf(negativePhases, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            if (lrat) {
+                unitIds = Arrays.copyOf(unitIds, capacity);
+            }
+        }
+        trail.grow(numberOfVariables);
+        order.grow(numberOfVariables);
+        negativePhases[numberOfVariables] = configuration.isNegativeInitialPhase();
+        reasons[numberOfVariables] = -1;
+        return numberOfVariables;
+    }
+
+    /**
+     * Returns the number of variables of the solver.
+     *
+     * @return Variables number.
+     */
+    public int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    /**
+     * Adds a clause to the formula of the solver. The search goes back to level 0, so the model of the last
+     * search is lost. Duplicate and false literals are dropped and tautologies and satisfied clauses are
+     * ignored. Unit clauses are assigned at level 0 and an empty clause makes the formula unsatisfiable.
+     *
+     * @param literals The encoded literals, which are reordered.
+     * @param size     Number of literals, read from the start of the array.
+     */
+    public void addClause(int[] literals, int size) {
+        addClause(literals, size, nextClauseId++);
+    }
+
+    /**
+     * Adds a clause to the formula of the solver. A clause which loses literals is added to the proof in
+     * its shortened form, under a new identifier.
+     *
+     * @param literals The encoded literals, which are reordered.
+     * @param size     Number of literals, read from the start of the array.
+     * @param id       The identifier of the clause in the proof.
+     */
+    private void addClause(int[] literals, int size, int id) {
+        backjump(0);
+        for (int i = 0; i < size; i++) {
+            if (variable(literals[i]) < 1 || variable(literals[i]) > numberOfVariables) {
+                throw new IllegalArgumentException("Variable " + variable(literals[i]) + " is out of the range 1.."
+                        + numberOfVariables + ".");
+            }
+        }
+        Arrays.sort(literals, 0, size);
+
+        int unique = 0;
+        hintCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (trail.value(literals[i]) == Trail.TRUE) {
+                return;
+            }
+            if (trail.value(literals[i]) == Trail.FALSE) {
+                if (lrat) {
+                    addHint(unitIds[variable(literals[i])]);
+                }
+                continue;
+            }
+            if (unique > 0 && literals[unique - 1] == literals[i]) {
+                continue;
+            }
+            if (unique > 0 && literals[unique - 1] == (literals[i] ^ 1)) {
+                return;
+            }
+            literals[unique++] = literals[i];
+        }
+
+        if (unique < size && proof != null) {
+            addHint(id);
+            id = nextClauseId++;
+            proof.add(id, literals, 0, unique, hints, hintCount);
+        }
+        if (unique == 0) {
+            unsatisfiable = true;
+        } else if (unique == 1) {
+            enqueue(literals[0], -1);
+            if (lrat) {
+                unitIds[variable(literals[0])] = id;
+            }
+        } else {
+            attach(database.add(literals, unique, false, 0, id));
+        }
+    }
+
+    /**
+     * Connects the solver to an exchange of learned clauses shared with other solvers of the same formula.
+     *
+     * @param exchange The exchange.
+     * @param workerId The number of the solver among the workers sharing the exchange.
+     */
+    public void connect(ClauseExchange exchange, int workerId) {
+        if (proof != null) {
+            throw new IllegalStateException("A solver writing a proof cannot share clauses.");
+        }
+        this.exchange = exchange;
+        this.workerId = workerId;
+    }
+
+    /**
+     * Asks the search to stop. Can be called from any thread.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Searches for a satisfying assignment.
+     *
+     * @return The outcome of the search, {@link SolverResult#UNKNOWN} if it was cancelled.
+     */
+    @Override
+    public SolverResult solve() {
+        return solve(new int[0]);
+    }
+
+    /**
+     * Searches for a satisfying assignment in which the given literals are true.
+     *
+     * @param assumptions The encoded literals assumed true. The array must not be modified during the search.
+     * @return The outcome of the search, {@link SolverResult#UNSATISFIABLE} if there is no satisfying
+     * assignment under the assumptions, and {@link SolverResult#UNKNOWN} if the search was cancelled or
+     * reached its deadline. {@link #isUnsatisfiable()} tells whether the formula itself is unsatisfiable,
+     * and {@link #getFailedAssumptions()} which assumptions are responsible otherwise.
+     */
+    public SolverResult solve(int[] assumptions) {
+        this.assumptions = assumptions;
+        failedAssumptions = new int[0];
+        backjump(0);
+        if (unsatisfiable) {
+            return SolverResult.UNSATISFIABLE;
+        }
+        int rootConflict = propagate();
+        if (rootConflict >= 0) {
+            refute(rootConflict);
+            return SolverResult.UNSATISFIABLE;
+        }
+        if (trail.size() > simplifiedAssignments) {
+            removeSatisfiedClauses();
+        }
+
+        while (true) {
+            if (cancelled) {
+                return SolverResult.UNKNOWN;
+            }
+            int conflict = propagate();
+            if (conflict >= 0) {
+                conflicts++;
+                if (trail.getDecisionLevel() == 0) {
+                    refute(conflict);
+                    return SolverResult.UNSATISFIABLE;
+                }
+                if (deadline != Long.MAX_VALUE && System.nanoTime() > deadline) {
+                    return SolverResult.UNKNOWN;
+                }
+                int[] learned = analyze(conflict);
+                order.decayActivities();
+                database.decayActivities();
+                int lbd = computeLbd(learned, 0, learned.length);
+                restartPolicy.onConflict(lbd);
+                if (exchange != null) {
+                    exportClause(learned, lbd);
+                }
+                int id = nextClauseId++;
+                if (proof != null) {
+                    proof.add(id, learned, 0, learned.length, hints, hintCount);
+                }
+                backjump(learned.length == 1 ? 0 : trail.level(variable(learned[1])));
+                if (learned.length == 1) {
+                    enqueue(learned[0], -1);
+                    if (lrat) {
+                        unitIds[variable(learned[0])] = id;
+                    }
+                } else {
+                    int clause = database.add(learned, learned.length, true, lbd, id);
+                    attach(clause);
+                    enqueue(learned[0], clause);
+                }
+                if (conflicts >= nextReduction
+                        || database.getLearnedBytes() > configuration.getLearnedClauseMemoryLimit()) {
+                    reduceLearnedClauses();
+                }
+            } else {
+                if (restartPolicy.shouldRestart()) {
+                    restart();
+                    if (trail.getDecisionLevel() == 0 && exchange != null && !importClauses()) {
+                        unsatisfiable = true;
+                        return SolverResult.UNSATISFIABLE;
+                    }
+                    continue;
+                }
+                int decision = -1;
+                while (trail.getDecisionLevel() < assumptions.length) {
+                    int assumption = assumptions[trail.getDecisionLevel()];
+                    if (trail.value(assumption) == Trail.TRUE) {
+                        trail.newDecisionLevel();
+                    } else if (trail.value(assumption) == Trail.FALSE) {
+                        failedAssumptions = analyzeFinal(assumption);
+                        return SolverResult.UNSATISFIABLE;
+                    } else {
+                        decision = assumption;
+                        break;
+                    }
+                }
+                if (decision < 0) {
+                    int variable = pickBranchingVariable();
+                    if (variable == 0) {
+                        return SolverResult.SATISFIABLE;
+                    }
+                    decision = 2 * variable + (negativePhases[variable] ? 1 : 0);
+                }
+                decisions++;
+                trail.newDecisionLevel();
+                enqueue(decision, -1);
+            }
+        }
+    }
+
+    /**
+     * Returns the assumptions which the last search found to be unsatisfiable together with the formula.
+     * They are a subset of the assumptions of the search, not necessarily minimal, and empty if the
+     * search did not end with {@link SolverResult#UNSATISFIABLE} or if the formula itself is unsatisfiable.
+     *
+     * @return The encoded failed assumptions.
+     */
+    public int[] getFailedAssumptions() {
+        return failedAssumptions;
+    }
+
+    /**
+     * Sets the time after which the searches give up and return {@link SolverResult#UNKNOWN}. The
+     * deadline is checked at conflicts.
+     *
+     * @param deadline A value of {@link System#nanoTime()}, or {@link Long#MAX_VALUE} for no deadline.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Checks if the formula has been proven unsatisfiable, whatever the assumptions.
+     *
+     * @return Is the formula unsatisfiable.
+     */
+    public boolean isUnsatisfiable() {
+        return unsatisfiable;
+    }
+
+    /**
+     * Propagates the assignments which are pending at the current decision level.
+     *
+     * @return False if propagation leads to a conflict, which at level 0 proves the formula unsatisfiable.
+     */
+    public boolean propagateAssignments() {
+        if (unsatisfiable) {
+            return false;
+        }
+        int conflict = propagate();
+        if (conflict < 0) {
+            return true;
+        }
+        if (trail.getDecisionLevel() == 0) {
+            refute(conflict);
+        }
+        return false;
+    }
+
+    /**
+     * Opens a new decision level, assigns an unassigned literal true in it and propagates it.
+     * The pending assignments must have been propagated already. The level stays open whatever the
+     * outcome and is closed by {@link #backtrack(int)}.
+     *
+     * @param literal The encoded literal.
+     * @return False if propagation leads to a conflict.
+     */
+    public boolean assume(int literal) {
+        trail.newDecisionLevel();
+        enqueue(literal, -1);
+        return propagate() < 0;
+    }
+
+    /**
+     * Undoes all assignments made above the given decision level.
+     *
+     * @param level The decision level to return to.
+     */
+    public void backtrack(int level) {
+        backjump(level);
+    }
+
+    /**
+     * Returns the current decision level.
+     *
+     * @return The decision level.
+     */
+    public int getDecisionLevel() {
+        return trail.getDecisionLevel();
+    }
+
+    /**
+     * Returns the number of assigned variables.
+     *
+     * @return Assigned variables number.
+     */
+    public int getNumberOfAssignments() {
+        return trail.size();
+    }
+
+    /**
+     * Returns the current value of a literal.
+     *
+     * @param literal The encoded literal.
+     * @return {@link Trail#TRUE}, {@link Trail#FALSE} or {@link Trail#UNASSIGNED}.
+     */
+    public byte getValue(int literal) {
+        return trail.value(literal);
+    }
+
+    /**
+     * Returns the satisfying assignment found by the last successful search.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    @Override
+    public boolean[] getModel() {
+        boolean[] model = new boolean[numberOfVariables];
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            model[variable - 1] = trail.value(2 * variable) == Trail.TRUE;
+        }
+        return model;
+    }
+
+    /**
+     * Returns the number of clauses currently in the learned clause database.
+     *
+     * @return Learned clauses number.
+     */
+    public int getNumberOfLearnedClauses() {
+        return database.getNumberOfLearnedClauses();
+    }
+
+    /**
+     * Returns the number of bytes used by the learned clauses currently in the database.
+     *
+     * @return Bytes number.
+     */
+    public long getLearnedClauseBytes() {
+        return database.getLearnedBytes();
+    }
+
+    /**
+     * Returns the number of reductions of the learned clause database.
+     *
+     * @return Reductions number.
+     */
+    public int getNumberOfReductions() {
+        return reductions;
+    }
+
+    /**
+     * Returns the number of conflicts met by the search.
+     *
+     * @return Conflicts number.
+     */
+    public long getNumberOfConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Returns the number of decisions taken by the search.
+     *
+     * @return Decisions number.
+     */
+    public long getNumberOfDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Returns the number of restarts of the search.
+     *
+     * @return Restarts number.
+     */
+    public int getNumberOfRestarts() {
+        return restartPolicy.getNumberOfRestarts();
+    }
+
+    /**
+     * Publishes a learned clause in the exchange if it is short enough and the export budget of the
+     * current window of a thousand conflicts is not spent.
+     *
+     * @param learned The learned clause.
+     * @param lbd     Its Literal Block Distance.
+     */
+    private void exportClause(int[] learned, int lbd) {
+        if (conflicts - exportWindowStart >= 1000) {
+            exportWindowStart = conflicts;
+            exportedInWindow = 0;
+        }
+        if (exportedInWindow < exchange.getBudget() && exchange.isEligible(learned.length, lbd)) {
+            exchange.publish(workerId, learned.clone(), lbd);
+            exportedInWindow++;
+        }
+    }
+
+    /**
+     * Adds the clauses published by the other workers since the last import. Must be called at decision
+     * level 0. False literals are dropped, satisfied clauses are ignored and unit clauses are assigned.
+     *
+     * @return False if an imported clause is falsified, which proves the formula unsatisfiable.
+     */
+    private boolean importClauses() {
+        List<ClauseExchange.SharedClause> shared = new ArrayList<>();
+        exchangeCursor = exchange.collect(exchangeCursor, workerId, shared);
+        for (ClauseExchange.SharedClause clause : shared) {
+            int[] literals = clause.getLiterals();
+            if (literals.length > learnedBuffer.length) {
+                learnedBuffer = new int[Math.max(literals.length, 2 * learnedBuffer.length)];
+            }
+            int size = 0;
+            boolean satisfied = false;
+            for (int literal : literals) {
+                if (trail.value(literal) == Trail.TRUE) {
+                    satisfied = true;
+                    break;
+                } else if (trail.value(literal) == Trail.UNASSIGNED) {
+                    learnedBuffer[size++] = literal;
+                }
+            }
+
+            if (satisfied) {
+                continue;
+            }
+            if (size == 0) {
+                return false;
+            } else if (size == 1) {
+                enqueue(learnedBuffer[0], -1);
+            } else {
+                attach(database.add(learnedBuffer, size, true, Math.min(clause.getLbd(), size), nextClauseId++));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registers the clause in the watch lists of its first two literals.
+     *
+     * @param clause The reference of the clause being attached.
+     */
+    private void attach(int clause) {
+        watches[database.getLiteral(clause, 0)].add(clause);
+        watches[database.getLiteral(clause, 1)].add(clause);
+    }
+
+    /**
+     * Assigns a literal true and records it on the trail. A literal implied at level 0 is added to the
+     * proof as a unit clause, so the proof stays valid when its reason is deleted.
+     *
+     * @param literal The literal being assigned.
+     * @param reason  The reference of the clause implying the literal, -1 for decisions.
+     */
+    private void enqueue(int literal, int reason) {
+        reasons[variable(literal)] = reason;
+        trail.assign(literal);
+        if (proof != null && reason >= 0 && trail.getDecisionLevel() == 0) {
+            hintCount = 0;
+            addRootHints(reason, literal);
+            int id = nextClauseId++;
+            proof.add(id, new int[]{literal}, 0, 1, hints, hintCount);
+            if (lrat) {
+                unitIds[variable(literal)] = id;
+            }
+        }
+    }
+
+    /**
+     * Records that a conflict at level 0 proves the formula unsatisfiable, and ends the proof with the
+     * empty clause.
+     *
+     * @param conflict The reference of the conflicting clause.
+     */
+    private void refute(int conflict) {
+        unsatisfiable = true;
+        if (proof != null) {
+            hintCount = 0;
+            addRootHints(conflict, -1);
+            proof.add(nextClauseId++, new int[0], 0, 0, hints, hintCount);
+        }
+    }
+
+    /**
+     * Appends to the hints the unit clauses of the level 0 assignments falsifying a clause, followed by
+     * the clause itself. Does nothing outside LRAT.
+     *
+     * @param clause  The reference of the clause, whose literals are false at level 0 but the skipped one.
+     * @param skipped The literal of the clause which is not false, -1 if there is none.
+     */
+    private void addRootHints(int clause, int skipped) {
+        if (!lrat) {
+            return;
+        }
+        for (int i = 0; i < database.getSize(clause); i++) {
+            int literal = database.getLiteral(clause, i);
+            if (literal != skipped) {
+                addHint(unitIds[variable(literal)]);
+            }
+        }
+        addHint(database.getId(clause));
+    }
+
+    /**
+     * Appends a clause identifier to the hints.
+     *
+     * @param id The identifier.
+     */
+    private void addHint(int id) {
+        if (hintCount == hints.length) {
+            hints = Arrays.copyOf(hints, 2 * hintCount);
+        }
+        hints[hintCount++] = id;
+    }
+
+    /**
+     * Propagates all pending assignments until a fixpoint or a conflict is reached.
+     * Only the clauses watching the negation of an assigned literal are visited. A visited clause either
+     * finds a new non-false literal to watch, becomes unit, or is the conflict.
+     *
+     * @return The reference of the conflicting clause or -1 if there is no conflict.
+     */
+    private int propagate() {
+        ClauseDatabase database = this.database;
+        while (propagationHead < trail.size()) {
+            int falseLiteral = trail.get(propagationHead++) ^ 1;
+            WatchList watchList = watches[falseLiteral];
+            int size = watchList.size();
+            int kept = 0;
+
+            for (int i = 0; i < size; i++) {
+                int clause = watchList.get(i);
+                int first = clause + ClauseDatabase.HEADER_SIZE;
+                int firstLiteral = database.read(first);
+                if (firstLiteral == falseLiteral) {
+                    firstLiteral = database.read(first + 1);
+                    database.write(first, firstLiteral);
+                    database.write(first + 1, falseLiteral);
+                }
+
+                if (trail.value(firstLiteral) == Trail.TRUE) {
+                    watchList.set(kept++, clause);
+                    continue;
+                }
+
+                boolean moved = false;
+                int end = first + database.read(clause);
+                for (int k = first + 2; k < end; k++) {
+                    int literal = database.read(k);
+                    if (trail.value(literal) != Trail.FALSE) {
+                        database.write(first + 1, literal);
+                        database.write(k, falseLiteral);
+                        watches[literal].add(clause);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                watchList.set(kept++, clause);
+                if (trail.value(firstLiteral) == Trail.FALSE) {
+                    while (++i < size) {
+                        watchList.set(kept++, watchList.get(i));
+                    }
+                    watchList.shrink(kept);
+                    propagationHead = trail.size();
+                    return clause;
+                }
+                enqueue(firstLiteral, clause);
+            }
+            watchList.shrink(kept);
+        }
+        return -1;
+    }
+
+    /**
+     * Analyses a conflict and derives the First Unique Implication Point clause.
+     * The asserting literal is placed at index 0 and a literal of the highest remaining level at index 1.
+     * Every variable met during the analysis has its activity bumped. The learned clauses met have their
+     * activity bumped, are marked as used and get their Literal Block Distance updated if it decreased.
+     * For LRAT proofs the hints are set to the chain deriving the clause: the unit clauses of the level 0
+     * assignments met, then the resolved clauses in trail order, ending with the conflict.
+     *
+     * @param conflict The reference of the conflicting clause.
+     * @return The learned clause.
+     */
+    private int[] analyze(int conflict) {
+        int size = 1;
+        int pathCount = 0;
+        int literal = -1;
+        int index = trail.size() - 1;
+        int clause = conflict;
+        hintCount = 0;
+        chainSize = 0;
+
+        do {
+            int first = clause + ClauseDatabase.HEADER_SIZE;
+            int end = first + database.read(clause);
+            if (lrat) {
+                if (chainSize == chain.length) {
+                    chain = Arrays.copyOf(chain, 2 * chainSize);
+                }
+                chain[chainSize++] = database.getId(clause);
+            }
+            if (database.isLearned(clause)) {
+                database.bumpActivity(clause);
+                database.setUsed(clause, true);
+                int lbd = database.getLbd(clause);
+                if (lbd > CORE_LBD) {
+                    int updated = computeLbd(clause);
+                    if (updated < lbd) {
+                        database.setLbd(clause, updated);
+                    }
+                }
+            }
+
+            for (int k = first; k < end; k++) {
+                int other = database.read(k);
+                int variable = variable(other);
+                if (other == literal || seen[variable]) {
+                    continue;
+                }
+                if (trail.level(variable) == 0) {
+                    if (lrat) {
+                        seen[variable] = true;
+                        addHint(variable);
+                    }
+                    continue;
+                }
+                seen[variable] = true;
+                order.bump(variable);
+                if (trail.level(variable) == trail.getDecisionLevel()) {
+                    pathCount++;
+                } else {
+                    if (size == learnedBuffer.length) {
+                        learnedBuffer = Arrays.copyOf(learnedBuffer, 2 * size);
+                    }
+                    learnedBuffer[size++] = other;
+                }
+            }
+
+            while (!seen[variable(trail.get(index))]) {
+                index--;
+            }
+            literal = trail.get(index--);
+            clause = reasons[variable(literal)];
+            seen[variable(literal)] = false;
+            pathCount--;
+        } while (pathCount > 0);
+
+        if (lrat) {
+            for (int i = 0; i < hintCount; i++) {
+                seen[hints[i]] = false;
+                hints[i] = unitIds[hints[i]];
+            }
+            while (chainSize > 0) {
+                addHint(chain[--chainSize]);
+            }
+        }
+
+        int[] result = Arrays.copyOf(learnedBuffer, size);
+        result[0] = literal ^ 1;
+        int highest = 1;
+        for (int i = 1; i < size; i++) {
+            seen[variable(result[i])] = false;
+            if (trail.level(variable(result[i])) > trail.level(variable(result[highest]))) {
+                highest = i;
+            }
+        }
+
+        if (size > 1) {
+            int swap = result[1];
+            result[1] = result[highest];
+            result[highest] = swap;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the assumptions which imply the negation of a failed assumption, by following the reasons of
+     * the assignments back from it. All decisions on the trail are assumptions at that point.
+     *
+     * @param assumption The assumption found false.
+     * @return The failed assumption and the earlier assumptions responsible for it.
+     */
+    private int[] analyzeFinal(int assumption) {
+        int[] core = new int[assumptions.length];
+        int size = 0;
+        core[size++] = assumption;
+        if (trail.level(variable(assumption)) == 0) {
+            return Arrays.copyOf(core, size);
+        }
+
+        seen[variable(assumption)] = true;
+        for (int i = trail.size() - 1; i >= trail.getLevelStart(0); i--) {
+            int literal = trail.get(i);
+            int variable = variable(literal);
+            if (!seen[variable]) {
+                continue;
+            }
+            seen[variable] = false;
+            int reason = reasons[variable];
+            if (reason < 0) {
+                core[size++] = literal;
+                continue;
+            }
+            int first = reason + ClauseDatabase.HEADER_SIZE;
+            for (int k = first + 1; k < first + database.read(reason); k++) {
+                int other = variable(database.read(k));
+                if (trail.level(other) > 0) {
+                    seen[other] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(core, size);
+    }
+
+    /**
+     * Computes the Literal Block Distance of a clause: the number of distinct decision levels of its
+     * literals.
+     *
+     * @param literals The array holding the literals of the clause, which are all assigned.
+     * @param from     Index of the first literal.
+     * @param size     Number of literals.
+     * @return The Literal Block Distance.
+     */
+    private int computeLbd(int[] literals, int from, int size) {
+        newLevelStamp();
+        int lbd = 0;
+        for (int i = from; i < from + size; i++) {
+            int level = trail.level(variable(literals[i]));
+            if (levelStamps[level] != stamp) {
+                levelStamps[level] = stamp;
+                lbd++;
+            }
+        }
+        return lbd;
+    }
+
+    /**
+     * Computes the Literal Block Distance of a clause of the database.
+     *
+     * @param clause The reference of the clause, whose literals are all assigned.
+     * @return The Literal Block Distance.
+     */
+    private int computeLbd(int clause) {
+        newLevelStamp();
+        int from = clause + ClauseDatabase.HEADER_SIZE;
+        int lbd = 0;
+        for (int i = from; i < from + database.read(clause); i++) {
+            int level = trail.level(variable(database.read(i)));
+            if (levelStamps[level] != stamp) {
+                levelStamps[level] = stamp;
+                lbd++;
+            }
+        }
+        return lbd;
+    }
+
+    /**
+     * Starts a new stamp of the decision levels, growing the level stamps to the current decision level.
+     */
+    private void newLevelStamp() {
+        if (levelStamps.length <= trail.getDecisionLevel()) {
+            levelStamps = Arrays.copyOf(levelStamps, 2 * trail.getDecisionLevel() + 1);
+        }
+        stamp++;
+    }
+
+    /**
+     * Deletes the least useful learned clauses and compacts the database.
+     * Clauses which are the reason of an assignment are never deleted. Core clauses are kept, mid tier
+     * clauses are kept if they were used since the last reduction, and the less active half of the other
+     * clauses is deleted. If the learned clauses still use more memory than the configured limit, further
+     * clauses are deleted, least protected and least active first, until they use at most half of it.
+     */
+    private void reduceLearnedClauses() {
+        reductions++;
+        nextReduction = conflicts + configuration.getFirstReduction()
+                + (long) reductions * configuration.getReductionIncrement();
+
+        int learned = database.getNumberOfLearnedClauses();
+        long[] local = new long[learned];
+        long[] tier2 = new long[learned];
+        long[] core = new long[learned];
+        int localSize = 0;
+        int tier2Size = 0;
+        int coreSize = 0;
+        for (int clause = database.first(); clause < database.end(); clause = database.next(clause)) {
+            if (!database.isLearned(clause) || database.isDeleted(clause) || isLocked(clause)) {
+                continue;
+            }
+            long key = ((long) Float.floatToRawIntBits(database.getActivity(clause)) << 32) | clause;
+            int lbd = database.getLbd(clause);
+            if (lbd <= CORE_LBD) {
+                core[coreSize++] = key;
+            } else if (lbd <= TIER2_LBD && database.isUsed(clause)) {
+                tier2[tier2Size++] = key;
+            } else {
+                local[localSize++] = key;
+            }
+            database.setUsed(clause, false);
+        }
+
+        Arrays.sort(local, 0, localSize);
+        for (int i = 0; i < localSize / 2; i++) {
+            deleteClause((int) local[i]);
+        }
+        long limit = configuration.getLearnedClauseMemoryLimit();
+        if (database.getLearnedBytes() > limit) {
+            Arrays.sort(tier2, 0, tier2Size);
+            Arrays.sort(core, 0, coreSize);
+            deleteUntil(local, localSize / 2, localSize, limit / 2);
+            deleteUntil(tier2, 0, tier2Size, limit / 2);
+            deleteUntil(core, 0, coreSize, limit / 2);
+        }
+
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            if (trail.value(2 * variable) == Trail.UNASSIGNED) {
+                reasons[variable] = -1;
+            }
+        }
+        database.compact(reasons);
+        for (WatchList watchList : watches) {
+            watchList.shrink(0);
+        }
+        for (int clause = database.first(); clause < database.end(); clause = database.next(clause)) {
+            attach(clause);
+        }
+    }
+
+    /**
+     * Deletes the clauses satisfied at level 0, which can never take part in propagation again, and
+     * compacts the database. Must be called at level 0 after propagation. The watched literals of the
+     * remaining clauses are unchanged.
+     */
+    private void removeSatisfiedClauses() {
+        simplifiedAssignments = trail.size();
+        for (int clause = database.first(); clause < database.end(); clause = database.next(clause)) {
+            int first = clause + ClauseDatabase.HEADER_SIZE;
+            for (int k = first; k < first + database.read(clause); k++) {
+                if (trail.value(database.read(k)) == Trail.TRUE) {
+                    deleteClause(clause);
+                    break;
+                }
+            }
+        }
+
+        Arrays.fill(reasons, -1);
+        database.compact(reasons);
+        for (WatchList watchList : watches) {
+            watchList.shrink(0);
+        }
+        for (int clause = database.first(); clause < database.end(); clause = database.next(clause)) {
+            attach(clause);
+        }
+    }
+
+    /**
+     * Deletes learned clauses in order until the learned clauses use at most the given number of bytes.
+     *
+     * @param keys  Keys of the clauses sorted by activity, holding the reference of every clause in their
+     *              lowest 32 bits.
+     * @param from  Index of the first clause which may be deleted.
+     * @param to    Index after the last clause which may be deleted.
+     * @param bytes The number of bytes the learned clauses may use.
+     */
+    private void deleteUntil(long[] keys, int from, int to, long bytes) {
+        for (int i = from; i < to && database.getLearnedBytes() > bytes; i++) {
+            deleteClause((int) keys[i]);
+        }
+    }
+
+    /**
+     * Deletes a clause from the database and from the proof.
+     *
+     * @param clause The reference of the clause.
+     */
+    private void deleteClause(int clause) {
+        if (proof != null) {
+            int[] literals = new int[database.getSize(clause)];
+            for (int i = 0; i < literals.length; i++) {
+                literals[i] = database.getLiteral(clause, i);
+            }
+            proof.delete(database.getId(clause), literals, 0, literals.length);
+        }
+        database.delete(clause);
+    }
+
+    /**
+     * Checks if a clause is the reason of an assignment on the trail, in which case it cannot be deleted.
+     * The literal implied by a clause is always its first one.
+     *
+     * @param clause The reference of the clause.
+     * @return Is the clause a reason.
+     */
+    private boolean isLocked(int clause) {
+        int literal = database.getLiteral(clause, 0);
+        return reasons[variable(literal)] == clause && trail.value(literal) == Trail.TRUE;
+    }
+
+    /**
+     * Restarts the search. With trail reuse, the decision levels whose decision variable is more active
+     * than the variable which would be decided first after the restart are kept, since the search would
+     * take the same decisions and derive the same assignments again. The levels of the assumptions are
+     * always kept. When clauses from other workers are waiting to be imported the search goes back to
+     * level 0 instead.
+     */
+    private void restart() {
+        restartPolicy.onRestart();
+        boolean importPending = exchange != null && exchange.getPublished() > exchangeCursor;
+        int level = importPending ? 0 : Math.min(assumptions.length, trail.getDecisionLevel());
+        if (configuration.isTrailReuse() && !importPending) {
+            int next = pickBranchingVariable();
+            if (next != 0) {
+                order.insert(next);
+                double activity = order.getActivity(next);
+                while (level < trail.getDecisionLevel()
+                        && order.getActivity(variable(trail.get(trail.getLevelStart(level)))) > activity) {
+                    level++;
+                }
+            }
+        }
+        backjump(level);
+    }
+
+    /**
+     * Undoes all assignments made above the given decision level. The unassigned variables return to
+     * the decision order and, with phase saving, remember their value.
+     *
+     * @param level The decision level the search jumps back to.
+     */
+    private void backjump(int level) {
+        if (trail.getDecisionLevel() > level) {
+            boolean phaseSaving = configuration.isPhaseSaving();
+            for (int i = trail.getLevelStart(level); i < trail.size(); i++) {
+                int literal = trail.get(i);
+                order.insert(variable(literal));
+                if (phaseSaving) {
+                    negativePhases[variable(literal)] = Literal.isNegated(literal);
+                }
+            }
+        }
+        trail.backtrack(level);
+        propagationHead = Math.min(propagationHead, trail.size());
+    }
+
+    /**
+     * Picks the most active unassigned variable, or with the configured frequency a random one.
+     * Assigned variables found on top of the order are removed from it; they are inserted again when the
+     * search backjumps over them.
+     *
+     * @return The branching variable or 0 if every variable is assigned.
+     */
+    private int pickBranchingVariable() {
+        if (numberOfVariables > 0 && configuration.getRandomDecisionFrequency() > 0
+                && random.nextDouble() < configuration.getRandomDecisionFrequency()) {
+            int variable = 1 + random.nextInt(numberOfVariables);
+            if (trail.value(2 * variable) == Trail.UNASSIGNED) {
+                return variable;
+            }
+        }
+        int variable;
+        do {
+            variable = order.removeMax();
+        } while (variable != 0 && trail.value(2 * variable) != Trail.UNASSIGNED);
+        return variable;
+    }
+
+    /**
+     * Returns the variable of an encoded literal.
+     *
+     * @param literal The encoded literal.
+     * @return The variable number.
+     */
+    private static int variable(int literal) {
+        return Literal.variable(literal);
+    }
+}
@@ -0,0 +1,505 @@
+package algorithms.cdcl;
+
+import algorithms.cnf.exceptions.MemoryBudgetExceededException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Store of the original and learned clauses of the CDCL solver.
+ * All clauses live in one sequence of ints. A clause is referenced by the position of its header, which
+ * holds its size, its flags, its Literal Block Distance, its activity and its identifier in proofs,
+ * followed by its literals. Deleted clauses keep their space until {@link #compact(int[])} moves the
+ * remaining clauses down in place.
+ * <p>
+ * The ints are kept either in one array on the Java heap or, for formulas too large for the heap, in
+ * fixed size chunks of direct memory bounded by a budget, like an {@link algorithms.cnf.OffHeapClauseArena}.
+ * Such a database grows by adding chunks without copying the existing ones, and throws a
+ * {@link MemoryBudgetExceededException} when it would need more than its budget.
+ * <p>
+ * The activity of learned clauses is bumped when they take part in conflict analysis and decays
+ * exponentially in the same way as the activity of the variables.
+ */
+public class ClauseDatabase {
+    /**
+     * Number of ints of the header of a clause.
+     */
+    public static final int HEADER_SIZE = 4;
+
+    /**
+     * Flag of learned clauses.
+     */
+    private static final int LEARNED = 1;
+
+    /**
+     * Flag of deleted clauses.
+     */
+    private static final int DELETED = 2;
+
+    /**
+     * Flag of clauses used in conflict analysis since it was last cleared.
+     */
+    private static final int USED = 4;
+
+    /**
+     * Position of the Literal Block Distance in the flags.
+     */
+    private static final int LBD_SHIFT = 8;
+
+    /**
+     * Activity above which all clause activities are scaled down.
+     */
+    private static final float RESCALE_LIMIT = 1e20f;
+
+    /**
+     * Smallest number of ints of the memory array.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * Largest size in bytes of a chunk of direct memory.
+     */
+    private static final int MAX_CHUNK_BYTES = 1 << 22;
+
+    /**
+     * Smallest size in bytes of a chunk of direct memory.
+     */
+    private static final int MIN_CHUNK_BYTES = 1 << 12;
+
+    /**
+     * The headers and literals of all clauses, null if they are kept in direct memory.
+     */
+    private int[] memory;
+
+    /**
+     * The chunks of direct memory holding the headers and literals of all clauses, null if they are kept
+     * on the heap.
+     */
+    private IntBuffer[] chunks;
+
+    /**
+     * Base 2 logarithm of the number of ints of a chunk.
+     */
+    private final int chunkShift;
+
+    /**
+     * Mask of the position of an int within its chunk.
+     */
+    private final int chunkMask;
+
+    /**
+     * Maximum number of bytes of direct memory the database may allocate.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Position after the last clause.
+     */
+    private int top;
+
+    /**
+     * Number of clauses, deleted ones included.
+     */
+    private int numberOfClauses;
+
+    /**
+     * Number of deleted clauses.
+     */
+    private int numberOfDeletedClauses;
+
+    /**
+     * Number of learned clauses which are not deleted.
+     */
+    private int numberOfLearnedClauses;
+
+    /**
+     * Number of ints used by the learned clauses which are not deleted.
+     */
+    private long learnedSize;
+
+    /**
+     * Amount added to the activity of a bumped clause.
+     */
+    private float activityIncrement;
+
+    /**
+     * Factor by which the clause activities decay after every conflict.
+     */
+    private final float decay;
+
+    /**
+     * Constructor of a database kept on the heap.
+     *
+     * @param decay Factor between 0 and 1 by which the clause activities decay after every conflict.
+     */
+    public ClauseDatabase(double decay) {
+        this.decay = (float) decay;
+        memory = new int[INITIAL_CAPACITY];
+        chunkShift = 0;
+        chunkMask = 0;
+        memoryBudget = 0;
+        activityIncrement = 1;
+    }
+
+    /**
+     * Constructor of a database kept in direct memory.
+     *
+     * @param decay        Factor between 0 and 1 by which the clause activities decay after every conflict.
+     * @param memoryBudget Maximum number of bytes of direct memory the database may allocate.
+     */
+    public ClauseDatabase(double decay, long memoryBudget) {
+        this.decay = (float) decay;
+        this.memoryBudget = memoryBudget;
+        long preferredChunk = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, memoryBudget / 32));
+        chunkShift = Integer.numberOfTrailingZeros(Integer.highestOneBit((int) preferredChunk) / Integer.BYTES);
+        chunkMask = (1 << chunkShift) - 1;
+        chunks = new IntBuffer[0];
+        activityIncrement = 1;
+    }
+
+    /**
+     * Adds a clause.
+     *
+     * @param literals The encoded literals.
+     * @param size     Number of literals, read from the start of the array.
+     * @param learned  Is the clause learned.
+     * @param lbd      The Literal Block Distance of a learned clause.
+     * @param id       The identifier of the clause in proofs.
+     * @return The reference of the clause.
+     */
+    public int add(int[] literals, int size, boolean learned, int lbd, int id) {
+        int length = HEADER_SIZE + size;
+        if (top + (long) length > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("The clause database cannot grow beyond 2^31 ints.");
+        }
+        if (memory == null) {
+            while (((long) chunks.length << chunkShift) < top + length) {
+                allocateChunk();
+            }
+        } else if (top + length > memory.length) {
+            long capacity = Math.min(Math.max(top + (long) length, 2L * memory.length), Integer.MAX_VALUE - 8);
+            memory = Arrays.copyOf(memory, (int) capacity);
+        }
+        int clause = top;
+        write(clause, size);
+        write(clause + 1, (learned ? LEARNED : 0) | (Math.min(lbd, 1 << 20) << LBD_SHIFT));
+        write(clause + 2, Float.floatToRawIntBits(0));
+        write(clause + 3, id);
+        if (memory != null) {
+            System.arraycopy(literals, 0, memory, clause + HEADER_SIZE, size);
+        } else {
+            for (int i = 0; i < size; i++) {
+                write(clause + HEADER_SIZE + i, literals[i]);
+            }
+        }
+        top += length;
+        numberOfClauses++;
+        if (learned) {
+            numberOfLearnedClauses++;
+            learnedSize += length;
+        }
+        return clause;
+    }
+
+    /**
+     * Reads an int of the database, for the loops of the solver which read the literals directly.
+     * The literal i of the clause c is at position c + HEADER_SIZE + i.
+     *
+     * @param position The position of the int.
+     * @return The int.
+     */
+    public int read(int position) {
+        int[] memory = this.memory;
+        return memory != null ? memory[position] : chunks[position >>> chunkShift].get(position & chunkMask);
+    }
+
+    /**
+     * Overwrites an int of the database, for the loops of the solver which move the watched literals of
+     * a clause.
+     *
+     * @param position The position of the int.
+     * @param value    The new int.
+     */
+    public void write(int position, int value) {
+        int[] memory = this.memory;
+        if (memory != null) {
+            memory[position] = value;
+        } else {
+            chunks[position >>> chunkShift].put(position & chunkMask, value);
+        }
+    }
+
+    /**
+     * Returns the number of literals of a clause.
+     *
+     * @param clause The reference of the clause.
+     * @return Clause size.
+     */
+    public int getSize(int clause) {
+        return read(clause);
+    }
+
+    /**
+     * Returns a literal of a clause.
+     *
+     * @param clause   The reference of the clause.
+     * @param position Position of the literal in the clause.
+     * @return The encoded literal.
+     */
+    public int getLiteral(int clause, int position) {
+        return read(clause + HEADER_SIZE + position);
+    }
+
+    /**
+     * Returns the identifier of a clause in proofs.
+     *
+     * @param clause The reference of the clause.
+     * @return The identifier.
+     */
+    public int getId(int clause) {
+        return read(clause + 3);
+    }
+
+    /**
+     * Checks if a clause is learned.
+     *
+     * @param clause The reference of the clause.
+     * @return Is the clause learned.
+     */
+    public boolean isLearned(int clause) {
+        return (read(clause + 1) & LEARNED) != 0;
+    }
+
+    /**
+     * Checks if a clause is deleted.
+     *
+     * @param clause The reference of the clause.
+     * @return Is the clause deleted.
+     */
+    public boolean isDeleted(int clause) {
+        return (read(clause + 1) & DELETED) != 0;
+    }
+
+    /**
+     * Deletes a clause. Its space is reclaimed by the next compaction.
+     *
+     * @param clause The reference of the clause.
+     */
+    public void delete(int clause) {
+        if (isDeleted(clause)) {
+            return;
+        }
+        write(clause + 1, read(clause + 1) | DELETED);
+        numberOfDeletedClauses++;
+        if (isLearned(clause)) {
+            numberOfLearnedClauses--;
+            learnedSize -= HEADER_SIZE + read(clause);
+        }
+    }
+
+    /**
+     * Checks if a clause was used in conflict analysis since the flag was last cleared.
+     *
+     * @param clause The reference of the clause.
+     * @return Was the clause used.
+     */
+    public boolean isUsed(int clause) {
+        return (read(clause + 1) & USED) != 0;
+    }
+
+    /**
+     * Sets or clears the flag of clauses used in conflict analysis.
+     *
+     * @param clause The reference of the clause.
+     * @param used   Was the clause used.
+     */
+    public void setUsed(int clause, boolean used) {
+        if (used) {
+            write(clause + 1, read(clause + 1) | USED);
+        } else {
+            write(clause + 1, read(clause + 1) & ~USED);
+        }
+    }
+
+    /**
+     * Returns the Literal Block Distance of a learned clause.
+     *
+     * @param clause The reference of the clause.
+     * @return The Literal Block Distance.
+     */
+    public int getLbd(int clause) {
+        return read(clause + 1) >>> LBD_SHIFT;
+    }
+
+    /**
+     * Sets the Literal Block Distance of a learned clause.
+     *
+     * @param clause The reference of the clause.
+     * @param lbd    The Literal Block Distance.
+     */
+    public void setLbd(int clause, int lbd) {
+        write(clause + 1, (read(clause + 1) & ((1 << LBD_SHIFT) - 1)) | (Math.min(lbd, 1 << 20) << LBD_SHIFT));
+    }
+
+    /**
+     * Returns the activity of a clause.
+     *
+     * @param clause The reference of the clause.
+     * @return The activity.
+     */
+    public float getActivity(int clause) {
+        return Float.intBitsToFloat(read(clause + 2));
+    }
+
+    /**
+     * Increases the activity of a clause taking part in conflict analysis.
+     *
+     * @param clause The reference of the clause.
+     */
+    public void bumpActivity(int clause) {
+        float activity = getActivity(clause) + activityIncrement;
+        write(clause + 2, Float.floatToRawIntBits(activity));
+        if (activity > RESCALE_LIMIT) {
+            for (int c = 0; c < top; c = next(c)) {
+                write(c + 2, Float.floatToRawIntBits(getActivity(c) / RESCALE_LIMIT));
+            }
+            activityIncrement /= RESCALE_LIMIT;
+        }
+    }
+
+    /**
+     * Makes the activity of all clauses decay, by increasing the amount added by future bumps.
+     */
+    public void decayActivities() {
+        activityIncrement /= decay;
+    }
+
+    /**
+     * Returns the reference of the first clause.
+     *
+     * @return The reference, equal to {@link #end()} if there are no clauses.
+     */
+    public int first() {
+        return 0;
+    }
+
+    /**
+     * Returns the reference of the clause following a clause.
+     *
+     * @param clause The reference of the clause.
+     * @return The reference of the next clause, equal to {@link #end()} after the last clause.
+     */
+    public int next(int clause) {
+        return clause + HEADER_SIZE + read(clause);
+    }
+
+    /**
+     * Returns the position after the last clause.
+     *
+     * @return The end position.
+     */
+    public int end() {
+        return top;
+    }
+
+    /**
+     * Returns the number of learned clauses which are not deleted.
+     *
+     * @return Learned clauses number.
+     */
+    public int getNumberOfLearnedClauses() {
+        return numberOfLearnedClauses;
+    }
+
+    /**
+     * Returns the number of bytes used by the learned clauses which are not deleted.
+     *
+     * @return Bytes number.
+     */
+    public long getLearnedBytes() {
+        return learnedSize * Integer.BYTES;
+    }
+
+    /**
+     * Returns the number of bytes allocated for the clauses, on the heap or in direct memory.
+     *
+     * @return Bytes number.
+     */
+    public long getAllocatedBytes() {
+        return memory != null ? (long) memory.length * Integer.BYTES : (long) chunks.length << chunkShift << 2;
+    }
+
+    /**
+     * Checks if the clauses are kept in direct memory.
+     *
+     * @return Are the clauses outside of the heap.
+     */
+    public boolean isOffHeap() {
+        return memory == null;
+    }
+
+    /**
+     * Moves the clauses which are not deleted down over the deleted ones, keeping their order, and
+     * releases the memory no longer needed. References held outside of the database become invalid,
+     * except for the ones passed to this method, which are updated.
+     *
+     * @param references References of clauses which are not deleted, updated in place. Negative entries
+     *                   are left unchanged.
+     */
+    public void compact(int[] references) {
+        int live = numberOfClauses - numberOfDeletedClauses;
+        int[] oldReferences = new int[live];
+        int[] newReferences = new int[live];
+        int count = 0;
+        int to = 0;
+        for (int clause = 0; clause < top; ) {
+            int length = HEADER_SIZE + read(clause);
+            if (!isDeleted(clause)) {
+                if (memory != null) {
+                    System.arraycopy(memory, clause, memory, to, length);
+                } else if (to != clause) {
+                    for (int i = 0; i < length; i++) {
+                        write(to + i, read(clause + i));
+                    }
+                }
+                oldReferences[count] = clause;
+                newReferences[count++] = to;
+                to += length;
+            }
+            clause += length;
+        }
+        top = to;
+        numberOfClauses = live;
+        numberOfDeletedClauses = 0;
+        if (memory == null) {
+            int needed = (int) (((long) top + top / 2 + chunkMask) >>> chunkShift);
+            if (chunks.length > 2 * needed) {
+                chunks = Arrays.copyOf(chunks, needed);
+            }
+        } else if (memory.length > INITIAL_CAPACITY && memory.length > 2 * top) {
+            memory = Arrays.copyOf(memory, Math.max(INITIAL_CAPACITY, top + top / 2));
+        }
+
+        for (int i = 0; i < references.length; i++) {
+            if (references[i] >= 0) {
+                references[i] = newReferences[Arrays.binarySearch(oldReferences, references[i])];
+            }
+        }
+    }
+
+    /**
+     * Allocates a chunk of direct memory, charging it to the memory budget.
+     */
+    private void allocateChunk() {
+        long chunkBytes = (long) Integer.BYTES << chunkShift;
+        if (getAllocatedBytes() + chunkBytes > memoryBudget) {
+            throw new MemoryBudgetExceededException("The clause database needs more than its memory budget of "
+                    + memoryBudget + " bytes.");
+        }
+        chunks = Arrays.copyOf(chunks, chunks.length + 1);
+        chunks[chunks.length - 1] = ByteBuffer.allocateDirect((int) chunkBytes).order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+    }
+}
@@ -0,0 +1,187 @@
+package algorithms.cdcl;
+
+import algorithms.cnf.Formula;
+
+import java.util.Arrays;
+
+/**
+ * Incremental interface of the CDCL solver, for many related queries against the same base formula.
+ * Clauses and variables can be added between the queries, and every query may assume literals true.
+ * Clauses added after {@link #push()} are retracted by the matching {@link #pop()}: each scope has an
+ * activation variable, the clauses of the scope are extended with its negative literal, and the open
+ * scopes are assumed active during a search. Popping a scope fixes its activation variable to false,
+ * which satisfies its clauses and the clauses learned from them, so the solver removes them.
+ * <p>
+ * The learned clauses, variable activities and saved phases carry over from one query to the next.
+ * Literals use the encoding of {@link algorithms.cnf.Literal#encode(int)}.
+ */
+public class IncrementalSolver {
+    /**
+     * The solver of all queries.
+     */
+    private final CDCLSolver solver;
+
+    /**
+     * The positive literals of the activation variables of the open scopes, innermost last.
+     */
+    private int[] activations;
+
+    /**
+     * Number of open scopes.
+     */
+    private int depth;
+
+    /**
+     * Constructor of a solver with no clauses.
+     *
+     * @param numberOfVariables Number of variables of the formula, more can be added later.
+     */
+    public IncrementalSolver(int numberOfVariables) {
+        this(new Formula(numberOfVariables), new SolverConfiguration());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula       The base formula in Conjunctive Normal Form.
+     * @param configuration The tunable parameters of the solver.
+     */
+    public IncrementalSolver(Formula formula, SolverConfiguration configuration) {
+        solver = new CDCLSolver(formula, configuration);
+        activations = new int[4];
+    }
+
+    /**
+     * Adds a new variable.
+     *
+     * @return The number of the variable.
+     */
+    public int newVariable() {
+        return solver.newVariable();
+    }
+
+    /**
+     * Returns the number of variables, the activation variables of the scopes included.
+     *
+     * @return Variables number.
+     */
+    public int getNumberOfVariables() {
+        return solver.getNumberOfVariables();
+    }
+
+    /**
+     * Adds a clause, which belongs to the innermost open scope if there is one.
+     *
+     * @param literals The encoded literals.
+     */
+    public void addClause(int... literals) {
+        int[] clause = Arrays.copyOf(literals, literals.length + (depth > 0 ? 1 : 0));
+        if (depth > 0) {
+            clause[literals.length] = activations[depth - 1] ^ 1;
+        }
+        solver.addClause(clause, clause.length);
+    }
+
+    /**
+     * Opens a scope. The clauses added until the matching {@link #pop()} are retracted by it.
+     */
+    public void push() {
+        if (depth == activations.length) {
+            activations = Arrays.copyOf(activations, 2 * depth);
+        }
+        activations[depth++] = 2 * solver.newVariable();
+    }
+
+    /**
+     * Closes the innermost scope and retracts its clauses.
+     *
+     * @throws IllegalStateException No scope is open.
+     */
+    public void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("No scope is open.");
+        }
+        solver.addClause(new int[]{activations[--depth] ^ 1}, 1);
+    }
+
+    /**
+     * Returns the number of open scopes.
+     *
+     * @return Scopes number.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Searches for a satisfying assignment of the clauses of the open scopes and of the base formula in
+     * which the given literals are true.
+     *
+     * @param assumptions The encoded literals assumed true.
+     * @return The outcome of the search, {@link SolverResult#UNKNOWN} if it was cancelled.
+     */
+    public SolverResult solve(int... assumptions) {
+        int[] all = new int[depth + assumptions.length];
+        System.arraycopy(activations, 0, all, 0, depth);
+        System.arraycopy(assumptions, 0, all, depth, assumptions.length);
+        return solver.solve(all);
+    }
+
+    /**
+     * Returns the satisfying assignment found by the last successful search. Adding a clause discards it.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    public boolean[] getModel() {
+        return solver.getModel();
+    }
+
+    /**
+     * Returns the assumptions of the last search responsible for its unsatisfiability. The activation
+     * literals of the scopes are left out, so the result is empty when the clauses of the open scopes
+     * are unsatisfiable on their own.
+     *
+     * @return The encoded failed assumptions, a subset of the assumptions of the last search.
+     */
+    public int[] getFailedAssumptions() {
+        int[] failed = solver.getFailedAssumptions();
+        int[] user = new int[failed.length];
+        int size = 0;
+        for (int literal : failed) {
+            boolean activation = false;
+            for (int i = 0; i < depth; i++) {
+                activation |= activations[i] == literal;
+            }
+            if (!activation) {
+                user[size++] = literal;
+            }
+        }
+        return Arrays.copyOf(user, size);
+    }
+
+    /**
+     * Checks if the clauses added so far are unsatisfiable without any assumption, in which case every
+     * later query is unsatisfiable too.
+     *
+     * @return Is the formula unsatisfiable.
+     */
+    public boolean isUnsatisfiable() {
+        return solver.isUnsatisfiable();
+    }
+
+    /**
+     * Returns the underlying solver, for its statistics.
+     *
+     * @return The solver.
+     */
+    public CDCLSolver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Asks the current search to stop. Can be called from any thread; the solver stays cancelled.
+     */
+    public void cancel() {
+        solver.cancel();
+    }
+}
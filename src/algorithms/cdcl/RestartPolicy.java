@@ -0,0 +1,155 @@
+package algorithms.cdcl;
+
+/**
+ * Decides when the CDCL solver restarts, following the {@link RestartStrategy} of its configuration.
+ * The Luby and geometric strategies restart after a number of conflicts fixed in advance. The Glucose
+ * strategy keeps a fast and a slow exponential moving average of the Literal Block Distance of the
+ * learned clauses, and restarts when the recent clauses are clearly worse than the long term average,
+ * which means the search is stuck in a part of the space where it learns little.
+ */
+public class RestartPolicy {
+    /**
+     * Smoothing factor of the fast moving average of the Literal Block Distance.
+     */
+    private static final double FAST_SMOOTHING = 1.0 / 32;
+
+    /**
+     * Smoothing factor of the slow moving average of the Literal Block Distance.
+     */
+    private static final double SLOW_SMOOTHING = 1.0 / 4096;
+
+    /**
+     * Ratio of the fast to the slow average above which the Glucose strategy restarts.
+     */
+    private static final double MARGIN = 1.25;
+
+    /**
+     * The restart strategy.
+     */
+    private final RestartStrategy strategy;
+
+    /**
+     * Number of conflicts of the first interval, or smallest interval for the Glucose strategy.
+     */
+    private final int interval;
+
+    /**
+     * Growth factor of the intervals of the geometric strategy.
+     */
+    private final double growth;
+
+    /**
+     * Number of conflicts since the last restart.
+     */
+    private long conflictsSinceRestart;
+
+    /**
+     * Total number of conflicts.
+     */
+    private long conflicts;
+
+    /**
+     * Number of conflicts after which the next restart happens, for the Luby and geometric strategies.
+     */
+    private double limit;
+
+    /**
+     * Number of restarts so far.
+     */
+    private int restarts;
+
+    /**
+     * Fast moving average of the Literal Block Distance.
+     */
+    private double fastAverage;
+
+    /**
+     * Slow moving average of the Literal Block Distance.
+     */
+    private double slowAverage;
+
+    /**
+     * Constructor.
+     *
+     * @param configuration The configuration of the solver.
+     */
+    public RestartPolicy(SolverConfiguration configuration) {
+        strategy = configuration.getRestartStrategy();
+        interval = configuration.getRestartInterval();
+        growth = configuration.getRestartGrowth();
+        limit = interval;
+    }
+
+    /**
+     * Records a conflict.
+     *
+     * @param lbd The Literal Block Distance of the clause learned from the conflict.
+     */
+    public void onConflict(int lbd) {
+        conflicts++;
+        conflictsSinceRestart++;
+        fastAverage += Math.max(FAST_SMOOTHING, 1.0 / conflicts) * (lbd - fastAverage);
+        slowAverage += Math.max(SLOW_SMOOTHING, 1.0 / conflicts) * (lbd - slowAverage);
+    }
+
+    /**
+     * Checks if the search should restart now.
+     *
+     * @return Should the search restart.
+     */
+    public boolean shouldRestart() {
+        switch (strategy) {
+            case LUBY:
+            case GEOMETRIC:
+                return conflictsSinceRestart >= limit;
+            case GLUCOSE:
+                return conflictsSinceRestart >= interval && fastAverage > MARGIN * slowAverage;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a restart and computes the interval until the next one.
+     */
+    public void onRestart() {
+        restarts++;
+        conflictsSinceRestart = 0;
+        if (strategy == RestartStrategy.LUBY) {
+            limit = (double) interval * luby(restarts);
+        } else if (strategy == RestartStrategy.GEOMETRIC) {
+            limit *= growth;
+        }
+    }
+
+    /**
+     * Returns the number of restarts so far.
+     *
+     * @return Restarts number.
+     */
+    public int getNumberOfRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Returns an element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+     *
+     * @param index The index of the element, starting from 0.
+     * @return The element.
+     */
+    public static long luby(int index) {
+        long size = 1;
+        int exponent = 0;
+        while (size < index + 1) {
+            exponent++;
+            size = 2 * size + 1;
+        }
+        long position = index;
+        while (size - 1 != position) {
+            size = (size - 1) >> 1;
+            exponent--;
+            position %= size;
+        }
+        return 1L << exponent;
+    }
+}
@@ -0,0 +1,28 @@
+package algorithms.cdcl;
+
+/**
+ * Strategies deciding when the CDCL solver abandons its current decisions and restarts the search.
+ */
+public enum RestartStrategy {
+    /**
+     * The search is never restarted.
+     */
+    NONE,
+
+    /**
+     * Restarts after a number of conflicts following the Luby sequence 1, 1, 2, 1, 1, 2, 4, ... times the
+     * restart interval.
+     */
+    LUBY,
+
+    /**
+     * Restarts after a number of conflicts starting at the restart interval and growing geometrically.
+     */
+    GEOMETRIC,
+
+    /**
+     * Restarts when the Literal Block Distance of the recently learned clauses is high compared to its
+     * long term average, as in Glucose.
+     */
+    GLUCOSE
+}
@@ -0,0 +1,356 @@
+package algorithms.cdcl;
+
+/**
+ * Tunable parameters of the CDCL solver. A new configuration holds the default values, which can be
+ * changed before the configuration is passed to the solver.
+ */
+public class SolverConfiguration {
+    /**
+     * The strategy deciding when the search restarts.
+     */
+    private RestartStrategy restartStrategy;
+
+    /**
+     * Number of conflicts of the first restart interval for the Luby and geometric strategies, and the
+     * smallest number of conflicts between two restarts for the Glucose strategy.
+     */
+    private int restartInterval;
+
+    /**
+     * Factor by which the interval between restarts grows with the geometric strategy.
+     */
+    private double restartGrowth;
+
+    /**
+     * Should decisions assign variables their last value.
+     */
+    private boolean phaseSaving;
+
+    /**
+     * Should restarts keep the decisions which would be taken again.
+     */
+    private boolean trailReuse;
+
+    /**
+     * Factor by which the variable activities decay after every conflict.
+     */
+    private double variableDecay;
+
+    /**
+     * Factor by which the learned clause activities decay after every conflict.
+     */
+    private double clauseDecay;
+
+    /**
+     * Number of conflicts before the first reduction of the learned clause database.
+     */
+    private int firstReduction;
+
+    /**
+     * Number of conflicts by which the interval between two reductions grows after every reduction.
+     */
+    private int reductionIncrement;
+
+    /**
+     * Number of bytes the learned clauses may use before a reduction is forced.
+     */
+    private long learnedClauseMemoryLimit;
+
+    /**
+     * Seed of the random choices of the solver.
+     */
+    private long randomSeed;
+
+    /**
+     * Fraction of the decisions taken on a random variable instead of the most active one.
+     */
+    private double randomDecisionFrequency;
+
+    /**
+     * Should variables be set to false when decided for the first time.
+     */
+    private boolean negativeInitialPhase;
+
+    /**
+     * Should the formula be simplified before the search.
+     */
+    private boolean preprocessing;
+
+    /**
+     * Constructor of the default configuration: Glucose restarts with phase saving and trail reuse,
+     * learned clauses limited to a quarter of the maximum heap size, and preprocessing.
+     */
+    public SolverConfiguration() {
+        restartStrategy = RestartStrategy.GLUCOSE;
+        restartInterval = 50;
+        restartGrowth = 1.5;
+        phaseSaving = true;
+        trailReuse = true;
+        variableDecay = 0.95;
+        clauseDecay = 0.999;
+        firstReduction = 2000;
+        reductionIncrement = 300;
+        learnedClauseMemoryLimit = Runtime.getRuntime().maxMemory() / 4;
+        preprocessing = true;
+    }
+
+    /**
+     * Returns the strategy deciding when the search restarts.
+     *
+     * @return The restart strategy.
+     */
+    public RestartStrategy getRestartStrategy() {
+        return restartStrategy;
+    }
+
+    /**
+     * Sets the strategy deciding when the search restarts.
+     *
+     * @param restartStrategy The restart strategy.
+     */
+    public void setRestartStrategy(RestartStrategy restartStrategy) {
+        this.restartStrategy = restartStrategy;
+    }
+
+    /**
+     * Returns the number of conflicts of the first restart interval for the Luby and geometric strategies,
+     * and the smallest number of conflicts between two restarts for the Glucose strategy.
+     *
+     * @return Conflicts number.
+     */
+    public int getRestartInterval() {
+        return restartInterval;
+    }
+
+    /**
+     * Sets the number of conflicts of the first restart interval for the Luby and geometric strategies,
+     * and the smallest number of conflicts between two restarts for the Glucose strategy.
+     *
+     * @param restartInterval Conflicts number.
+     */
+    public void setRestartInterval(int restartInterval) {
+        this.restartInterval = restartInterval;
+    }
+
+    /**
+     * Returns the factor by which the interval between restarts grows with the geometric strategy.
+     *
+     * @return Growth factor.
+     */
+    public double getRestartGrowth() {
+        return restartGrowth;
+    }
+
+    /**
+     * Sets the factor by which the interval between restarts grows with the geometric strategy.
+     *
+     * @param restartGrowth Growth factor, greater than 1.
+     */
+    public void setRestartGrowth(double restartGrowth) {
+        this.restartGrowth = restartGrowth;
+    }
+
+    /**
+     * Returns if decisions assign variables their last value.
+     *
+     * @return Is phase saving enabled.
+     */
+    public boolean isPhaseSaving() {
+        return phaseSaving;
+    }
+
+    /**
+     * Sets if decisions assign variables their last value instead of true.
+     *
+     * @param phaseSaving Is phase saving enabled.
+     */
+    public void setPhaseSaving(boolean phaseSaving) {
+        this.phaseSaving = phaseSaving;
+    }
+
+    /**
+     * Returns if restarts keep the decisions which would be taken again.
+     *
+     * @return Is trail reuse enabled.
+     */
+    public boolean isTrailReuse() {
+        return trailReuse;
+    }
+
+    /**
+     * Sets if restarts keep the decisions of variables more active than the next decision variable, which
+     * would be taken again right after backtracking to level 0.
+     *
+     * @param trailReuse Is trail reuse enabled.
+     */
+    public void setTrailReuse(boolean trailReuse) {
+        this.trailReuse = trailReuse;
+    }
+
+    /**
+     * Returns the factor by which the variable activities decay after every conflict.
+     *
+     * @return Decay factor.
+     */
+    public double getVariableDecay() {
+        return variableDecay;
+    }
+
+    /**
+     * Sets the factor by which the variable activities decay after every conflict.
+     *
+     * @param variableDecay Decay factor between 0 and 1.
+     */
+    public void setVariableDecay(double variableDecay) {
+        this.variableDecay = variableDecay;
+    }
+
+    /**
+     * Returns the factor by which the learned clause activities decay after every conflict.
+     *
+     * @return Decay factor.
+     */
+    public double getClauseDecay() {
+        return clauseDecay;
+    }
+
+    /**
+     * Sets the factor by which the learned clause activities decay after every conflict.
+     *
+     * @param clauseDecay Decay factor between 0 and 1.
+     */
+    public void setClauseDecay(double clauseDecay) {
+        this.clauseDecay = clauseDecay;
+    }
+
+    /**
+     * Returns the number of conflicts before the first reduction of the learned clause database.
+     *
+     * @return Conflicts number.
+     */
+    public int getFirstReduction() {
+        return firstReduction;
+    }
+
+    /**
+     * Sets the number of conflicts before the first reduction of the learned clause database.
+     *
+     * @param firstReduction Conflicts number.
+     */
+    public void setFirstReduction(int firstReduction) {
+        this.firstReduction = firstReduction;
+    }
+
+    /**
+     * Returns the number of conflicts by which the interval between two reductions grows after every
+     * reduction.
+     *
+     * @return Conflicts number.
+     */
+    public int getReductionIncrement() {
+        return reductionIncrement;
+    }
+
+    /**
+     * Sets the number of conflicts by which the interval between two reductions grows after every
+     * reduction.
+     *
+     * @param reductionIncrement Conflicts number.
+     */
+    public void setReductionIncrement(int reductionIncrement) {
+        this.reductionIncrement = reductionIncrement;
+    }
+
+    /**
+     * Returns the number of bytes the learned clauses may use before a reduction is forced.
+     *
+     * @return Bytes number.
+     */
+    public long getLearnedClauseMemoryLimit() {
+        return learnedClauseMemoryLimit;
+    }
+
+    /**
+     * Sets the number of bytes the learned clauses may use. When they use more, the database is reduced
+     * until they use at most half of it, deleting protected clauses too if needed.
+     *
+     * @param learnedClauseMemoryLimit Bytes number.
+     */
+    public void setLearnedClauseMemoryLimit(long learnedClauseMemoryLimit) {
+        this.learnedClauseMemoryLimit = learnedClauseMemoryLimit;
+    }
+
+    /**
+     * Returns the seed of the random choices of the solver.
+     *
+     * @return The seed.
+     */
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * Sets the seed of the random choices of the solver. With a seed other than 0 the initial order of
+     * the variables is also shuffled slightly, so solvers with different seeds explore differently.
+     *
+     * @param randomSeed The seed.
+     */
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * Returns the fraction of the decisions taken on a random variable instead of the most active one.
+     *
+     * @return Fraction between 0 and 1.
+     */
+    public double getRandomDecisionFrequency() {
+        return randomDecisionFrequency;
+    }
+
+    /**
+     * Sets the fraction of the decisions taken on a random variable instead of the most active one.
+     *
+     * @param randomDecisionFrequency Fraction between 0 and 1.
+     */
+    public void setRandomDecisionFrequency(double randomDecisionFrequency) {
+        this.randomDecisionFrequency = randomDecisionFrequency;
+    }
+
+    /**
+     * Returns if variables are set to false when decided for the first time.
+     *
+     * @return Is the initial phase negative.
+     */
+    public boolean isNegativeInitialPhase() {
+        return negativeInitialPhase;
+    }
+
+    /**
+     * Sets if variables are set to false instead of true when decided for the first time.
+     *
+     * @param negativeInitialPhase Is the initial phase negative.
+     */
+    public void setNegativeInitialPhase(boolean negativeInitialPhase) {
+        this.negativeInitialPhase = negativeInitialPhase;
+    }
+
+    /**
+     * Returns if the formula is simplified before the search.
+     *
+     * @return Is preprocessing enabled.
+     */
+    public boolean isPreprocessing() {
+        return preprocessing;
+    }
+
+    /**
+     * Sets if the formula is simplified before the search, see {@link algorithms.preprocessing.Preprocessor}.
+     * Only the searches of {@link algorithms.GeneralSAT} which involve no assumptions preprocess.
+     *
+     * @param preprocessing Is preprocessing enabled.
+     */
+    public void setPreprocessing(boolean preprocessing) {
+        this.preprocessing = preprocessing;
+    }
+}
@@ -0,0 +1,21 @@
+package algorithms.cdcl;
+
+/**
+ * Outcome of a search.
+ */
+public enum SolverResult {
+    /**
+     * A satisfying assignment was found.
+     */
+    SATISFIABLE,
+
+    /**
+     * The formula was proven unsatisfiable.
+     */
+    UNSATISFIABLE,
+
+    /**
+     * The search was cancelled before reaching an answer.
+     */
+    UNKNOWN
+}
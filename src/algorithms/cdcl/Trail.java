@@ -0,0 +1,183 @@
+package algorithms.cdcl;
+
+import java.util.Arrays;
+
+/**
+ * Undoable assignment store of the CDCL solver.
+ * The value of every literal is kept in a primitive array and the assigned literals are recorded in
+ * assignment order, together with the trail position where every decision level starts.
+ * Backtracking pops the literals above the target level, at constant cost per variable.
+ */
+public class Trail {
+    /**
+     * Value of a true literal.
+     */
+    public static final byte TRUE = 1;
+
+    /**
+     * Value of a false literal.
+     */
+    public static final byte FALSE = -1;
+
+    /**
+     * Value of an unassigned literal.
+     */
+    public static final byte UNASSIGNED = 0;
+
+    /**
+     * Value of each literal, indexed by the encoded literal.
+     */
+    private byte[] values;
+
+    /**
+     * Decision level at which each variable was assigned.
+     */
+    private int[] levels;
+
+    /**
+     * The assigned literals in assignment order.
+     */
+    private int[] literals;
+
+    /**
+     * Number of assigned literals.
+     */
+    private int size;
+
+    /**
+     * Position in the trail of the first literal of every decision level.
+     */
+    private int[] limits;
+
+    /**
+     * Current decision level.
+     */
+    private int decisionLevel;
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfVariables Number of variables that can be assigned.
+     */
+    public Trail(int numberOfVariables) {
+        values = new byte[2 * numberOfVariables + 2];
+        levels = new int[numberOfVariables + 1];
+        literals = new int[numberOfVariables];
+        limits = new int[numberOfVariables + 1];
+    }
+
+    /**
+     * Makes room for more variables, which start unassigned. The capacity at least doubles, so adding
+     * variables one at a time costs amortised constant time.
+     *
+     * @param numberOfVariables Number of variables that can be assigned.
+     */
+    public void grow(int numberOfVariables) {
+        if (numberOfVariables <= literals.length) {
+            return;
+        }
+        int capacity = Math.max(numberOfVariables, 2 * literals.length);
+        values = Arrays.copyOf(values, 2 * capacity + 2);
+        levels = Arrays.copyOf(levels, capacity + 1);
+        literals = Arrays.copyOf(literals, capacity);
+    }
+
+    /**
+     * Returns the value of an encoded literal.
+     *
+     * @param literal The encoded literal.
+     * @return {@link #TRUE}, {@link #FALSE} or {@link #UNASSIGNED}.
+     */
+    public byte value(int literal) {
+        return values[literal];
+    }
+
+    /**
+     * Returns the decision level at which a variable was assigned.
+     *
+     * @param variable The variable number.
+     * @return The decision level.
+     */
+    public int level(int variable) {
+        return levels[variable];
+    }
+
+    /**
+     * Assigns a literal true at the current decision level.
+     *
+     * @param literal The encoded literal.
+     */
+    public void assign(int literal) {
+        values[literal] = TRUE;
+        values[literal ^ 1] = FALSE;
+        levels[literal >> 1] = decisionLevel;
+        literals[size++] = literal;
+    }
+
+    /**
+     * Opens a new decision level starting at the current end of the trail. A level may be left empty, so
+     * there can be more levels than variables.
+     */
+    public void newDecisionLevel() {
+        if (decisionLevel == limits.length) {
+            limits = Arrays.copyOf(limits, 2 * limits.length);
+        }
+        limits[decisionLevel++] = size;
+    }
+
+    /**
+     * Returns the current decision level.
+     *
+     * @return The decision level.
+     */
+    public int getDecisionLevel() {
+        return decisionLevel;
+    }
+
+    /**
+     * Unassigns every literal assigned above the given decision level.
+     *
+     * @param level The decision level to return to.
+     */
+    public void backtrack(int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+        int limit = limits[level];
+        for (int i = size - 1; i >= limit; i--) {
+            values[literals[i]] = UNASSIGNED;
+            values[literals[i] ^ 1] = UNASSIGNED;
+        }
+        size = limit;
+        decisionLevel = level;
+    }
+
+    /**
+     * Returns the position in the trail of the first literal assigned above the given decision level.
+     *
+     * @param level A decision level lower than the current one.
+     * @return Trail position.
+     */
+    public int getLevelStart(int level) {
+        return limits[level];
+    }
+
+    /**
+     * Returns the number of assigned literals.
+     *
+     * @return Trail size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the literal assigned at the given position.
+     *
+     * @param index Position in the trail.
+     * @return The encoded literal.
+     */
+    public int get(int index) {
+        return literals[index];
+    }
+}
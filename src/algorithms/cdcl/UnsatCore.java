@@ -0,0 +1,112 @@
+package algorithms.cdcl;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+
+import java.util.Arrays;
+
+/**
+ * Extraction and minimization of unsatisfiable cores.
+ * A core of assumptions is minimized by deletion: every assumption is dropped in turn and the others
+ * are solved again. If they are still unsatisfiable the failed assumptions of that search become the new
+ * core, which usually removes many assumptions at once; otherwise the assumption is necessary and is kept.
+ * The result is minimal when the time budget allows every assumption to be tried, and a smaller core
+ * otherwise.
+ * <p>
+ * A core of clauses is found through selector variables: every clause is extended with the negation of a
+ * fresh selector, and the selectors are assumed true, so the failed selectors name the clauses of a core.
+ * All searches share one incremental solver, whose learned clauses carry over between them.
+ */
+public class UnsatCore {
+    /**
+     * Minimizes a set of assumptions which is unsatisfiable together with the formula of the solver.
+     *
+     * @param solver       The solver of the formula.
+     * @param core         The encoded assumptions, usually the failed assumptions of a search.
+     * @param budgetMillis Number of milliseconds the minimization may take.
+     * @return A subset of the assumptions, still unsatisfiable with the formula, and minimal if the budget
+     * was enough. Empty if the formula itself is unsatisfiable.
+     */
+    public static int[] minimize(CDCLSolver solver, int[] core, long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000;
+        int[] current = core.clone();
+        int size = current.length;
+        int necessary = 0;
+        boolean[] failed = new boolean[2 * solver.getNumberOfVariables() + 2];
+        solver.setDeadline(deadline);
+        try {
+            while (necessary < size && System.nanoTime() < deadline) {
+                int[] trial = new int[size - 1];
+                System.arraycopy(current, 0, trial, 0, necessary);
+                System.arraycopy(current, necessary + 1, trial, necessary, size - necessary - 1);
+                SolverResult result = solver.solve(trial);
+                if (result == SolverResult.SATISFIABLE) {
+                    necessary++;
+                } else if (result == SolverResult.UNSATISFIABLE) {
+                    if (solver.isUnsatisfiable()) {
+                        return new int[0];
+                    }
+                    for (int literal : solver.getFailedAssumptions()) {
+                        failed[literal] = true;
+                    }
+                    int kept = 0;
+                    for (int i = 0; i < size; i++) {
+                        if (i != necessary && failed[current[i]]) {
+                            failed[current[i]] = false;
+                            current[kept++] = current[i];
+                        }
+                    }
+                    size = kept;
+                } else {
+                    break;
+                }
+            }
+        } finally {
+            solver.setDeadline(Long.MAX_VALUE);
+        }
+        return Arrays.copyOf(current, size);
+    }
+
+    /**
+     * Computes a core of clauses of an unsatisfiable formula.
+     *
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param configuration The tunable parameters of the solver.
+     * @param budgetMillis  Number of milliseconds the minimization of the core may take, on top of the
+     *                      first search.
+     * @return The indices of the clauses of the core in increasing order, or null if the formula is
+     * satisfiable.
+     */
+    public static int[] findClauseCore(Formula formula, SolverConfiguration configuration, long budgetMillis) {
+        int numberOfVariables = formula.getNumberOfVariables();
+        ClauseArena arena = formula.getArena();
+        int numberOfClauses = arena.getNumberOfClauses();
+        Formula selected = new Formula(numberOfVariables + numberOfClauses);
+        int[] selectors = new int[numberOfClauses];
+        int[] literals = new int[16];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int size = arena.getSize(clause);
+            if (size + 1 > literals.length) {
+                literals = new int[Math.max(size + 1, 2 * literals.length)];
+            }
+            for (int i = 0; i < size; i++) {
+                literals[i] = arena.getLiteral(clause, i);
+            }
+            selectors[clause] = 2 * (numberOfVariables + 1 + clause);
+            literals[size] = selectors[clause] ^ 1;
+            selected.addClause(literals, 0, size + 1);
+        }
+
+        CDCLSolver solver = new CDCLSolver(selected, configuration);
+        if (solver.solve(selectors) != SolverResult.UNSATISFIABLE) {
+            return null;
+        }
+        int[] core = minimize(solver, solver.getFailedAssumptions(), budgetMillis);
+        int[] clauses = new int[core.length];
+        for (int i = 0; i < core.length; i++) {
+            clauses[i] = (core[i] >> 1) - numberOfVariables - 1;
+        }
+        Arrays.sort(clauses);
+        return clauses;
+    }
+}
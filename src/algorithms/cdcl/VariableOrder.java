@@ -0,0 +1,236 @@
+package algorithms.cdcl;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Decision order of the CDCL solver following the exponential VSIDS heuristic.
+ * Every variable has an activity which is bumped when the variable takes part in a conflict. Instead of
+ * decaying all activities after every conflict, the amount added by a bump grows geometrically, and all
+ * activities are scaled down together when they become too large. The variables are kept in an indexed
+ * binary max-heap ordered by activity, so bumping a variable and removing the most active one take
+ * logarithmic time. Assigned variables may stay in the heap; they are skipped when removed and inserted
+ * again when they are unassigned.
+ */
+public class VariableOrder {
+    /**
+     * Activity above which all activities are scaled down.
+     */
+    private static final double RESCALE_LIMIT = 1e100;
+
+    /**
+     * Activity of every variable, the variable i being at index i.
+     */
+    private double[] activity;
+
+    /**
+     * The binary heap of variables, the most active at index 0.
+     */
+    private int[] heap;
+
+    /**
+     * Index of every variable in the heap, -1 for variables not in the heap.
+     */
+    private int[] positions;
+
+    /**
+     * Number of variables in the heap.
+     */
+    private int size;
+
+    /**
+     * Number of variables of the order.
+     */
+    private int numberOfVariables;
+
+    /**
+     * Amount added to the activity of a bumped variable.
+     */
+    private double increment;
+
+    /**
+     * Factor by which the activities of the variables decay after every conflict.
+     */
+    private final double decay;
+
+    /**
+     * Constructor. All variables start in the heap with no activity, in increasing order.
+     *
+     * @param numberOfVariables Number of variables.
+     * @param decay             Factor between 0 and 1 by which the activities decay after every conflict.
+     */
+    public VariableOrder(int numberOfVariables, double decay) {
+        this.decay = decay;
+        this.numberOfVariables = numberOfVariables;
+        activity = new double[numberOfVariables + 1];
+        heap = new int[numberOfVariables];
+        positions = new int[numberOfVariables + 1];
+        positions[0] = -1;
+        increment = 1;
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            heap[size] = variable;
+            positions[variable] = size++;
+        }
+    }
+
+    /**
+     * Adds variables to the order, with no activity. The capacity at least doubles, so adding variables
+     * one at a time costs amortised constant time.
+     *
+     * @param numberOfVariables The new number of variables, the variables above the old number being added.
+     */
+    public void grow(int numberOfVariables) {
+        if (numberOfVariables <= this.numberOfVariables) {
+            return;
+        }
+        if (numberOfVariables > heap.length) {
+            int capacity = Math.max(numberOfVariables, 2 * heap.length);
+            activity = Arrays.copyOf(activity, capacity + 1);
+            heap = Arrays.copyOf(heap, capacity);
+            positions = Arrays.copyOf(positions, capacity + 1);
+        }
+        for (int variable = this.numberOfVariables + 1; variable <= numberOfVariables; variable++) {
+            positions[variable] = -1;
+            insert(variable);
+        }
+        this.numberOfVariables = numberOfVariables;
+    }
+
+    /**
+     * Gives every variable a small random activity, below the amount of a single bump, and orders the
+     * heap accordingly. Used for diversifying solvers which search the same formula.
+     *
+     * @param random The source of randomness.
+     */
+    public void perturb(Random random) {
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            activity[variable] = random.nextDouble() * increment * 1e-3;
+        }
+        for (int index = size / 2 - 1; index >= 0; index--) {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * Increases the activity of a variable.
+     *
+     * @param variable The variable taking part in a conflict.
+     */
+    public void bump(int variable) {
+        activity[variable] += increment;
+        if (activity[variable] > RESCALE_LIMIT) {
+            for (int v = 1; v <= numberOfVariables; v++) {
+                activity[v] /= RESCALE_LIMIT;
+            }
+            increment /= RESCALE_LIMIT;
+        }
+        if (positions[variable] >= 0) {
+            siftUp(positions[variable]);
+        }
+    }
+
+    /**
+     * Makes the activity of all variables decay, by increasing the amount added by future bumps.
+     */
+    public void decayActivities() {
+        increment /= decay;
+    }
+
+    /**
+     * Adds a variable to the heap if it is not already present.
+     *
+     * @param variable The variable which has been unassigned.
+     */
+    public void insert(int variable) {
+        if (positions[variable] >= 0) {
+            return;
+        }
+        heap[size] = variable;
+        positions[variable] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Removes the most active variable from the heap.
+     *
+     * @return The variable or 0 if the heap is empty.
+     */
+    public int removeMax() {
+        if (size == 0) {
+            return 0;
+        }
+        int max = heap[0];
+        positions[max] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return max;
+    }
+
+    /**
+     * Checks if the heap contains no variables.
+     *
+     * @return Is the heap empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the activity of a variable.
+     *
+     * @param variable The variable.
+     * @return The activity.
+     */
+    public double getActivity(int variable) {
+        return activity[variable];
+    }
+
+    /**
+     * Moves the variable at the given index of the heap up until its parent is at least as active.
+     *
+     * @param index The index in the heap.
+     */
+    private void siftUp(int index) {
+        int variable = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >> 1;
+            if (activity[heap[parent]] >= activity[variable]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            positions[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = variable;
+        positions[variable] = index;
+    }
+
+    /**
+     * Moves the variable at the given index of the heap down until its children are at most as active.
+     *
+     * @param index The index in the heap.
+     */
+    private void siftDown(int index) {
+        int variable = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[variable]) {
+                break;
+            }
+            heap[index] = heap[child];
+            positions[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = variable;
+        positions[variable] = index;
+    }
+}
@@ -0,0 +1,78 @@
+package algorithms.cdcl;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of the clauses watching a literal.
+ * Used by the two watched literals propagation scheme of the CDCL solver, which removes watchers
+ * in place while scanning the list. Clauses are referenced by their position in the {@link ClauseDatabase}.
+ */
+public class WatchList {
+    /**
+     * The references of the watching clauses. Only the first size entries are valid.
+     */
+    private int[] clauses;
+
+    /**
+     * Number of watching clauses.
+     */
+    private int size;
+
+    /**
+     * Default constructor.
+     */
+    public WatchList() {
+        clauses = new int[4];
+        size = 0;
+    }
+
+    /**
+     * Adds a watching clause at the end of the list.
+     *
+     * @param clause The reference of the clause watching the literal.
+     */
+    public void add(int clause) {
+        if (size == clauses.length) {
+            clauses = Arrays.copyOf(clauses, 2 * size);
+        }
+        clauses[size++] = clause;
+    }
+
+    /**
+     * Returns the watching clause at the given position.
+     *
+     * @param index Position in the list.
+     * @return The reference of the clause.
+     */
+    public int get(int index) {
+        return clauses[index];
+    }
+
+    /**
+     * Overwrites the watching clause at the given position.
+     *
+     * @param index  Position in the list.
+     * @param clause The reference of the clause.
+     */
+    public void set(int index, int clause) {
+        clauses[index] = clause;
+    }
+
+    /**
+     * Returns the number of watching clauses.
+     *
+     * @return Watchers number.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops every watcher from the given position onwards.
+     *
+     * @param newSize The new number of watching clauses.
+     */
+    public void shrink(int newSize) {
+        size = newSize;
+    }
+}
@@ -4,107 +4,93 @@ import java.util.*;
 
 /**
  * Class representing a Clause, a disjunction of Literals.
+ * A clause is a thin view over one clause of a {@link ClauseArena}. A clause created with the default
+ * constructor owns a private arena and is copied into the formula arena when added to a formula.
  */
 public class Clause {
     /**
-     * The set of literals in the clause.
+     * The arena storing the literals of the clause.
      */
-    private final Set<Literal> literals;
+    private final ClauseArena arena;
 
     /**
-     * Number of positive literals in the clause.
+     * Index of the clause in the arena.
      */
-    private int positiveLiteralsCounter;
+    private final int index;
 
     /**
-     * Stores if the clause is a tautology (always true) or not.
-     * Used by DPLL algorithm.
-     */
-    private Boolean tautology;
-
-    /**
-     * The set of variable which appear as positive in the clause.
-     * Used by DPLL algorithm.
-     */
-    private final Set<Variable> positiveVariables;
-
-    /**
-     * The set of variable which appear as negative in the clause.
-     * Used by DPLL algorithm.
+     * Default constructor.
      */
-    private final Set<Variable> negativeVariables;
+    public Clause() {
+        arena = new HeapClauseArena();
+        index = arena.newClause();
+    }
 
     /**
-     * Default constructor.
+     * Constructor of a view over a clause stored in an arena.
+     *
+     * @param arena The arena storing the clause.
+     * @param index Index of the clause in the arena.
      */
-    public Clause() {
-        tautology = null;
-        positiveLiteralsCounter = 0;
-        literals = new HashSet<>();
-        positiveVariables = new HashSet<>();
-        negativeVariables = new HashSet<>();
+    public Clause(ClauseArena arena, int index) {
+        this.arena = arena;
+        this.index = index;
     }
 
     /**
-     * Adds a literal to the clause and to the other appropriate structures in the clause.
-     * Additionally it invalidates the cached tautology value.
+     * Adds a literal to the clause if it is not already present.
      *
      * @param literal The literal being added to the clause.
      */
     public void addLiteral(Literal literal) {
-        literals.add(literal);
-
-        tautology = null;
-        if (literal.isNegated()) {
-            negativeVariables.add(literal.getAtom());
-        } else {
-            positiveLiteralsCounter++;
-            positiveVariables.add(literal.getAtom());
+        if (indexOf(literal.getEncoded()) < 0) {
+            arena.appendLiteral(index, literal.getEncoded());
         }
     }
 
     /**
      * Removes a literal from the clause.
-     * Additionally it invalidates the cached tautology value.
      *
      * @param literal The literal being removed by the clause.
      */
     public void removeLiteral(Literal literal) {
-        literals.remove(literal);
-        tautology = null;
+        int position = indexOf(literal.getEncoded());
+        if (position >= 0) {
+            arena.removeLiteral(index, position);
+        }
     }
 
     /**
-     * Returns an unmodifiable copy of the set of literals.
+     * Returns an unmodifiable set of the literals.
      * Encapsulate Collection pattern is used to ensure the set of literals is unmodifiable except
      * through the methods offered by a Clause object.
      *
      * @return The literals.
      */
     public Set<Literal> getLiterals() {
+        Set<Literal> literals = new LinkedHashSet<>();
+        for (int i = 0; i < getNumberOfLiterals(); i++) {
+            literals.add(getLiteral(i));
+        }
         return Collections.unmodifiableSet(literals);
     }
 
     /**
      * Returns the set of variables which appear as a positive literal in the clause.
-     * Encapsulate Collection pattern is used to ensure the set of positive variables is unmodifiable
-     * except through the appropriate methods offered by a Clause object.
      *
      * @return The positive variables set.
      */
     public Set<Variable> getPositiveVariables() {
-        return Collections.unmodifiableSet(positiveVariables);
+        return getVariables(false);
     }
 
     /**
      * Returns the set of variables which appear as a negative literal in the clause.
-     * Encapsulate Collection pattern is used to ensure the set of negative variables is unmodifiable
-     * except through the appropriate methods offered by a Clause object.
      *
      * @return The negative variables set.
      */
     public Set<Variable> getNegativeVariables() {
-        return Collections.unmodifiableSet(negativeVariables);
+        return getVariables(true);
     }
 
     /**
@@ -113,7 +99,13 @@ public class Clause {
      * @return Non-negated literals number.
      */
     public int getPositiveLiteralsCounter() {
-        return positiveLiteralsCounter;
+        int counter = 0;
+        for (int i = 0; i < getNumberOfLiterals(); i++) {
+            if (!Literal.isNegated(getEncodedLiteral(i))) {
+                counter++;
+            }
+        }
+        return counter;
     }
 
     /**
@@ -122,7 +114,17 @@ public class Clause {
      * @return Literals number.
      */
     public int getNumberOfLiterals() {
-        return literals.size();
+        return arena.getSize(index);
+    }
+
+    /**
+     * Returns the encoded literal at the given position, without allocating a Literal.
+     *
+     * @param position Position of the literal in the clause.
+     * @return The encoded literal.
+     */
+    public int getEncodedLiteral(int position) {
+        return arena.getLiteral(index, position);
     }
 
     /**
@@ -131,7 +133,7 @@ public class Clause {
      * @return Is the clause an empty implication.
      */
     public boolean isEmptyImplication() {
-        return getNumberOfLiterals() == 1 && !getFirst().isNegated();
+        return getNumberOfLiterals() == 1 && !Literal.isNegated(getEncodedLiteral(0));
     }
 
     /**
@@ -142,13 +144,10 @@ public class Clause {
      * @return First literal of the clause.
      */
     public Literal getFirst() {
-        if (literals.size() < 1) {
+        if (getNumberOfLiterals() < 1) {
             return null;
         }
-        for (Literal literal : literals) {
-            return literal;
-        }
-        return null;
+        return getLiteral(0);
     }
 
     /**
@@ -159,33 +158,71 @@ public class Clause {
      * @return Second literal of the clause.
      */
     public Literal getSecond() {
-        if (literals.size() < 2) {
+        if (getNumberOfLiterals() < 2) {
             return null;
         }
-
-        int i = 0;
-        for (Literal literal : literals) {
-            if (i == 1) {
-                return literal;
-            }
-            i++;
-        }
-        return null;
+        return getLiteral(1);
     }
 
     /**
      * Computes if the current clause is a tautology or not.
-     * Computes it only once and stores it in the instance variable.
      *
      * @return Is the clause a tautology.
      */
     public boolean isTautology() {
-        if (tautology == null) {
-            Set<Variable> intersection = new LinkedHashSet<>(positiveVariables);
-            intersection.retainAll(negativeVariables);
-            tautology = intersection.size() > 0;
+        int[] literals = new int[getNumberOfLiterals()];
+        for (int i = 0; i < literals.length; i++) {
+            literals[i] = getEncodedLiteral(i);
+        }
+        Arrays.sort(literals);
+        for (int i = 1; i < literals.length; i++) {
+            if (literals[i] == (literals[i - 1] ^ 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the Literal object of the literal at the given position.
+     *
+     * @param position Position of the literal in the clause.
+     * @return The literal.
+     */
+    private Literal getLiteral(int position) {
+        return new Literal(Literal.decode(getEncodedLiteral(position)));
+    }
+
+    /**
+     * Finds the position of an encoded literal in the clause.
+     *
+     * @param encoded The encoded literal.
+     * @return The position or -1 if the literal is not in the clause.
+     */
+    private int indexOf(int encoded) {
+        for (int i = 0; i < getNumberOfLiterals(); i++) {
+            if (getEncodedLiteral(i) == encoded) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects the variables which appear in the clause with the given sign.
+     *
+     * @param negated Collect the negative occurrences instead of the positive ones.
+     * @return The variables set.
+     */
+    private Set<Variable> getVariables(boolean negated) {
+        Set<Variable> variables = new LinkedHashSet<>();
+        for (int i = 0; i < getNumberOfLiterals(); i++) {
+            int encoded = getEncodedLiteral(i);
+            if (Literal.isNegated(encoded) == negated) {
+                variables.add(new Variable(Literal.variable(encoded)));
+            }
         }
-        return tautology;
+        return Collections.unmodifiableSet(variables);
     }
 
 }
@@ -0,0 +1,75 @@
+package algorithms.cnf;
+
+/**
+ * Flat store of clauses.
+ * Clauses are kept as slices of encoded literals (see {@link Literal#encode(int)}) addressed by the
+ * index of the clause, so that no object is allocated per clause or per literal.
+ * The clauses can live on the Java heap ({@link HeapClauseArena}) or outside of it
+ * ({@link OffHeapClauseArena}).
+ */
+public interface ClauseArena {
+    /**
+     * Appends a clause to the arena.
+     *
+     * @param clause The encoded literals.
+     * @param from   Index of the first literal in the array.
+     * @param length Number of literals.
+     * @return The index of the new clause.
+     */
+    int addClause(int[] clause, int from, int length);
+
+    /**
+     * Appends an empty clause to the arena.
+     *
+     * @return The index of the new clause.
+     */
+    int newClause();
+
+    /**
+     * Appends a literal to a clause. Only the last clause of the arena can grow.
+     *
+     * @param clause  The index of the clause.
+     * @param literal The encoded literal.
+     */
+    void appendLiteral(int clause, int literal);
+
+    /**
+     * Removes the literal at the given position of a clause by moving the last literal of the clause
+     * into its place.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     */
+    void removeLiteral(int clause, int position);
+
+    /**
+     * Returns the number of clauses in the arena.
+     *
+     * @return Clauses number.
+     */
+    int getNumberOfClauses();
+
+    /**
+     * Returns the total number of literals stored in the arena.
+     *
+     * @return Literals number.
+     */
+    long getNumberOfLiterals();
+
+    /**
+     * Returns the number of literals of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return Clause size.
+     */
+    int getSize(int clause);
+
+    /**
+     * Returns the encoded literal at the given position of a clause.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     * @return The encoded literal.
+     */
+    int getLiteral(int clause, int position);
+}
@@ -4,23 +4,25 @@ import java.util.*;
 
 /**
  * Class representing a Conjunctive Normal Form formula.
+ * The clauses are stored in a flat {@link ClauseArena}, on the heap by default or off the heap when
+ * the formula is created with an {@link OffHeapClauseArena}; the {@link Clause} objects handed out by
+ * the formula are views over it.
  */
 public class Formula {
     /**
-     * Set of clauses in the formula.
+     * The arena storing the clauses of the formula.
      */
-    private final Set<Clause> clauses;
+    private final ClauseArena arena;
 
     /**
-     * Queue of variables that are present as an empty implication in a Horn formula.
-     * Used by the HornSAT algorithm.
+     * Number of variable in the formula.
      */
-    private final Queue<Variable> emptyImplications;
+    private final int numberOfVariables;
 
     /**
-     * Number of variable in the formula.
+     * Reusable buffer used for removing duplicate literals from the clauses being added.
      */
-    private final int numberOfVariables;
+    private int[] clauseBuffer;
 
     /**
      * Constructor.
@@ -28,44 +30,108 @@ public class Formula {
      * @param numberOfVariables Number of variables in the formula.
      */
     public Formula(int numberOfVariables) {
-        clauses = new HashSet<>();
-        emptyImplications = new LinkedList<>();
+        this(numberOfVariables, new HeapClauseArena());
+    }
+
+    /**
+     * Constructor of a formula whose clauses are kept in the given arena.
+     *
+     * @param numberOfVariables Number of variables in the formula.
+     * @param arena             The empty arena in which the clauses are stored.
+     */
+    public Formula(int numberOfVariables, ClauseArena arena) {
+        this.arena = arena;
+        clauseBuffer = new int[16];
         this.numberOfVariables = numberOfVariables;
     }
 
     /**
-     * Adds a clause to the formula.
-     * If it corresponds to an empty implication, the variable is added to the empty implications queue.
+     * Adds a clause to the formula by copying its literals into the formula arena.
      *
      * @param clause The clause being added.
      */
     public void addClause(Clause clause) {
-        clauses.add(clause);
-        if (clause.isEmptyImplication()) {
-            addEmptyImplication(clause.getFirst().getAtom());
+        int size = clause.getNumberOfLiterals();
+        ensureBufferCapacity(size);
+        for (int i = 0; i < size; i++) {
+            clauseBuffer[i] = clause.getEncodedLiteral(i);
         }
+        addClause(clauseBuffer, 0, size);
     }
 
     /**
-     * Adds a variable to the empty implications queue if it is not already present.
+     * Adds a clause given as encoded literals. Duplicate literals are stored only once.
      *
-     * @param atom The variable being added to the queue.
+     * @param literals The encoded literals, see {@link Literal#encode(int)}.
+     * @param from     Index of the first literal in the array.
+     * @param length   Number of literals.
      */
-    public void addEmptyImplication(Variable atom) {
-        if (!emptyImplications.contains(atom)) {
-            emptyImplications.add(atom);
+    public void addClause(int[] literals, int from, int length) {
+        ensureBufferCapacity(length);
+        int size = 0;
+        for (int i = from; i < from + length; i++) {
+            int literal = literals[i];
+            int variable = Literal.variable(literal);
+            if (variable < 1 || variable > numberOfVariables) {
+                throw new IllegalArgumentException("Variable " + variable + " is out of the range 1.."
+                        + numberOfVariables + ".");
+            }
+            if (length <= 32 && contains(clauseBuffer, size, literal)) {
+                continue;
+            }
+            clauseBuffer[size++] = literal;
         }
+
+        if (length > 32) {
+            Arrays.sort(clauseBuffer, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || clauseBuffer[unique - 1] != clauseBuffer[i]) {
+                    clauseBuffer[unique++] = clauseBuffer[i];
+                }
+            }
+            size = unique;
+        }
+        arena.addClause(clauseBuffer, 0, size);
     }
 
     /**
-     * Returns an unmodifiable copy of the set of clauses present in the formula.
-     * Encapsulate Collection pattern is used to ensure the set of clauses is unmodifiable except
+     * Returns an unmodifiable list of views over the clauses present in the formula, in insertion order.
+     * Encapsulate Collection pattern is used to ensure the clauses are unmodifiable except
      * through the appropriate methods offered by a Formula object.
      *
-     * @return The set of clauses.
+     * @return The list of clauses.
      */
-    public Set<Clause> getClauses() {
-        return Collections.unmodifiableSet(clauses);
+    public List<Clause> getClauses() {
+        return new AbstractList<Clause>() {
+            @Override
+            public Clause get(int index) {
+                return new Clause(arena, index);
+            }
+
+            @Override
+            public int size() {
+                return arena.getNumberOfClauses();
+            }
+        };
+    }
+
+    /**
+     * Returns the arena storing the clauses, for algorithms which read the encoded literals directly.
+     *
+     * @return The clause arena.
+     */
+    public ClauseArena getArena() {
+        return arena;
+    }
+
+    /**
+     * Returns the number of clauses in the formula.
+     *
+     * @return Number of clauses.
+     */
+    public int getNumberOfClauses() {
+        return arena.getNumberOfClauses();
     }
 
     /**
@@ -78,23 +144,31 @@ public class Formula {
     }
 
     /**
-     * Gets an unmodifiable collection of the variables that are present in an empty implication clause.
-     * Encapsulate Collection pattern is used to ensure the set of empty implications is unmodifiable
-     * except through the appropriate methods offered by a Formula object.
+     * Grows the clause buffer so that it can hold the given number of literals.
      *
-     * @return Empty implication variables collection.
+     * @param capacity Number of literals.
      */
-    public Collection<Variable> getEmptyImplications() {
-        return Collections.unmodifiableCollection(emptyImplications);
+    private void ensureBufferCapacity(int capacity) {
+        if (capacity > clauseBuffer.length) {
+            clauseBuffer = new int[Math.max(capacity, 2 * clauseBuffer.length)];
+        }
     }
 
     /**
-     * Removes the first variable from the empty implications queue.
+     * Checks if the first entries of an array contain a literal.
      *
-     * @return The removed variable.
+     * @param literals The array.
+     * @param size     Number of entries to check.
+     * @param literal  The literal searched.
+     * @return Is the literal present.
      */
-    public Variable removeEmptyImplication() {
-        return emptyImplications.remove();
+    private static boolean contains(int[] literals, int size, int literal) {
+        for (int i = 0; i < size; i++) {
+            if (literals[i] == literal) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -0,0 +1,165 @@
+package algorithms.cnf;
+
+import java.util.Arrays;
+
+/**
+ * Clause arena stored on the Java heap.
+ * The encoded literals of every clause are kept contiguously in one int array, and each clause is
+ * described by its start offset and its size.
+ */
+public class HeapClauseArena implements ClauseArena {
+    /**
+     * The literals of all clauses, one clause after the other.
+     */
+    private int[] literals;
+
+    /**
+     * Number of used entries in the literals array.
+     */
+    private int literalsSize;
+
+    /**
+     * Offset in the literals array where each clause starts.
+     */
+    private int[] starts;
+
+    /**
+     * Current number of literals of each clause.
+     */
+    private int[] sizes;
+
+    /**
+     * Number of clauses in the arena.
+     */
+    private int numberOfClauses;
+
+    /**
+     * Default constructor.
+     */
+    public HeapClauseArena() {
+        literals = new int[64];
+        starts = new int[16];
+        sizes = new int[16];
+    }
+
+    /**
+     * Appends a clause to the arena.
+     *
+     * @param clause The encoded literals.
+     * @param from   Index of the first literal in the array.
+     * @param length Number of literals.
+     * @return The index of the new clause.
+     */
+    @Override
+    public int addClause(int[] clause, int from, int length) {
+        int index = newClause();
+        ensureLiteralsCapacity(length);
+        System.arraycopy(clause, from, literals, literalsSize, length);
+        literalsSize += length;
+        sizes[index] = length;
+        return index;
+    }
+
+    /**
+     * Appends an empty clause to the arena.
+     *
+     * @return The index of the new clause.
+     */
+    @Override
+    public int newClause() {
+        if (numberOfClauses == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * numberOfClauses);
+            sizes = Arrays.copyOf(sizes, 2 * numberOfClauses);
+        }
+        starts[numberOfClauses] = literalsSize;
+        sizes[numberOfClauses] = 0;
+        return numberOfClauses++;
+    }
+
+    /**
+     * Appends a literal to a clause. Only the last clause of the arena can grow.
+     *
+     * @param clause  The index of the clause.
+     * @param literal The encoded literal.
+     */
+    @Override
+    public void appendLiteral(int clause, int literal) {
+        if (clause != numberOfClauses - 1 || starts[clause] + sizes[clause] != literalsSize) {
+            throw new IllegalStateException("Only the last clause of the arena can be extended.");
+        }
+        ensureLiteralsCapacity(1);
+        literals[literalsSize++] = literal;
+        sizes[clause]++;
+    }
+
+    /**
+     * Removes the literal at the given position of a clause by moving the last literal of the clause
+     * into its place.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     */
+    @Override
+    public void removeLiteral(int clause, int position) {
+        int start = starts[clause];
+        literals[start + position] = literals[start + sizes[clause] - 1];
+        sizes[clause]--;
+        if (clause == numberOfClauses - 1 && start + sizes[clause] + 1 == literalsSize) {
+            literalsSize--;
+        }
+    }
+
+    /**
+     * Returns the number of clauses in the arena.
+     *
+     * @return Clauses number.
+     */
+    @Override
+    public int getNumberOfClauses() {
+        return numberOfClauses;
+    }
+
+    /**
+     * Returns the total number of literals stored in the arena.
+     *
+     * @return Literals number.
+     */
+    @Override
+    public long getNumberOfLiterals() {
+        return literalsSize;
+    }
+
+    /**
+     * Returns the number of literals of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return Clause size.
+     */
+    @Override
+    public int getSize(int clause) {
+        return sizes[clause];
+    }
+
+    /**
+     * Returns the encoded literal at the given position of a clause.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     * @return The encoded literal.
+     */
+    @Override
+    public int getLiteral(int clause, int position) {
+        return literals[starts[clause] + position];
+    }
+
+    /**
+     * Grows the literals array so that it can hold the given number of additional literals.
+     *
+     * @param additional Number of literals about to be appended.
+     */
+    private void ensureLiteralsCapacity(int additional) {
+        if (literalsSize + additional > literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(2 * literals.length, literalsSize + additional));
+        }
+    }
+}
@@ -2,17 +2,15 @@ package algorithms.cnf;
 
 /**
  * Class representing a Literal.
+ * A literal is stored as a single encoded int: 2 * variable for the positive literal and
+ * 2 * variable + 1 for the negated one, so that a literal and its negation differ only in the lowest bit.
+ * The same encoding is used by the {@link ClauseArena}.
  */
 public class Literal {
     /**
-     * The atomic variable of the Literal.
+     * The encoded literal.
      */
-    private final Variable atom;
-
-    /**
-     * Variable storing if the Literal is negated or not.
-     */
-    private final boolean negated;
+    private final int encoded;
 
     /**
      * Constructor used by 2-SAT.
@@ -21,7 +19,7 @@ public class Literal {
      * @param literal The literal as int.
      */
     public Literal(int literal) {
-        this(new Variable(literal), literal < 0);
+        this.encoded = encode(literal);
     }
 
     /**
@@ -31,8 +29,47 @@ public class Literal {
      * @param negated Is the literal negated.
      */
     public Literal(Variable atom, boolean negated) {
-        this.atom = atom;
-        this.negated = negated;
+        this.encoded = 2 * atom.getVar() + (negated ? 1 : 0);
+    }
+
+    /**
+     * Encodes a literal given as a signed int.
+     *
+     * @param literal The literal, negative if negated.
+     * @return The encoded literal.
+     */
+    public static int encode(int literal) {
+        return literal > 0 ? 2 * literal : -2 * literal + 1;
+    }
+
+    /**
+     * Decodes an encoded literal to a signed int.
+     *
+     * @param encoded The encoded literal.
+     * @return The literal, negative if negated.
+     */
+    public static int decode(int encoded) {
+        return (encoded & 1) == 0 ? encoded >> 1 : -(encoded >> 1);
+    }
+
+    /**
+     * Returns the variable number of an encoded literal.
+     *
+     * @param encoded The encoded literal.
+     * @return The variable number.
+     */
+    public static int variable(int encoded) {
+        return encoded >> 1;
+    }
+
+    /**
+     * Returns if an encoded literal is negated.
+     *
+     * @param encoded The encoded literal.
+     * @return Is the literal negated.
+     */
+    public static boolean isNegated(int encoded) {
+        return (encoded & 1) == 1;
     }
 
     /**
@@ -41,7 +78,16 @@ public class Literal {
      * @return The literal as an int.
      */
     public int getAsInt() {
-        return negated ? -atom.getVar() : atom.getVar();
+        return decode(encoded);
+    }
+
+    /**
+     * Gives the literal in its encoded form.
+     *
+     * @return The encoded literal.
+     */
+    public int getEncoded() {
+        return encoded;
     }
 
     /**
@@ -50,7 +96,7 @@ public class Literal {
      * @return Atomic variable.
      */
     public Variable getAtom() {
-        return atom;
+        return new Variable(variable(encoded));
     }
 
     /**
@@ -59,7 +105,7 @@ public class Literal {
      * @return Is the literal negated.
      */
     public boolean isNegated() {
-        return negated;
+        return isNegated(encoded);
     }
 
     /**
@@ -88,7 +134,7 @@ public class Literal {
         }
 
         Literal literal = (Literal) o;
-        return negated == literal.negated && atom.equals(literal.atom);
+        return encoded == literal.encoded;
     }
 
     /**
@@ -99,8 +145,6 @@ public class Literal {
      */
     @Override
     public int hashCode() {
-        int result = atom.hashCode();
-        result = 31 * result + (negated ? 1 : 0);
-        return result;
+        return encoded;
     }
 }
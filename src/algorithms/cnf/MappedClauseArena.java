@@ -0,0 +1,254 @@
+package algorithms.cnf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Clause arena mapped from a binary formula file.
+ * The file holds the start offset of every clause, the size of every clause and the encoded literals,
+ * so once mapped the file is used as the arena directly and loading takes no time. The mapping is
+ * read-only: clauses cannot be added or modified.
+ */
+public class MappedClauseArena implements ClauseArena {
+    /**
+     * Base 2 logarithm of the number of bytes of a mapped window.
+     */
+    private static final int WINDOW_SHIFT = 30;
+
+    /**
+     * Base 2 logarithm of the number of ints of a mapped window.
+     */
+    private static final int INT_WINDOW_SHIFT = WINDOW_SHIFT - 2;
+
+    /**
+     * Base 2 logarithm of the number of longs of a mapped window.
+     */
+    private static final int LONG_WINDOW_SHIFT = WINDOW_SHIFT - 3;
+
+    /**
+     * Windows of the start offsets of the clauses.
+     */
+    private final LongBuffer[] starts;
+
+    /**
+     * Windows of the sizes of the clauses.
+     */
+    private final IntBuffer[] sizes;
+
+    /**
+     * Windows of the literals of all clauses.
+     */
+    private final IntBuffer[] literals;
+
+    /**
+     * Number of clauses in the arena.
+     */
+    private final int numberOfClauses;
+
+    /**
+     * Total number of literals in the arena.
+     */
+    private final long numberOfLiterals;
+
+    /**
+     * Constructor. Maps the clause regions of a binary formula file.
+     *
+     * @param channel          The channel of the file.
+     * @param position         Position in the file of the start offsets, followed by the sizes and literals.
+     * @param numberOfClauses  Number of clauses.
+     * @param numberOfLiterals Total number of literals.
+     * @throws IOException The file cannot be mapped.
+     */
+    public MappedClauseArena(FileChannel channel, long position, int numberOfClauses, long numberOfLiterals)
+            throws IOException {
+        this.numberOfClauses = numberOfClauses;
+        this.numberOfLiterals = numberOfLiterals;
+
+        long startsBytes = (long) numberOfClauses * Long.BYTES;
+        long sizesBytes = (long) numberOfClauses * Integer.BYTES;
+        long literalsBytes = numberOfLiterals * Integer.BYTES;
+
+        starts = new LongBuffer[windows(startsBytes)];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = map(channel, position, startsBytes, i).asLongBuffer();
+        }
+        sizes = new IntBuffer[windows(sizesBytes)];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = map(channel, position + startsBytes, sizesBytes, i).asIntBuffer();
+        }
+        literals = new IntBuffer[windows(literalsBytes)];
+        for (int i = 0; i < literals.length; i++) {
+            literals[i] = map(channel, position + startsBytes + sizesBytes, literalsBytes, i).asIntBuffer();
+        }
+    }
+
+    /**
+     * New clauses cannot be added to a mapped arena.
+     *
+     * @param clause The encoded literals.
+     * @param from   Index of the first literal in the array.
+     * @param length Number of literals.
+     * @return Never returns.
+     */
+    @Override
+    public int addClause(int[] clause, int from, int length) {
+        throw new UnsupportedOperationException("Clauses cannot be added to a mapped formula.");
+    }
+
+    /**
+     * New clauses cannot be added to a mapped arena.
+     *
+     * @return Never returns.
+     */
+    @Override
+    public int newClause() {
+        throw new UnsupportedOperationException("Clauses cannot be added to a mapped formula.");
+    }
+
+    /**
+     * Clauses of a mapped arena cannot grow.
+     *
+     * @param clause  The index of the clause.
+     * @param literal The encoded literal.
+     */
+    @Override
+    public void appendLiteral(int clause, int literal) {
+        throw new UnsupportedOperationException("Clauses of a mapped formula cannot grow.");
+    }
+
+    /**
+     * Clauses of a mapped arena cannot be modified.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     */
+    @Override
+    public void removeLiteral(int clause, int position) {
+        throw new UnsupportedOperationException("Clauses of a mapped formula cannot be modified.");
+    }
+
+    /**
+     * Returns the number of clauses in the arena.
+     *
+     * @return Clauses number.
+     */
+    @Override
+    public int getNumberOfClauses() {
+        return numberOfClauses;
+    }
+
+    /**
+     * Returns the total number of literals stored in the arena.
+     *
+     * @return Literals number.
+     */
+    @Override
+    public long getNumberOfLiterals() {
+        return numberOfLiterals;
+    }
+
+    /**
+     * Returns the number of literals of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return Clause size.
+     */
+    @Override
+    public int getSize(int clause) {
+        return sizes[clause >>> INT_WINDOW_SHIFT].get(clause & ((1 << INT_WINDOW_SHIFT) - 1));
+    }
+
+    /**
+     * Returns the encoded literal at the given position of a clause.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     * @return The encoded literal.
+     */
+    @Override
+    public int getLiteral(int clause, int position) {
+        long offset = getStart(clause) + position;
+        return literals[(int) (offset >>> INT_WINDOW_SHIFT)].get((int) (offset & ((1 << INT_WINDOW_SHIFT) - 1)));
+    }
+
+    /**
+     * Checks that the mapped content is a well-formed formula, in one pass over the clauses: every clause
+     * lies within the literals region and holds literals of the variables 1..numberOfVariables, each at
+     * most once since the clauses of a mapped arena cannot be rewritten without duplicates.
+     *
+     * @param numberOfVariables Number of variables of the formula.
+     * @throws IllegalArgumentException A clause is malformed.
+     */
+    public void validate(int numberOfVariables) {
+        boolean[] marks = new boolean[2 * numberOfVariables + 2];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            long start = getStart(clause);
+            int size = getSize(clause);
+            if (start < 0 || size < 0 || start + size > numberOfLiterals) {
+                throw new IllegalArgumentException("Clause " + clause + " lies outside the literals of the "
+                        + "binary formula file.");
+            }
+            int position = 0;
+            for (; position < size; position++) {
+                int literal = getLiteral(clause, position);
+                int variable = Literal.variable(literal);
+                if (literal < 0 || variable < 1 || variable > numberOfVariables) {
+                    throw new IllegalArgumentException("Variable " + variable + " is out of the range 1.."
+                            + numberOfVariables + ".");
+                }
+                if (marks[literal]) {
+                    break;
+                }
+                marks[literal] = true;
+            }
+            for (int i = 0; i < position; i++) {
+                marks[getLiteral(clause, i)] = false;
+            }
+            if (position < size) {
+                throw new IllegalArgumentException("Clause " + clause + " of the binary formula file repeats a "
+                        + "literal.");
+            }
+        }
+    }
+
+    /**
+     * Returns the offset of the first literal of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return The offset in the literals region.
+     */
+    private long getStart(int clause) {
+        return starts[clause >>> LONG_WINDOW_SHIFT].get(clause & ((1 << LONG_WINDOW_SHIFT) - 1));
+    }
+
+    /**
+     * Returns the number of windows needed for mapping a region.
+     *
+     * @param bytes The size of the region.
+     * @return Windows number.
+     */
+    private static int windows(long bytes) {
+        return (int) ((bytes + (1L << WINDOW_SHIFT) - 1) >>> WINDOW_SHIFT);
+    }
+
+    /**
+     * Maps one window of a region of the file in little-endian order.
+     *
+     * @param channel The channel of the file.
+     * @param start   Position of the region in the file.
+     * @param bytes   Size of the region.
+     * @param window  Index of the window in the region.
+     * @return The mapped window.
+     * @throws IOException The file cannot be mapped.
+     */
+    private static ByteBuffer map(FileChannel channel, long start, long bytes, int window)
+            throws IOException {
+        long offset = (long) window << WINDOW_SHIFT;
+        return channel.map(FileChannel.MapMode.READ_ONLY, start + offset, Math.min(1L << WINDOW_SHIFT, bytes - offset))
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,301 @@
+package algorithms.cnf;
+
+import algorithms.cnf.exceptions.MemoryBudgetExceededException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Clause arena stored outside of the Java heap, for formulas too large to be kept as Java objects.
+ * Literals, clause offsets and clause sizes are written into fixed size chunks of direct memory, so the
+ * arena grows by allocating new chunks without copying the existing ones and without any per-clause
+ * object. The total direct memory is bounded by a budget given at construction; an allocation that
+ * would exceed it throws a {@link MemoryBudgetExceededException}.
+ */
+public class OffHeapClauseArena implements ClauseArena {
+    /**
+     * Largest size in bytes of a chunk of direct memory.
+     */
+    private static final int MAX_CHUNK_BYTES = 1 << 22;
+
+    /**
+     * Smallest size in bytes of a chunk of direct memory.
+     */
+    private static final int MIN_CHUNK_BYTES = 1 << 12;
+
+    /**
+     * Maximum number of bytes of direct memory the arena may allocate.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Number of bytes of direct memory allocated so far.
+     */
+    private long allocatedBytes;
+
+    /**
+     * Size in bytes of every chunk.
+     */
+    private final int chunkBytes;
+
+    /**
+     * Base 2 logarithm of the number of ints in a chunk.
+     */
+    private final int intChunkShift;
+
+    /**
+     * Base 2 logarithm of the number of longs in a chunk.
+     */
+    private final int longChunkShift;
+
+    /**
+     * Chunks holding the literals of all clauses, one clause after the other.
+     */
+    private IntBuffer[] literalChunks;
+
+    /**
+     * Number of literals written in the literal chunks.
+     */
+    private long literalsSize;
+
+    /**
+     * Chunks holding the offset of the first literal of each clause.
+     */
+    private LongBuffer[] startChunks;
+
+    /**
+     * Chunks holding the current number of literals of each clause.
+     */
+    private IntBuffer[] sizeChunks;
+
+    /**
+     * Number of clauses in the arena.
+     */
+    private int numberOfClauses;
+
+    /**
+     * Constructor.
+     *
+     * @param memoryBudget Maximum number of bytes of direct memory the arena may allocate.
+     */
+    public OffHeapClauseArena(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        long preferredChunk = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, memoryBudget / 32));
+        chunkBytes = Integer.highestOneBit((int) preferredChunk);
+        intChunkShift = Integer.numberOfTrailingZeros(chunkBytes / Integer.BYTES);
+        longChunkShift = Integer.numberOfTrailingZeros(chunkBytes / Long.BYTES);
+        literalChunks = new IntBuffer[0];
+        startChunks = new LongBuffer[0];
+        sizeChunks = new IntBuffer[0];
+    }
+
+    /**
+     * Appends a clause to the arena.
+     *
+     * @param clause The encoded literals.
+     * @param from   Index of the first literal in the array.
+     * @param length Number of literals.
+     * @return The index of the new clause.
+     */
+    @Override
+    public int addClause(int[] clause, int from, int length) {
+        reserve(1, length);
+        int index = newClause();
+        for (int i = from; i < from + length; i++) {
+            writeLiteral(literalsSize++, clause[i]);
+        }
+        writeSize(index, length);
+        return index;
+    }
+
+    /**
+     * Appends an empty clause to the arena.
+     *
+     * @return The index of the new clause.
+     */
+    @Override
+    public int newClause() {
+        reserve(1, 0);
+        int index = numberOfClauses;
+        startChunks[index >>> longChunkShift].put(index & ((1 << longChunkShift) - 1), literalsSize);
+        writeSize(index, 0);
+        numberOfClauses++;
+        return index;
+    }
+
+    /**
+     * Appends a literal to a clause. Only the last clause of the arena can grow.
+     *
+     * @param clause  The index of the clause.
+     * @param literal The encoded literal.
+     */
+    @Override
+    public void appendLiteral(int clause, int literal) {
+        int size = getSize(clause);
+        if (clause != numberOfClauses - 1 || getStart(clause) + size != literalsSize) {
+            throw new IllegalStateException("Only the last clause of the arena can be extended.");
+        }
+        reserve(0, 1);
+        writeLiteral(literalsSize++, literal);
+        writeSize(clause, size + 1);
+    }
+
+    /**
+     * Removes the literal at the given position of a clause by moving the last literal of the clause
+     * into its place.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     */
+    @Override
+    public void removeLiteral(int clause, int position) {
+        long start = getStart(clause);
+        int size = getSize(clause);
+        writeLiteral(start + position, readLiteral(start + size - 1));
+        writeSize(clause, size - 1);
+        if (clause == numberOfClauses - 1 && start + size == literalsSize) {
+            literalsSize--;
+        }
+    }
+
+    /**
+     * Returns the number of clauses in the arena.
+     *
+     * @return Clauses number.
+     */
+    @Override
+    public int getNumberOfClauses() {
+        return numberOfClauses;
+    }
+
+    /**
+     * Returns the total number of literals stored in the arena.
+     *
+     * @return Literals number.
+     */
+    @Override
+    public long getNumberOfLiterals() {
+        return literalsSize;
+    }
+
+    /**
+     * Returns the number of literals of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return Clause size.
+     */
+    @Override
+    public int getSize(int clause) {
+        return sizeChunks[clause >>> intChunkShift].get(clause & ((1 << intChunkShift) - 1));
+    }
+
+    /**
+     * Returns the encoded literal at the given position of a clause.
+     *
+     * @param clause   The index of the clause.
+     * @param position Position of the literal in the clause.
+     * @return The encoded literal.
+     */
+    @Override
+    public int getLiteral(int clause, int position) {
+        return readLiteral(getStart(clause) + position);
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated by the arena.
+     *
+     * @return Allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the maximum number of bytes of direct memory the arena may allocate.
+     *
+     * @return The memory budget.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Returns the offset of the first literal of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return The offset in the literal chunks.
+     */
+    private long getStart(int clause) {
+        return startChunks[clause >>> longChunkShift].get(clause & ((1 << longChunkShift) - 1));
+    }
+
+    /**
+     * Overwrites the number of literals of a clause.
+     *
+     * @param clause The index of the clause.
+     * @param size   The new size.
+     */
+    private void writeSize(int clause, int size) {
+        sizeChunks[clause >>> intChunkShift].put(clause & ((1 << intChunkShift) - 1), size);
+    }
+
+    /**
+     * Reads the literal at an offset of the literal chunks.
+     *
+     * @param offset The offset.
+     * @return The encoded literal.
+     */
+    private int readLiteral(long offset) {
+        return literalChunks[(int) (offset >>> intChunkShift)].get((int) (offset & ((1 << intChunkShift) - 1)));
+    }
+
+    /**
+     * Writes a literal at an offset of the literal chunks.
+     *
+     * @param offset  The offset.
+     * @param literal The encoded literal.
+     */
+    private void writeLiteral(long offset, int literal) {
+        literalChunks[(int) (offset >>> intChunkShift)].put((int) (offset & ((1 << intChunkShift) - 1)), literal);
+    }
+
+    /**
+     * Allocates the chunks needed for appending clauses and literals before anything is written,
+     * so that exceeding the memory budget leaves the arena unchanged.
+     *
+     * @param clauses  Number of clauses about to be appended.
+     * @param literals Number of literals about to be appended.
+     */
+    private void reserve(int clauses, long literals) {
+        long requiredClauses = (long) numberOfClauses + clauses;
+        while (((long) startChunks.length << longChunkShift) < requiredClauses) {
+            startChunks = Arrays.copyOf(startChunks, startChunks.length + 1);
+            startChunks[startChunks.length - 1] = allocateChunk().asLongBuffer();
+        }
+        while (((long) sizeChunks.length << intChunkShift) < requiredClauses) {
+            sizeChunks = Arrays.copyOf(sizeChunks, sizeChunks.length + 1);
+            sizeChunks[sizeChunks.length - 1] = allocateChunk().asIntBuffer();
+        }
+        while (((long) literalChunks.length << intChunkShift) < literalsSize + literals) {
+            literalChunks = Arrays.copyOf(literalChunks, literalChunks.length + 1);
+            literalChunks[literalChunks.length - 1] = allocateChunk().asIntBuffer();
+        }
+    }
+
+    /**
+     * Allocates a chunk of direct memory, charging it to the memory budget.
+     *
+     * @return The new chunk.
+     */
+    private ByteBuffer allocateChunk() {
+        if (allocatedBytes + chunkBytes > memoryBudget) {
+            throw new MemoryBudgetExceededException("The clause arena needs more than its memory budget of "
+                    + memoryBudget + " bytes.");
+        }
+        allocatedBytes += chunkBytes;
+        return ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder());
+    }
+}
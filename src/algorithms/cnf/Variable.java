@@ -1,8 +1,5 @@
 package algorithms.cnf;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Class representing a variable. The atomic building block of SAT formula.
  */
@@ -12,12 +9,6 @@ public class Variable {
      */
     private final int var;
 
-    /**
-     * Set of all clauses containing the variable as a negated literal.
-     * Used by the HornSAT algorithm.
-     */
-    private final Set<Clause> clausesContainingNegation;
-
     /**
      * Constructor.
      *
@@ -25,7 +16,6 @@ public class Variable {
      */
     public Variable(int var) {
         this.var = Math.abs(var);
-        clausesContainingNegation = new HashSet<>();
     }
 
     /**
@@ -37,24 +27,6 @@ public class Variable {
         return var;
     }
 
-    /**
-     * Method that returns the clauses containing the variable as a negated literal.
-     *
-     * @return Clauses containing negated variable list.
-     */
-    public Set<Clause> getClausesContainingNegation() {
-        return clausesContainingNegation;
-    }
-
-    /**
-     * Adds the clause to the negation list.
-     *
-     * @param clause The clause containing the negation.
-     */
-    public void addClause(Clause clause) {
-        clausesContainingNegation.add(clause);
-    }
-
     /**
      * Two variables that have the same var value have the same hashcode.
      *
@@ -0,0 +1,21 @@
+package algorithms.cnf.exceptions;
+
+/**
+ * Custom Exception
+ * Thrown if a data structure needs more memory than the budget it was configured with
+ */
+public class MemoryBudgetExceededException extends RuntimeException {
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 1-Parameter Constructor.
+     *
+     * @param message Exception message.
+     */
+    public MemoryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -5,12 +5,37 @@ package algorithms.cnf.exceptions;
  * Thrown if there is no assignment of variables that can satisfy the CNF Formula
  */
 public class UnsatisfiableFormulaException extends Exception {
+    /**
+     * The assumptions responsible for the unsatisfiability, empty if the formula itself is unsatisfiable.
+     */
+    private final int[] failedAssumptions;
+
     /**
      * 1-Parameter Constructor.
      *
      * @param message Exception message.
      */
     public UnsatisfiableFormulaException(String message) {
+        this(message, new int[0]);
+    }
+
+    /**
+     * 2-Parameter Constructor.
+     *
+     * @param message           Exception message.
+     * @param failedAssumptions The encoded assumptions responsible for the unsatisfiability.
+     */
+    public UnsatisfiableFormulaException(String message, int[] failedAssumptions) {
         super(message);
+        this.failedAssumptions = failedAssumptions;
+    }
+
+    /**
+     * Returns the assumptions responsible for the unsatisfiability.
+     *
+     * @return The encoded assumptions, empty if the formula itself is unsatisfiable.
+     */
+    public int[] getFailedAssumptions() {
+        return failedAssumptions;
     }
 }
@@ -0,0 +1,393 @@
+package algorithms.cnf.utils;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+import algorithms.cnf.MappedClauseArena;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Class with utility methods for writing and loading formulas in a binary format.
+ * A binary file starts with a 32 bytes little-endian header: the magic bytes "SATB", the format version,
+ * the encoding, the number of variables, the number of clauses, four unused bytes and the total number of
+ * literals. Literals are stored encoded, see {@link algorithms.cnf.Literal#encode(int)}.
+ * <p>
+ * With the {@link #RAW} encoding the header is followed by the start offset of every clause as a long,
+ * the size of every clause as an int and the literals of all clauses as ints. Such a file is memory-mapped
+ * and used as the clause arena of the formula, so it is loaded without copying its content; it is only
+ * read once to be validated.
+ * <p>
+ * With the {@link #COMPACT} encoding every clause is written as its size followed by the difference of
+ * every literal from the previous literal of the clause, zigzag encoded so that small negative differences
+ * stay small, all as variable-length integers of 7 bits per byte. Such a file is a fraction of the size
+ * of the DIMACS text and is decoded into a clause arena when loaded.
+ * <p>
+ * Loading checks the content like the DIMACS parsers do: a literal of a variable outside of the range
+ * declared by the header, or a malformed clause, throws an {@link IllegalArgumentException}.
+ */
+public class BinaryFormulaFile {
+    /**
+     * Encoding of files which store the clauses as plain ints and can be memory-mapped.
+     */
+    public static final int RAW = 0;
+
+    /**
+     * Encoding of files which store the clauses as variable-length integer differences.
+     */
+    public static final int COMPACT = 1;
+
+    /**
+     * Magic bytes at the start of binary formula files.
+     */
+    private static final byte[] MAGIC = {'S', 'A', 'T', 'B'};
+
+    /**
+     * Version of the binary format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Number of bytes of the header.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * Number of bytes of the buffer used for writing files.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Largest number of bytes mapped in memory at once while decoding.
+     */
+    private static final long MAPPING_WINDOW = 1L << 30;
+
+    /**
+     * Checks if a file is a binary formula file.
+     *
+     * @param fileName The name of the file.
+     * @return Does the file start with the magic bytes of the binary format.
+     * @throws IOException The file cannot be read.
+     */
+    public static boolean isBinary(String fileName) throws IOException {
+        try (InputStream input = new FileInputStream(fileName)) {
+            return Arrays.equals(input.readNBytes(MAGIC.length), MAGIC);
+        }
+    }
+
+    /**
+     * Writes a formula to a binary file.
+     *
+     * @param formula  The formula being written.
+     * @param fileName The name of the file, which is overwritten if it exists.
+     * @param encoding The encoding of the clauses, {@link #RAW} or {@link #COMPACT}.
+     * @throws IOException The file cannot be written.
+     */
+    public static void write(Formula formula, String fileName, int encoding) throws IOException {
+        if (encoding != RAW && encoding != COMPACT) {
+            throw new IllegalArgumentException("Unknown binary formula encoding " + encoding + ".");
+        }
+        ClauseArena arena = formula.getArena();
+        int numberOfClauses = arena.getNumberOfClauses();
+        // The literals written are counted from the clause sizes: the arena may keep the room of removed
+        // literals, so its own count can be larger.
+        long numberOfLiterals = 0;
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            numberOfLiterals += arena.getSize(clause);
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(encoding)
+                    .putInt(formula.getNumberOfVariables())
+                    .putInt(numberOfClauses)
+                    .putInt(0)
+                    .putLong(numberOfLiterals);
+
+            if (encoding == RAW) {
+                long start = 0;
+                for (int clause = 0; clause < numberOfClauses; clause++) {
+                    ensureRemaining(channel, buffer, Long.BYTES);
+                    buffer.putLong(start);
+                    start += arena.getSize(clause);
+                }
+                for (int clause = 0; clause < numberOfClauses; clause++) {
+                    ensureRemaining(channel, buffer, Integer.BYTES);
+                    buffer.putInt(arena.getSize(clause));
+                }
+                for (int clause = 0; clause < numberOfClauses; clause++) {
+                    int size = arena.getSize(clause);
+                    for (int i = 0; i < size; i++) {
+                        ensureRemaining(channel, buffer, Integer.BYTES);
+                        buffer.putInt(arena.getLiteral(clause, i));
+                    }
+                }
+            } else {
+                for (int clause = 0; clause < numberOfClauses; clause++) {
+                    int size = arena.getSize(clause);
+                    ensureRemaining(channel, buffer, 5);
+                    putVarint(buffer, size);
+                    int previous = 0;
+                    for (int i = 0; i < size; i++) {
+                        int literal = arena.getLiteral(clause, i);
+                        int difference = literal - previous;
+                        ensureRemaining(channel, buffer, 5);
+                        putVarint(buffer, (difference << 1) ^ (difference >> 31));
+                        previous = literal;
+                    }
+                }
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Loads a binary formula file. A file with the {@link #RAW} encoding is memory-mapped and used as the
+     * clause arena of the formula, which therefore cannot be modified; a file with the
+     * {@link #COMPACT} encoding is decoded into a heap arena.
+     *
+     * @param fileName The name of the file.
+     * @return The loaded formula.
+     * @throws IOException The file cannot be read.
+     */
+    public static Formula load(String fileName) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            Header header = readHeader(channel);
+            if (header.encoding == RAW) {
+                MappedClauseArena mapped = new MappedClauseArena(channel, HEADER_SIZE, header.numberOfClauses,
+                        header.numberOfLiterals);
+                mapped.validate(header.numberOfVariables);
+                return new Formula(header.numberOfVariables, mapped);
+            }
+            return decode(channel, header, new HeapClauseArena());
+        }
+    }
+
+    /**
+     * Loads a binary formula file into the given arena, whatever the encoding of the file.
+     *
+     * @param fileName The name of the file.
+     * @param arena    The empty arena in which the clauses are stored.
+     * @return The loaded formula.
+     * @throws IOException The file cannot be read.
+     */
+    public static Formula load(String fileName, ClauseArena arena) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            Header header = readHeader(channel);
+            if (header.encoding == COMPACT) {
+                return decode(channel, header, arena);
+            }
+
+            MappedClauseArena mapped = new MappedClauseArena(channel, HEADER_SIZE, header.numberOfClauses,
+                    header.numberOfLiterals);
+            mapped.validate(header.numberOfVariables);
+            Formula formula = new Formula(header.numberOfVariables, arena);
+            int[] buffer = new int[16];
+            for (int clause = 0; clause < header.numberOfClauses; clause++) {
+                int size = mapped.getSize(clause);
+                if (size > buffer.length) {
+                    buffer = new int[Math.max(size, 2 * buffer.length)];
+                }
+                for (int i = 0; i < size; i++) {
+                    buffer[i] = mapped.getLiteral(clause, i);
+                }
+                formula.addClause(buffer, 0, size);
+            }
+            return formula;
+        }
+    }
+
+    /**
+     * Reads and validates the header of a binary formula file.
+     *
+     * @param channel The channel of the file.
+     * @return The header.
+     * @throws IOException The file cannot be read.
+     */
+    private static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (bytes.hasRemaining() && read >= 0) {
+            read = channel.read(bytes, bytes.position());
+        }
+        if (bytes.hasRemaining()) {
+            throw new IllegalArgumentException("Truncated binary formula header.");
+        }
+        bytes.flip();
+
+        byte[] magic = new byte[MAGIC.length];
+        bytes.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a binary formula file.");
+        }
+        if (bytes.getInt() != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary formula version.");
+        }
+        Header header = new Header();
+        header.encoding = bytes.getInt();
+        header.numberOfVariables = bytes.getInt();
+        header.numberOfClauses = bytes.getInt();
+        bytes.getInt();
+        header.numberOfLiterals = bytes.getLong();
+        if (header.numberOfVariables < 0 || header.numberOfClauses < 0 || header.numberOfLiterals < 0) {
+            throw new IllegalArgumentException("Negative count in binary formula header.");
+        }
+
+        if (header.encoding == RAW) {
+            long expected = HEADER_SIZE + (long) header.numberOfClauses * (Long.BYTES + Integer.BYTES)
+                    + header.numberOfLiterals * Integer.BYTES;
+            if (channel.size() != expected) {
+                throw new IllegalArgumentException("Binary formula file has " + channel.size()
+                        + " bytes instead of " + expected + ".");
+            }
+        } else if (header.encoding != COMPACT) {
+            throw new IllegalArgumentException("Unknown binary formula encoding " + header.encoding + ".");
+        }
+        return header;
+    }
+
+    /**
+     * Decodes the clauses of a file with the {@link #COMPACT} encoding, mapping it window by window.
+     * A variable-length integer split between two windows is resumed where it stopped. The clauses are
+     * added through the formula, which checks their variables and drops repeated literals.
+     *
+     * @param channel The channel of the file.
+     * @param header  The header of the file.
+     * @param arena   The empty arena in which the clauses are stored.
+     * @return The decoded formula.
+     * @throws IOException The file cannot be read.
+     */
+    private static Formula decode(FileChannel channel, Header header, ClauseArena arena) throws IOException {
+        long size = channel.size();
+        Formula formula = new Formula(header.numberOfVariables, arena);
+        int[] clause = new int[16];
+        int clauseSize = -1;
+        int position = 0;
+        int previous = 0;
+        int value = 0;
+        int shift = 0;
+        long literals = 0;
+
+        for (long start = HEADER_SIZE; start < size; start += MAPPING_WINDOW) {
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(MAPPING_WINDOW, size - start));
+            int limit = window.limit();
+            for (int i = 0; i < limit; i++) {
+                byte b = window.get(i);
+                value |= (b & 0x7f) << shift;
+                if (b < 0) {
+                    shift += 7;
+                    if (shift > 28) {
+                        throw new IllegalArgumentException("Malformed number in binary formula file.");
+                    }
+                    continue;
+                }
+
+                if (clauseSize < 0) {
+                    clauseSize = value;
+                    if (clauseSize < 0) {
+                        throw new IllegalArgumentException("Malformed clause size in binary formula file.");
+                    }
+                    if (clauseSize > clause.length) {
+                        clause = new int[Math.max(clauseSize, 2 * clause.length)];
+                    }
+                    position = 0;
+                    previous = 0;
+                } else {
+                    previous += (value >>> 1) ^ -(value & 1);
+                    clause[position++] = previous;
+                }
+                if (position == clauseSize) {
+                    if (arena.getNumberOfClauses() == header.numberOfClauses) {
+                        throw new IllegalArgumentException("Binary formula file has too many clauses.");
+                    }
+                    formula.addClause(clause, 0, clauseSize);
+                    literals += clauseSize;
+                    clauseSize = -1;
+                }
+                value = 0;
+                shift = 0;
+            }
+        }
+
+        if (clauseSize >= 0 || shift > 0 || arena.getNumberOfClauses() != header.numberOfClauses
+                || literals != header.numberOfLiterals) {
+            throw new IllegalArgumentException("Truncated binary formula file.");
+        }
+        return formula;
+    }
+
+    /**
+     * Writes a non-negative int as a variable-length integer of 7 bits per byte, lowest bits first.
+     *
+     * @param buffer The buffer receiving the bytes, with at least 5 bytes remaining.
+     * @param value  The value, read as unsigned.
+     */
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes the content of the buffer to the file if fewer bytes than needed remain in it.
+     *
+     * @param channel The channel of the file.
+     * @param buffer  The buffer.
+     * @param bytes   The number of bytes about to be put in the buffer.
+     * @throws IOException The file cannot be written.
+     */
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Fields of the header of a binary formula file.
+     */
+    private static class Header {
+        /**
+         * The encoding of the clauses.
+         */
+        int encoding;
+
+        /**
+         * Number of variables of the formula.
+         */
+        int numberOfVariables;
+
+        /**
+         * Number of clauses of the formula.
+         */
+        int numberOfClauses;
+
+        /**
+         * Total number of literals of the formula.
+         */
+        long numberOfLiterals;
+    }
+}
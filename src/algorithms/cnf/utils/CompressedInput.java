@@ -0,0 +1,128 @@
+package algorithms.cnf.utils;
+
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Class with utility methods for reading compressed formula files as streams.
+ * The compression is detected from the magic bytes at the start of the file. Gzip files are decompressed
+ * by the JDK; xz and bzip2 files are decompressed by the xz and bzip2 commands, whose output is read
+ * through a pipe. The expanded file is never written to disk.
+ */
+public class CompressedInput {
+    /**
+     * Magic bytes of gzip files.
+     */
+    private static final int[] GZIP_MAGIC = {0x1f, 0x8b};
+
+    /**
+     * Magic bytes of xz files.
+     */
+    private static final int[] XZ_MAGIC = {0xfd, '7', 'z', 'X', 'Z', 0x00};
+
+    /**
+     * Magic bytes of bzip2 files.
+     */
+    private static final int[] BZIP2_MAGIC = {'B', 'Z', 'h'};
+
+    /**
+     * Checks if a file is compressed with gzip, xz or bzip2.
+     *
+     * @param fileName The name of the file.
+     * @return Is the file compressed.
+     * @throws IOException The file cannot be read.
+     */
+    public static boolean isCompressed(String fileName) throws IOException {
+        byte[] head = readHead(fileName);
+        return startsWith(head, GZIP_MAGIC) || startsWith(head, XZ_MAGIC) || startsWith(head, BZIP2_MAGIC);
+    }
+
+    /**
+     * Opens a file for reading its decompressed content. Files which are not compressed are read as is.
+     *
+     * @param fileName The name of the file.
+     * @return The stream of decompressed bytes.
+     * @throws IOException The file cannot be read or the decompression command cannot be started.
+     */
+    public static InputStream open(String fileName) throws IOException {
+        byte[] head = readHead(fileName);
+        if (startsWith(head, GZIP_MAGIC)) {
+            return new GZIPInputStream(new FileInputStream(fileName), 1 << 16);
+        } else if (startsWith(head, XZ_MAGIC)) {
+            return openWithCommand("xz", fileName);
+        } else if (startsWith(head, BZIP2_MAGIC)) {
+            return openWithCommand("bzip2", fileName);
+        }
+        return new FileInputStream(fileName);
+    }
+
+    /**
+     * Starts a decompression command and returns its standard output.
+     * Closing the stream waits for the command and reports a failure if it exited with an error.
+     *
+     * @param command  The decompression command, which must accept the -dc options.
+     * @param fileName The name of the file.
+     * @return The stream of decompressed bytes.
+     * @throws IOException The command cannot be started.
+     */
+    private static InputStream openWithCommand(String command, String fileName) throws IOException {
+        Process process;
+        try {
+            process = new ProcessBuilder(command, "-dc", fileName)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException e) {
+            throw new IOException("Reading " + fileName + " needs the " + command + " command on the PATH.", e);
+        }
+
+        return new FilterInputStream(process.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                try {
+                    if (process.waitFor() != 0) {
+                        throw new IOException(command + " failed to decompress " + fileName + ".");
+                    }
+                } catch (InterruptedException e) {
+                    process.destroy();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads the first bytes of a file.
+     *
+     * @param fileName The name of the file.
+     * @return Up to 6 bytes.
+     * @throws IOException The file cannot be read.
+     */
+    private static byte[] readHead(String fileName) throws IOException {
+        try (InputStream input = new FileInputStream(fileName)) {
+            return input.readNBytes(XZ_MAGIC.length);
+        }
+    }
+
+    /**
+     * Checks if an array of bytes starts with the given magic bytes.
+     *
+     * @param head  The first bytes of a file.
+     * @param magic The magic bytes, as unsigned values.
+     * @return Does the file start with the magic bytes.
+     */
+    private static boolean startsWith(byte[] head, int[] magic) {
+        if (head.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[i] & 0xff) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,367 @@
+package algorithms.cnf.utils;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.Literal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Parser of formulas in the DIMACS CNF format.
+ * The parser tokenizes raw bytes and writes every clause straight into the clause arena of the formula,
+ * without creating a String per line or per token. Bytes can be fed in any number of buffers: a token
+ * split between two buffers is resumed where it stopped, so a file can be parsed through successive
+ * memory-mapped windows or through the blocks of a stream.
+ * <p>
+ * Lines starting with 'c' are comments, the 'p cnf variables clauses' header must precede the clauses,
+ * every clause is a list of non-zero literals terminated by 0 and a line starting with '%' ends the
+ * formula.
+ */
+public class DimacsParser {
+    /**
+     * Largest number of bytes mapped in memory at once.
+     */
+    private static final long MAPPING_WINDOW = 1L << 30;
+
+    /**
+     * State of a parser at the start of a line.
+     */
+    private static final int LINE_START = 0;
+
+    /**
+     * State of a parser in the middle of a line of clauses.
+     */
+    private static final int CLAUSES = 1;
+
+    /**
+     * State of a parser skipping a comment line.
+     */
+    private static final int COMMENT = 2;
+
+    /**
+     * State of a parser reading the problem line.
+     */
+    private static final int HEADER = 3;
+
+    /**
+     * State of a parser after the end of formula marker.
+     */
+    private static final int END = 4;
+
+    /**
+     * The arena in which the clauses are stored.
+     */
+    private final ClauseArena arena;
+
+    /**
+     * The formula being built, null until the problem line is read.
+     */
+    private Formula formula;
+
+    /**
+     * Current state of the parser.
+     */
+    private int state;
+
+    /**
+     * Is a number being read.
+     */
+    private boolean inNumber;
+
+    /**
+     * Is the number being read negative.
+     */
+    private boolean negative;
+
+    /**
+     * Absolute value of the number being read.
+     */
+    private long value;
+
+    /**
+     * The numbers of the problem line read so far.
+     */
+    private final long[] header;
+
+    /**
+     * Number of numbers of the problem line read so far.
+     */
+    private int headerSize;
+
+    /**
+     * Encoded literals of the clause being read.
+     */
+    private int[] clause;
+
+    /**
+     * Number of literals of the clause being read.
+     */
+    private int clauseSize;
+
+    /**
+     * Constructor.
+     *
+     * @param arena The empty arena in which the clauses are stored.
+     */
+    public DimacsParser(ClauseArena arena) {
+        this.arena = arena;
+        header = new long[2];
+        clause = new int[16];
+        state = LINE_START;
+    }
+
+    /**
+     * Constructor of a parser for a part of a DIMACS file which follows the problem line.
+     * The clauses read are added to the given formula. Used for parsing a file in several chunks.
+     *
+     * @param formula The formula receiving the clauses.
+     */
+    public DimacsParser(Formula formula) {
+        this(formula.getArena());
+        this.formula = formula;
+    }
+
+    /**
+     * Parses a DIMACS file by mapping it in memory window by window.
+     *
+     * @param fileName The name of the file being read.
+     * @param arena    The empty arena in which the clauses are stored.
+     * @return The parsed formula.
+     * @throws IOException The file cannot be read.
+     */
+    public static Formula parseFile(String fileName, ClauseArena arena) throws IOException {
+        DimacsParser parser = new DimacsParser(arena);
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAPPING_WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAPPING_WINDOW, size - position));
+                parser.feed(window);
+            }
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses a DIMACS stream. The stream is read in blocks on a background thread while the previous
+     * blocks are being parsed, which lets decompression and parsing run concurrently.
+     *
+     * @param input The stream being read. It is closed at the end of the input.
+     * @param arena The empty arena in which the clauses are stored.
+     * @return The parsed formula.
+     * @throws IOException The stream cannot be read.
+     */
+    public static Formula parseStream(InputStream input, ClauseArena arena) throws IOException {
+        DimacsParser parser = new DimacsParser(arena);
+        try (PipelinedReader reader = new PipelinedReader(input)) {
+            ByteBuffer block;
+            while ((block = reader.next()) != null) {
+                parser.feed(block);
+            }
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses the remaining bytes of a buffer.
+     *
+     * @param bytes The bytes being parsed.
+     */
+    public void feed(ByteBuffer bytes) {
+        int limit = bytes.limit();
+        int i = bytes.position();
+        while (i < limit) {
+            if (state == CLAUSES) {
+                i = feedClauses(bytes, i, limit);
+                continue;
+            }
+            byte b = bytes.get(i++);
+
+            if (state == HEADER) {
+                if (b >= '0' && b <= '9') {
+                    value = 10 * value + (b - '0');
+                    inNumber = true;
+                    continue;
+                }
+                if (inNumber) {
+                    endNumber();
+                }
+                if (b == '\n') {
+                    endLine();
+                } else if (b != ' ' && b != '\t' && b != '\r' && !isLetter(b)) {
+                    throw new IllegalArgumentException("Unexpected character '" + (char) b + "' in DIMACS input.");
+                }
+            } else if (state == LINE_START) {
+                if (b == 'c') {
+                    state = COMMENT;
+                } else if (b == 'p') {
+                    if (formula != null) {
+                        throw new IllegalArgumentException("Duplicate problem line in DIMACS input.");
+                    }
+                    state = HEADER;
+                } else if (b == '%') {
+                    state = END;
+                } else if (b != '\n') {
+                    state = CLAUSES;
+                    i--;
+                }
+            } else if (state == COMMENT && b == '\n') {
+                state = LINE_START;
+            }
+        }
+        bytes.position(limit);
+    }
+
+    /**
+     * Parses clause literals until the end of the line or of the buffer.
+     * The number being read is kept in local variables and only written back to the parser state when
+     * the loop stops.
+     *
+     * @param bytes The bytes being parsed.
+     * @param from  Position of the first byte to parse.
+     * @param limit Position after the last byte to parse.
+     * @return Position of the first byte not parsed.
+     */
+    private int feedClauses(ByteBuffer bytes, int from, int limit) {
+        long number = value;
+        boolean reading = inNumber;
+        int i = from;
+        while (i < limit) {
+            byte b = bytes.get(i++);
+            if (b >= '0' && b <= '9') {
+                number = 10 * number + (b - '0');
+                reading = true;
+                if (number > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Number too large in DIMACS input.");
+                }
+                continue;
+            }
+            if (reading) {
+                value = number;
+                endNumber();
+                number = 0;
+                reading = false;
+            }
+            if (b == '-') {
+                negative = true;
+            } else if (b == '\n') {
+                endLine();
+                break;
+            } else if (b != ' ' && b != '\t' && b != '\r') {
+                throw new IllegalArgumentException("Unexpected character '" + (char) b + "' in DIMACS input.");
+            }
+        }
+        value = number;
+        inNumber = reading;
+        return i;
+    }
+
+    /**
+     * Completes the parsing after the last buffer has been fed.
+     * A last clause missing its terminating 0 is still added.
+     *
+     * @return The parsed formula.
+     */
+    public Formula finish() {
+        flush();
+        if (state == HEADER) {
+            endLine();
+        }
+        if (formula == null) {
+            throw new IllegalArgumentException("Missing problem line in DIMACS input.");
+        }
+        if (clauseSize > 0) {
+            formula.addClause(clause, 0, clauseSize);
+            clauseSize = 0;
+        }
+        return formula;
+    }
+
+    /**
+     * Ends the number being read, as the end of the input does. A number at the very end of the input,
+     * without any following separator, is otherwise only read by {@link #finish()}.
+     */
+    public void flush() {
+        if (inNumber) {
+            endNumber();
+        }
+    }
+
+    /**
+     * Returns the literals read since the last clause terminator, which belong to a clause continuing
+     * after the bytes fed so far.
+     *
+     * @return The encoded literals of the unterminated clause.
+     */
+    public int[] getPendingClause() {
+        return Arrays.copyOf(clause, clauseSize);
+    }
+
+    /**
+     * Returns if the end of formula marker has been read.
+     *
+     * @return Has the formula ended.
+     */
+    public boolean isEnded() {
+        return state == END;
+    }
+
+    /**
+     * Handles the number which has just been read.
+     */
+    private void endNumber() {
+        if (state == HEADER) {
+            if (headerSize == header.length || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Malformed problem line in DIMACS input.");
+            }
+            header[headerSize++] = value;
+        } else if (value == 0) {
+            if (formula == null) {
+                throw new IllegalArgumentException("Clause before the problem line in DIMACS input.");
+            }
+            formula.addClause(clause, 0, clauseSize);
+            clauseSize = 0;
+        } else {
+            if (clauseSize == clause.length) {
+                clause = Arrays.copyOf(clause, 2 * clauseSize);
+            }
+            clause[clauseSize++] = Literal.encode(negative ? (int) -value : (int) value);
+        }
+        inNumber = false;
+        negative = false;
+        value = 0;
+    }
+
+    /**
+     * Handles the end of a line of clauses or of the problem line.
+     */
+    private void endLine() {
+        if (state == HEADER) {
+            if (headerSize != header.length) {
+                throw new IllegalArgumentException("Malformed problem line in DIMACS input.");
+            }
+            formula = new Formula((int) header[0], arena);
+        }
+        if (negative) {
+            throw new IllegalArgumentException("Dangling minus sign in DIMACS input.");
+        }
+        state = LINE_START;
+    }
+
+    /**
+     * Checks if a byte is an ASCII letter, as found in the format name of the problem line.
+     *
+     * @param b The byte.
+     * @return Is the byte a letter.
+     */
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+}
@@ -1,57 +1,175 @@
 package algorithms.cnf.utils;
 
-import algorithms.cnf.Clause;
+import algorithms.cnf.ClauseArena;
 import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
 import algorithms.cnf.Literal;
-import algorithms.cnf.Variable;
+import algorithms.cnf.exceptions.MemoryBudgetExceededException;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStreamReader;
 
 /**
  * Class with utility methods for reading and writing input files
  */
 public class FileReaderUtils {
     /**
-     * Method that takes a file as argument and returns a CNF formula
+     * Size in bytes from which DIMACS files are parsed in parallel.
+     */
+    private static final long PARALLEL_PARSING_THRESHOLD = 1L << 25;
+
+    /**
+     * Method that takes a file as argument and returns a CNF formula.
+     * Files in the DIMACS CNF format are recognised by their leading comment or problem line, and are
+     * parsed in parallel when they are large; any other file is read in the comma separated format,
+     * where the first line holds the number of variables, the second line the number of clauses and
+     * every following line one clause. Files compressed with gzip, xz or bzip2 are decompressed while
+     * being parsed. Binary formula files written by {@link BinaryFormulaFile} are loaded without parsing,
+     * and the raw ones are memory-mapped as the clause arena of the formula.
+     *
+     * A file which cannot be read yields an empty formula, see {@link #readFormula(String)} to get the
+     * error instead.
      *
      * @param fileName the name of the file being read
      * @return a formula in CNF form
      */
     public static Formula parseFormulaFromFile(String fileName) {
         try {
-            File file = new File(fileName);
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            int numberOfVariables = Integer.parseInt(reader.readLine());
-            Formula formula = new Formula(numberOfVariables);
-
-            HashMap<Integer, Variable> variablesMap = new HashMap<>();
-            for (int i = 1; i <= numberOfVariables; i++) {
-                variablesMap.put(i, new Variable(i));
-            }
+            return readFormula(fileName);
+        } catch (MemoryBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return new Formula(0);
+    }
 
-            reader.readLine();
-            reader.lines().forEachOrdered(line -> {
-                Clause clause = new Clause();
-                for (String s : line.split(",")) {
-                    int literal = Integer.parseInt(s.trim());
-                    int variableNumber = Math.abs(literal);
-                    boolean isNegated = literal < 0;
-
-                    clause.addLiteral(new Literal(variablesMap.get(variableNumber), isNegated));
-                    if (isNegated) {
-                        variablesMap.get(variableNumber).addClause(clause);
-                    }
-                }
-                formula.addClause(clause);
-            });
-            return formula;
+    /**
+     * Method that takes a file as argument and returns a CNF formula whose clauses are stored in the
+     * given arena, for example an {@link algorithms.cnf.OffHeapClauseArena} with a memory budget.
+     *
+     * A file which cannot be read yields an empty formula, see {@link #readFormula(String, ClauseArena)} to
+     * get the error instead.
+     *
+     * @param fileName the name of the file being read
+     * @param arena    the empty arena in which the clauses are stored
+     * @return a formula in CNF form
+     * @throws MemoryBudgetExceededException the clauses do not fit in the memory budget of the arena
+     */
+    public static Formula parseFormulaFromFile(String fileName, ClauseArena arena) {
+        try {
+            return readFormula(fileName, arena);
+        } catch (MemoryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
         }
         return new Formula(0);
     }
 
+    /**
+     * Reads a formula file like {@link #parseFormulaFromFile(String)}, but lets the errors propagate.
+     *
+     * @param fileName the name of the file being read
+     * @return a formula in CNF form
+     * @throws IOException              the file cannot be read
+     * @throws IllegalArgumentException the content of the file is not a valid formula
+     */
+    public static Formula readFormula(String fileName) throws IOException {
+        if (BinaryFormulaFile.isBinary(fileName)) {
+            return BinaryFormulaFile.load(fileName);
+        }
+        return readFormula(fileName, new HeapClauseArena());
+    }
+
+    /**
+     * Reads a formula file like {@link #parseFormulaFromFile(String, ClauseArena)}, but lets the errors
+     * propagate.
+     *
+     * @param fileName the name of the file being read
+     * @param arena    the empty arena in which the clauses are stored
+     * @return a formula in CNF form
+     * @throws IOException                   the file cannot be read
+     * @throws IllegalArgumentException      the content of the file is not a valid formula
+     * @throws MemoryBudgetExceededException the clauses do not fit in the memory budget of the arena
+     */
+    public static Formula readFormula(String fileName, ClauseArena arena) throws IOException {
+        if (BinaryFormulaFile.isBinary(fileName)) {
+            return BinaryFormulaFile.load(fileName, arena);
+        }
+        if (CompressedInput.isCompressed(fileName)) {
+            try (BufferedInputStream input = new BufferedInputStream(CompressedInput.open(fileName), 1 << 16)) {
+                if (isDimacs(input)) {
+                    return DimacsParser.parseStream(input, arena);
+                }
+                return parseCommaSeparated(new BufferedReader(new InputStreamReader(input)), arena);
+            }
+        }
+
+        boolean dimacs;
+        try (BufferedInputStream input = new BufferedInputStream(new FileInputStream(fileName))) {
+            dimacs = isDimacs(input);
+        }
+        if (dimacs) {
+            if (new File(fileName).length() >= PARALLEL_PARSING_THRESHOLD) {
+                return new ParallelDimacsParser().parseFile(fileName, arena);
+            }
+            return DimacsParser.parseFile(fileName, arena);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            return parseCommaSeparated(reader, arena);
+        }
+    }
+
+    /**
+     * Reads a formula in the comma separated format.
+     *
+     * @param reader the reader of the formula text
+     * @param arena  the empty arena in which the clauses are stored
+     * @return a formula in CNF form
+     * @throws IOException the formula cannot be read
+     */
+    private static Formula parseCommaSeparated(BufferedReader reader, ClauseArena arena) throws IOException {
+        int numberOfVariables = Integer.parseInt(reader.readLine());
+        Formula formula = new Formula(numberOfVariables, arena);
+
+        reader.readLine();
+        reader.lines().forEachOrdered(line -> {
+            String[] tokens = line.split(",");
+            int[] literals = new int[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                literals[i] = Literal.encode(Integer.parseInt(tokens[i].trim()));
+            }
+            formula.addClause(literals, 0, literals.length);
+        });
+        return formula;
+    }
+
+    /**
+     * Checks if a stream is in the DIMACS CNF format by looking at its first non-blank character.
+     * The stream is reset to its current position afterwards.
+     *
+     * @param input the stream being read
+     * @return is the stream in DIMACS format
+     * @throws IOException the stream cannot be read
+     */
+    private static boolean isDimacs(BufferedInputStream input) throws IOException {
+        input.mark(1 << 16);
+        try {
+            int b = input.read();
+            while (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                b = input.read();
+            }
+            return b == 'c' || b == 'p';
+        } finally {
+            input.reset();
+        }
+    }
+
 }
@@ -0,0 +1,42 @@
+package algorithms.cnf.utils;
+
+import algorithms.cnf.Formula;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Command line program converting a formula file in the DIMACS or comma separated format, possibly
+ * compressed, to the binary format of {@link BinaryFormulaFile}. An input file which cannot be read
+ * or parsed is reported and the program exits with status 1, writing no output file.
+ */
+public class FormulaConverter {
+    /**
+     * Main method.
+     *
+     * @param args The input file, the output file and optionally --compact for the compact encoding.
+     * @throws IOException The output file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3 || (args.length == 3 && !args[2].equals("--compact"))) {
+            System.out.println("Usage: FormulaConverter <input file> <output file> [--compact]");
+            return;
+        }
+        int encoding = args.length == 3 ? BinaryFormulaFile.COMPACT : BinaryFormulaFile.RAW;
+
+        long start = System.nanoTime();
+        Formula formula;
+        try {
+            formula = FileReaderUtils.readFormula(args[0]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot read " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        BinaryFormulaFile.write(formula, args[1], encoding);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Converted %d clauses in %.3f s: %d bytes to %d bytes.%n", formula.getNumberOfClauses(),
+                seconds, new File(args[0]).length(), new File(args[1]).length());
+    }
+}
@@ -0,0 +1,304 @@
+package algorithms.cnf.utils;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parser of DIMACS CNF files which parses the file in parallel.
+ * The part of the file following the problem line is split into chunks ending at line boundaries. Every
+ * chunk is memory-mapped and parsed by a {@link DimacsParser} on a fork-join pool into a clause buffer of
+ * its own, and the buffers are merged into one formula in file order while the later chunks are still
+ * being parsed. A clause spanning the end of a chunk is completed with the first clause of the following
+ * chunk. The chunk buffers are validated by their own formula, so merging copies them into the arena
+ * without checking them again.
+ */
+public class ParallelDimacsParser {
+    /**
+     * Largest number of bytes of a chunk.
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 28;
+
+    /**
+     * Smallest number of bytes of a chunk.
+     */
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+
+    /**
+     * The pool parsing the chunks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Number of bytes of the last parsed file.
+     */
+    private long bytesParsed;
+
+    /**
+     * Duration in nanoseconds of the last parse.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Constructor using the common fork-join pool.
+     */
+    public ParallelDimacsParser() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool The pool parsing the chunks.
+     */
+    public ParallelDimacsParser(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Parses a DIMACS file.
+     *
+     * @param fileName The name of the file being read.
+     * @param arena    The empty arena in which the clauses are stored.
+     * @return The parsed formula.
+     * @throws IOException The file cannot be read.
+     */
+    public Formula parseFile(String fileName, ClauseArena arena) throws IOException {
+        long start = System.nanoTime();
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            long size = channel.size();
+            long bodyStart = findBodyStart(channel, size);
+
+            DimacsParser headerParser = new DimacsParser(arena);
+            headerParser.feed(channel.map(FileChannel.MapMode.READ_ONLY, 0, bodyStart));
+            Formula formula = headerParser.finish();
+
+            List<ChunkTask> tasks = new ArrayList<>();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE,
+                    Math.min(MAX_CHUNK_SIZE, (size - bodyStart) / (4L * pool.getParallelism()) + 1));
+            long chunkStart = bodyStart;
+            while (chunkStart < size) {
+                long chunkEnd = findLineEnd(channel, Math.min(size, chunkStart + chunkSize), size);
+                tasks.add(new ChunkTask(channel.map(FileChannel.MapMode.READ_ONLY, chunkStart,
+                        chunkEnd - chunkStart), formula.getNumberOfVariables()));
+                chunkStart = chunkEnd;
+            }
+            for (ChunkTask task : tasks) {
+                pool.execute(task);
+            }
+
+            merge(formula, tasks);
+            bytesParsed = size;
+            return formula;
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the last parsed file.
+     *
+     * @return Bytes number.
+     */
+    public long getBytesParsed() {
+        return bytesParsed;
+    }
+
+    /**
+     * Returns the duration of the last parse.
+     *
+     * @return Duration in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the throughput of the last parse.
+     *
+     * @return Throughput in megabytes per second.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : bytesParsed / 1e6 / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Appends the clauses of every chunk to the formula in file order, joining the clauses which span
+     * the end of a chunk. The chunks following an end of formula marker are ignored.
+     *
+     * @param formula The formula receiving the clauses.
+     * @param tasks   The parsed chunks, in file order.
+     */
+    private static void merge(Formula formula, List<ChunkTask> tasks) {
+        ClauseArena target = formula.getArena();
+        int[] buffer = new int[16];
+        int[] pending = new int[0];
+
+        for (ChunkTask task : tasks) {
+            Formula chunk = task.join();
+            ClauseArena source = chunk.getArena();
+            int first = 0;
+            if (pending.length > 0 && source.getNumberOfClauses() > 0) {
+                int[] joined = Arrays.copyOf(pending, pending.length + source.getSize(0));
+                for (int i = 0; i < source.getSize(0); i++) {
+                    joined[pending.length + i] = source.getLiteral(0, i);
+                }
+                formula.addClause(joined, 0, joined.length);
+                pending = new int[0];
+                first = 1;
+            }
+
+            for (int clause = first; clause < source.getNumberOfClauses(); clause++) {
+                int size = source.getSize(clause);
+                if (size > buffer.length) {
+                    buffer = new int[Math.max(size, 2 * buffer.length)];
+                }
+                for (int i = 0; i < size; i++) {
+                    buffer[i] = source.getLiteral(clause, i);
+                }
+                target.addClause(buffer, 0, size);
+            }
+
+            int[] tail = task.getPendingClause();
+            if (tail.length > 0) {
+                int[] joined = Arrays.copyOf(pending, pending.length + tail.length);
+                System.arraycopy(tail, 0, joined, pending.length, tail.length);
+                pending = joined;
+            }
+            if (task.isEnded()) {
+                break;
+            }
+        }
+
+        if (pending.length > 0) {
+            formula.addClause(pending, 0, pending.length);
+        }
+    }
+
+    /**
+     * Finds the position following the problem line.
+     *
+     * @param channel The file channel.
+     * @param size    The size of the file.
+     * @return The position of the first byte after the problem line.
+     * @throws IOException The file cannot be read.
+     */
+    private static long findBodyStart(FileChannel channel, long size) throws IOException {
+        long lineStart = 0;
+        while (lineStart < size) {
+            ByteBuffer first = ByteBuffer.allocate(1);
+            channel.read(first, lineStart);
+            long lineEnd = findLineEnd(channel, lineStart, size);
+            if (first.get(0) == 'p') {
+                return lineEnd;
+            }
+            lineStart = lineEnd;
+        }
+        return size;
+    }
+
+    /**
+     * Finds the position following the first new line character at or after a position.
+     *
+     * @param channel  The file channel.
+     * @param position The position where the search starts.
+     * @param size     The size of the file.
+     * @return The position after the new line, or the size of the file if there is none.
+     * @throws IOException The file cannot be read.
+     */
+    private static long findLineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Task parsing one chunk of the file into a formula of its own.
+     */
+    private static class ChunkTask extends RecursiveTask<Formula> {
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The bytes of the chunk.
+         */
+        private final MappedByteBuffer bytes;
+
+        /**
+         * Number of variables declared by the problem line.
+         */
+        private final int numberOfVariables;
+
+        /**
+         * The parser of the chunk, kept for reading the unterminated clause at the end of the chunk.
+         */
+        private DimacsParser parser;
+
+        /**
+         * Constructor.
+         *
+         * @param bytes             The bytes of the chunk.
+         * @param numberOfVariables Number of variables declared by the problem line.
+         */
+        ChunkTask(MappedByteBuffer bytes, int numberOfVariables) {
+            this.bytes = bytes;
+            this.numberOfVariables = numberOfVariables;
+        }
+
+        /**
+         * Parses the chunk. Every chunk but the last ends with a new line, so only the last one can end in
+         * the middle of a number, which is then flushed into the pending clause as at the end of a file.
+         *
+         * @return The formula holding the terminated clauses of the chunk.
+         */
+        @Override
+        protected Formula compute() {
+            Formula chunk = new Formula(numberOfVariables, new HeapClauseArena());
+            parser = new DimacsParser(chunk);
+            parser.feed(bytes);
+            parser.flush();
+            return chunk;
+        }
+
+        /**
+         * Returns the literals of the clause left unterminated at the end of the chunk.
+         *
+         * @return The encoded literals.
+         */
+        int[] getPendingClause() {
+            return parser.getPendingClause();
+        }
+
+        /**
+         * Returns if the chunk contains the end of formula marker.
+         *
+         * @return Has the formula ended in the chunk.
+         */
+        boolean isEnded() {
+            return parser.isEnded();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package algorithms.cnf.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads an input stream in blocks on a background thread.
+ * The blocks are handed to the consumer through a bounded queue, so reading and decompressing the input
+ * happens while the previous blocks are being parsed. Blocks are recycled once the consumer asks for the
+ * next one, so a whole file is read with a fixed number of buffers.
+ */
+public class PipelinedReader implements AutoCloseable {
+    /**
+     * Number of bytes of a block.
+     */
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    /**
+     * Number of blocks shared by the background thread and the consumer.
+     */
+    private static final int NUMBER_OF_BLOCKS = 4;
+
+    /**
+     * Marker block signalling the end of the input.
+     */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    /**
+     * Blocks filled by the background thread, in input order.
+     */
+    private final BlockingQueue<ByteBuffer> filled;
+
+    /**
+     * Blocks which can be filled again.
+     */
+    private final BlockingQueue<ByteBuffer> free;
+
+    /**
+     * The background thread reading the input.
+     */
+    private final Thread thread;
+
+    /**
+     * Failure of the background thread, reported to the consumer.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Block returned by the last call to {@link #next()}, recycled by the following call.
+     */
+    private ByteBuffer current;
+
+    /**
+     * Constructor. Starts reading the input immediately.
+     *
+     * @param input The stream being read. It is closed by the background thread at the end of input.
+     */
+    public PipelinedReader(InputStream input) {
+        filled = new ArrayBlockingQueue<>(NUMBER_OF_BLOCKS + 1);
+        free = new ArrayBlockingQueue<>(NUMBER_OF_BLOCKS);
+        for (int i = 0; i < NUMBER_OF_BLOCKS; i++) {
+            free.add(ByteBuffer.allocate(BLOCK_SIZE));
+        }
+
+        thread = new Thread(() -> readBlocks(input), "pipelined-reader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the next block of the input. The block returned by the previous call is recycled and must
+     * not be used anymore.
+     *
+     * @return The block, or null at the end of the input.
+     * @throws IOException The input cannot be read.
+     */
+    public ByteBuffer next() throws IOException {
+        if (current != null) {
+            current.clear();
+            free.add(current);
+            current = null;
+        }
+        try {
+            ByteBuffer block = filled.take();
+            if (block == END) {
+                filled.add(END);
+                if (failure != null) {
+                    throw failure;
+                }
+                return null;
+            }
+            current = block;
+            return block;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading the input.", e);
+        }
+    }
+
+    /**
+     * Stops the background thread if the input has not been read completely.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+
+    /**
+     * Body of the background thread: fills free blocks from the input until its end.
+     *
+     * @param input The stream being read.
+     */
+    private void readBlocks(InputStream input) {
+        try (InputStream stream = input) {
+            while (true) {
+                ByteBuffer block = free.take();
+                byte[] bytes = block.array();
+                int size = 0;
+                int read = 0;
+                while (size < bytes.length && (read = stream.read(bytes, size, bytes.length - size)) >= 0) {
+                    size += read;
+                }
+                if (size > 0) {
+                    block.limit(size);
+                    filled.put(block);
+                }
+                if (read < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        filled.add(END);
+    }
+}
@@ -0,0 +1,247 @@
+package algorithms.cubes;
+
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+import algorithms.portfolio.PortfolioMember;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cube-and-conquer solver: the formula is split into cubes by a {@link CubeGenerator}, and the cubes are
+ * solved in parallel on a work-stealing {@link ForkJoinPool}.
+ * The range of cubes is halved recursively into tasks, so idle threads steal large ranges from busy ones.
+ * Every thread of the pool owns a CDCL solver which solves its cubes one after the other as assumptions,
+ * keeping its learned clauses from one cube to the next. The first satisfiable cube cancels the remaining
+ * work, and so does a proof that the formula itself is unsatisfiable.
+ */
+public class CubeAndConquerSolver implements PortfolioMember {
+    /**
+     * The formula in Conjunctive Normal Form.
+     */
+    private final Formula formula;
+
+    /**
+     * The configuration of the solvers of the cubes.
+     */
+    private final SolverConfiguration configuration;
+
+    /**
+     * The pool running the cubes.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Number of split decisions of a cube.
+     */
+    private final int depth;
+
+    /**
+     * The solvers created by the threads of the pool during the current search.
+     */
+    private final List<CDCLSolver> solvers;
+
+    /**
+     * The solver of every thread of the pool during the current search.
+     */
+    private ThreadLocal<CDCLSolver> threadSolver;
+
+    /**
+     * The satisfying assignment found, null before.
+     */
+    private final AtomicReference<boolean[]> model;
+
+    /**
+     * Set when a solver proves the formula unsatisfiable whatever the cube.
+     */
+    private volatile boolean refuted;
+
+    /**
+     * Set when the remaining cubes no longer have to be solved.
+     */
+    private volatile boolean finished;
+
+    /**
+     * Set when the search is cancelled from outside.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Number of cubes of the last search.
+     */
+    private int numberOfCubes;
+
+    /**
+     * Constructor using the common pool, the default configuration and the default cube depth.
+     *
+     * @param formula The formula in Conjunctive Normal Form.
+     */
+    public CubeAndConquerSolver(Formula formula) {
+        this(formula, new SolverConfiguration(), ForkJoinPool.commonPool(), CubeGenerator.DEFAULT_DEPTH);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param configuration The configuration of the solvers of the cubes.
+     * @param pool          The pool running the cubes.
+     * @param depth         Number of split decisions of a cube; at most 2^depth cubes are generated.
+     */
+    public CubeAndConquerSolver(Formula formula, SolverConfiguration configuration, ForkJoinPool pool, int depth) {
+        this.formula = formula;
+        this.configuration = configuration;
+        this.pool = pool;
+        this.depth = depth;
+        solvers = Collections.synchronizedList(new ArrayList<>());
+        model = new AtomicReference<>();
+    }
+
+    /**
+     * Splits the formula into cubes and solves them until one is satisfiable or all are refuted.
+     *
+     * @return The outcome of the search, {@link SolverResult#UNKNOWN} if it was cancelled.
+     */
+    @Override
+    public SolverResult solve() {
+        model.set(null);
+        refuted = false;
+        finished = false;
+        solvers.clear();
+        threadSolver = ThreadLocal.withInitial(this::createSolver);
+
+        List<int[]> cubes = new CubeGenerator(formula, depth, CubeGenerator.DEFAULT_CANDIDATES).generate();
+        numberOfCubes = cubes.size();
+        if (!cubes.isEmpty() && !cancelled) {
+            pool.invoke(new CubeTask(cubes, 0, cubes.size()));
+        }
+        threadSolver = null;
+
+        if (model.get() != null) {
+            return SolverResult.SATISFIABLE;
+        }
+        return cancelled && !refuted ? SolverResult.UNKNOWN : SolverResult.UNSATISFIABLE;
+    }
+
+    /**
+     * Returns the satisfying assignment found by the last successful search.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    @Override
+    public boolean[] getModel() {
+        return model.get();
+    }
+
+    /**
+     * Asks the search to stop. Can be called from any thread.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        finish();
+    }
+
+    /**
+     * Returns the number of cubes generated by the last search.
+     *
+     * @return Cubes number.
+     */
+    public int getNumberOfCubes() {
+        return numberOfCubes;
+    }
+
+    /**
+     * Creates the solver of a thread of the pool.
+     *
+     * @return The solver.
+     */
+    private CDCLSolver createSolver() {
+        CDCLSolver solver = new CDCLSolver(formula, configuration);
+        solvers.add(solver);
+        if (finished) {
+            solver.cancel();
+        }
+        return solver;
+    }
+
+    /**
+     * Stops the remaining work and cancels every solver.
+     */
+    private void finish() {
+        finished = true;
+        synchronized (solvers) {
+            for (CDCLSolver solver : solvers) {
+                solver.cancel();
+            }
+        }
+    }
+
+    /**
+     * Task solving a range of cubes, split in halves until a single cube remains.
+     */
+    private class CubeTask extends RecursiveAction {
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The cubes of the search.
+         */
+        private final List<int[]> cubes;
+
+        /**
+         * Index of the first cube of the range.
+         */
+        private final int from;
+
+        /**
+         * Index after the last cube of the range.
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param cubes The cubes of the search.
+         * @param from  Index of the first cube of the range.
+         * @param to    Index after the last cube of the range.
+         */
+        CubeTask(List<int[]> cubes, int from, int to) {
+            this.cubes = cubes;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Solves the range of cubes.
+         */
+        @Override
+        protected void compute() {
+            if (finished) {
+                return;
+            }
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CubeTask(cubes, from, middle), new CubeTask(cubes, middle, to));
+                return;
+            }
+
+            CDCLSolver solver = threadSolver.get();
+            SolverResult result = solver.solve(cubes.get(from));
+            if (result == SolverResult.SATISFIABLE && model.compareAndSet(null, solver.getModel())) {
+                finish();
+            } else if (result == SolverResult.UNSATISFIABLE && solver.isUnsatisfiable()) {
+                refuted = true;
+                finish();
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package algorithms.cubes;
+
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.Trail;
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lookahead splitting of a formula into cubes, the first phase of cube-and-conquer.
+ * A cube is a conjunction of literals, used as the assumptions of a solver. The formula is split
+ * recursively on the variable whose two values propagate the most: for every candidate variable both
+ * literals are assumed in turn and the number of implied assignments is measured, and the variable with
+ * the largest product is chosen, so both halves of the split are simplified. A literal whose assumption
+ * leads to a conflict is failed, and its negation is added to the current cube; when both literals of a
+ * variable fail the cube is refuted and dropped. The cubes cover every assignment not refuted, so the
+ * formula is satisfiable exactly when one of the cubes is.
+ */
+public class CubeGenerator {
+    /**
+     * Default number of decisions of a cube, for up to 4096 cubes.
+     */
+    public static final int DEFAULT_DEPTH = 12;
+
+    /**
+     * Default number of variables tried at every split.
+     */
+    public static final int DEFAULT_CANDIDATES = 32;
+
+    /**
+     * The solver used for propagating the assumptions.
+     */
+    private final CDCLSolver solver;
+
+    /**
+     * The variables in decreasing number of occurrences, in which order the candidates are taken.
+     */
+    private final int[] variables;
+
+    /**
+     * Number of split decisions of a cube.
+     */
+    private final int maximumDepth;
+
+    /**
+     * Number of variables tried at every split.
+     */
+    private final int numberOfCandidates;
+
+    /**
+     * The literals of the cube being built.
+     */
+    private int[] path;
+
+    /**
+     * Number of literals of the cube being built.
+     */
+    private int pathSize;
+
+    /**
+     * The generated cubes.
+     */
+    private List<int[]> cubes;
+
+    /**
+     * Constructor using the default depth and number of candidates.
+     *
+     * @param formula The formula in Conjunctive Normal Form.
+     */
+    public CubeGenerator(Formula formula) {
+        this(formula, DEFAULT_DEPTH, DEFAULT_CANDIDATES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula            The formula in Conjunctive Normal Form.
+     * @param maximumDepth       Number of split decisions of a cube; at most 2^depth cubes are generated.
+     * @param numberOfCandidates Number of variables tried at every split.
+     */
+    public CubeGenerator(Formula formula, int maximumDepth, int numberOfCandidates) {
+        this.maximumDepth = maximumDepth;
+        this.numberOfCandidates = numberOfCandidates;
+        solver = new CDCLSolver(formula);
+
+        int numberOfVariables = formula.getNumberOfVariables();
+        ClauseArena arena = formula.getArena();
+        long[] keys = new long[numberOfVariables];
+        int[] occurrences = new int[numberOfVariables + 1];
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
+            for (int i = 0; i < arena.getSize(clause); i++) {
+                occurrences[arena.getLiteral(clause, i) >> 1]++;
+            }
+        }
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            keys[variable - 1] = ((long) -occurrences[variable] << 32) | variable;
+        }
+        Arrays.sort(keys);
+        variables = new int[numberOfVariables];
+        for (int i = 0; i < numberOfVariables; i++) {
+            variables[i] = (int) keys[i];
+        }
+        path = new int[16];
+    }
+
+    /**
+     * Splits the formula into cubes.
+     *
+     * @return The cubes, each holding encoded literals. The list is empty if the formula is found
+     * unsatisfiable during the lookahead.
+     */
+    public List<int[]> generate() {
+        cubes = new ArrayList<>();
+        pathSize = 0;
+        solver.backtrack(0);
+        if (solver.propagateAssignments()) {
+            split(0);
+        }
+        return cubes;
+    }
+
+    /**
+     * Splits the current cube, whose literals are assigned and propagated, or emits it when it has reached
+     * the maximum depth.
+     *
+     * @param depth Number of split decisions of the current cube.
+     */
+    private void split(int depth) {
+        int level = solver.getDecisionLevel();
+        int size = pathSize;
+        int literal = depth < maximumDepth ? lookahead() : 0;
+        if (literal < 0) {
+            restore(level, size);
+            return;
+        }
+        if (literal == 0) {
+            cubes.add(Arrays.copyOf(path, pathSize));
+            restore(level, size);
+            return;
+        }
+
+        int branchLevel = solver.getDecisionLevel();
+        int branchSize = pathSize;
+        for (int branch : new int[]{literal, literal ^ 1}) {
+            push(branch);
+            if (solver.assume(branch)) {
+                split(depth + 1);
+            }
+            restore(branchLevel, branchSize);
+        }
+        restore(level, size);
+    }
+
+    /**
+     * Chooses the split literal of the current cube. Failed literals found on the way are negated and
+     * added to the cube, at decision levels of their own.
+     *
+     * @return The split literal, 0 if every variable is assigned, or -1 if the cube is refuted.
+     */
+    private int lookahead() {
+        while (true) {
+            int level = solver.getDecisionLevel();
+            int assigned = solver.getNumberOfAssignments();
+            int best = 0;
+            long bestScore = -1;
+            int forced = 0;
+            int tried = 0;
+            for (int i = 0; i < variables.length && tried < numberOfCandidates; i++) {
+                int variable = variables[i];
+                if (solver.getValue(2 * variable) != Trail.UNASSIGNED) {
+                    continue;
+                }
+                tried++;
+                long positive = probe(2 * variable, level, assigned);
+                long negative = probe(2 * variable + 1, level, assigned);
+                if (positive < 0 && negative < 0) {
+                    return -1;
+                } else if (positive < 0 || negative < 0) {
+                    forced = positive < 0 ? 2 * variable + 1 : 2 * variable;
+                    break;
+                }
+                long score = positive * negative + positive + negative;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = positive >= negative ? 2 * variable : 2 * variable + 1;
+                }
+            }
+
+            if (forced == 0) {
+                return best;
+            }
+            push(forced);
+            if (!solver.assume(forced)) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Assumes a literal, measures its consequences and undoes it.
+     *
+     * @param literal  The encoded literal.
+     * @param level    The current decision level.
+     * @param assigned The current number of assigned variables.
+     * @return The number of assignments implied by the literal, or -1 if it leads to a conflict.
+     */
+    private long probe(int literal, int level, int assigned) {
+        boolean consistent = solver.assume(literal);
+        long implied = solver.getNumberOfAssignments() - assigned - 1;
+        solver.backtrack(level);
+        return consistent ? implied : -1;
+    }
+
+    /**
+     * Appends a literal to the current cube.
+     *
+     * @param literal The encoded literal.
+     */
+    private void push(int literal) {
+        if (pathSize == path.length) {
+            path = Arrays.copyOf(path, 2 * pathSize);
+        }
+        path[pathSize++] = literal;
+    }
+
+    /**
+     * Returns the solver and the current cube to an earlier state.
+     *
+     * @param level The decision level to return to.
+     * @param size  The number of literals of the cube to keep.
+     */
+    private void restore(int level, int size) {
+        solver.backtrack(level);
+        pathSize = size;
+    }
+}
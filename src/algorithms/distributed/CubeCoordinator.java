@@ -0,0 +1,374 @@
+package algorithms.distributed;
+
+import algorithms.SATUtils;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Coordinator of a cube-and-conquer search spread over several solver processes.
+ * Workers connect to the server socket of the coordinator, receive the formula and are then handed one
+ * cube at a time. A worker whose connection breaks, which sends an invalid model, or from which nothing,
+ * not even a heartbeat, arrives within the timeout, is dropped and its cube goes back to the front of the
+ * queue, so a dead worker delays the search but does not lose cubes.
+ * The search ends at the first satisfiable cube, when a worker proves the formula unsatisfiable, or when
+ * every cube is refuted; the connected workers are then told to stop, interrupting the cube they solve.
+ * <p>
+ * Each connection is served by a thread of its own blocking on the socket, which is enough for the tens
+ * of workers a coordinator is meant for.
+ */
+public class CubeCoordinator {
+    /**
+     * Default number of milliseconds without any message after which a worker solving a cube is dropped.
+     */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 10 * CubeProtocol.HEARTBEAT_INTERVAL_MILLIS;
+
+    /**
+     * The formula in Conjunctive Normal Form.
+     */
+    private final Formula formula;
+
+    /**
+     * The cubes of the search.
+     */
+    private final List<int[]> cubes;
+
+    /**
+     * Number of milliseconds without any message after which a worker solving a cube is dropped.
+     */
+    private final int timeoutMillis;
+
+    /**
+     * Numbers of the cubes not handed out yet.
+     */
+    private final Deque<Integer> pending;
+
+    /**
+     * Number of cubes without an outcome.
+     */
+    private int unresolved;
+
+    /**
+     * The outcome of the search, null while it runs.
+     */
+    private SolverResult result;
+
+    /**
+     * The satisfying assignment found, null before.
+     */
+    private boolean[] model;
+
+    /**
+     * The open connections to workers.
+     */
+    private final List<Connection> connections;
+
+    /**
+     * Number of workers which connected.
+     */
+    private int numberOfWorkers;
+
+    /**
+     * Number of cubes handed out again after their worker was dropped.
+     */
+    private int numberOfReassignedCubes;
+
+    /**
+     * Constructor using the default timeout.
+     *
+     * @param formula The formula in Conjunctive Normal Form.
+     * @param cubes   The cubes covering the formula, usually generated by a
+     *                {@link algorithms.cubes.CubeGenerator}.
+     */
+    public CubeCoordinator(Formula formula, List<int[]> cubes) {
+        this(formula, cubes, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula       The formula in Conjunctive Normal Form.
+     * @param cubes         The cubes covering the formula, usually generated by a
+     *                      {@link algorithms.cubes.CubeGenerator}.
+     * @param timeoutMillis Number of milliseconds without any message after which a worker solving a cube
+     *                      is dropped, at least twice {@link CubeProtocol#HEARTBEAT_INTERVAL_MILLIS} so that
+     *                      a late heartbeat does not drop a worker.
+     * @throws IllegalArgumentException The timeout is shorter than two heartbeat intervals.
+     */
+    public CubeCoordinator(Formula formula, List<int[]> cubes, int timeoutMillis) {
+        if (timeoutMillis < 2 * CubeProtocol.HEARTBEAT_INTERVAL_MILLIS) {
+            throw new IllegalArgumentException("The timeout of " + timeoutMillis + " ms is shorter than two "
+                    + "heartbeat intervals.");
+        }
+        this.formula = formula;
+        this.cubes = cubes;
+        this.timeoutMillis = timeoutMillis;
+        pending = new ArrayDeque<>();
+        for (int cube = 0; cube < cubes.size(); cube++) {
+            pending.add(cube);
+        }
+        unresolved = cubes.size();
+        connections = new ArrayList<>();
+    }
+
+    /**
+     * Accepts workers on the server socket and hands them cubes until the search is over. The socket is
+     * closed before returning.
+     *
+     * @param server The server socket the workers connect to.
+     * @return The outcome of the search.
+     * @throws InterruptedException The thread was interrupted while waiting for the workers.
+     */
+    public SolverResult run(ServerSocket server) throws InterruptedException {
+        Thread acceptor = new Thread(() -> accept(server), "cube-coordinator-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        List<Connection> open;
+        try {
+            synchronized (this) {
+                if (unresolved == 0) {
+                    result = SolverResult.UNSATISFIABLE;
+                }
+                while (result == null) {
+                    wait();
+                }
+                open = new ArrayList<>(connections);
+            }
+        } finally {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // The acceptor stops either way.
+            }
+        }
+        for (Connection connection : open) {
+            connection.stop();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the satisfying assignment found by the search.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    public synchronized boolean[] getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the number of workers which connected to the coordinator.
+     *
+     * @return Workers number.
+     */
+    public synchronized int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    /**
+     * Returns the number of cubes handed out again after their worker was dropped.
+     *
+     * @return Reassigned cubes number.
+     */
+    public synchronized int getNumberOfReassignedCubes() {
+        return numberOfReassignedCubes;
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, serving each one on a new thread.
+     *
+     * @param server The server socket.
+     */
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return;
+            }
+            Connection connection = new Connection(socket);
+            int number;
+            synchronized (this) {
+                connections.add(connection);
+                number = ++numberOfWorkers;
+            }
+            Thread thread = new Thread(connection, "cube-coordinator-worker-" + number);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Waits for a cube to hand out. Cubes of dropped workers may come back while others are solved.
+     *
+     * @return The number of the cube, or -1 if the search is over.
+     * @throws InterruptedException The thread was interrupted while waiting.
+     */
+    private synchronized int takeCube() throws InterruptedException {
+        while (result == null && pending.isEmpty()) {
+            wait();
+        }
+        return result == null ? pending.poll() : -1;
+    }
+
+    /**
+     * Puts back the cube of a dropped worker.
+     *
+     * @param cube The number of the cube.
+     */
+    private synchronized void release(int cube) {
+        pending.addFirst(cube);
+        numberOfReassignedCubes++;
+        notifyAll();
+    }
+
+    /**
+     * Records the outcome of a cube.
+     *
+     * @param cube    The number of the cube.
+     * @param outcome The outcome, one of the outcome constants of {@link CubeProtocol}.
+     * @param model   The satisfying assignment of a satisfiable cube.
+     */
+    private synchronized void complete(int cube, byte outcome, boolean[] model) {
+        if (result != null) {
+            return;
+        }
+        if (outcome == CubeProtocol.SATISFIABLE) {
+            this.model = model;
+            result = SolverResult.SATISFIABLE;
+        } else if (outcome == CubeProtocol.REFUTED) {
+            result = SolverResult.UNSATISFIABLE;
+        } else if (outcome == CubeProtocol.UNSATISFIABLE) {
+            if (--unresolved == 0) {
+                result = SolverResult.UNSATISFIABLE;
+            }
+        } else {
+            pending.addFirst(cube);
+        }
+        notifyAll();
+    }
+
+    /**
+     * The connection to a worker.
+     */
+    private class Connection implements Runnable {
+        /**
+         * The socket of the connection.
+         */
+        private final Socket socket;
+
+        /**
+         * The stream to the worker, null before the connection is served.
+         */
+        private DataOutputStream output;
+
+        /**
+         * Set once the worker has been told to stop.
+         */
+        private boolean stopSent;
+
+        /**
+         * Constructor.
+         *
+         * @param socket The socket of the connection.
+         */
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        /**
+         * Sends the formula, then hands out cubes and collects their outcome until the search is over or
+         * the connection breaks. The heartbeats received while a cube is solved are skipped, and a read
+         * timing out drops the worker like a broken connection.
+         */
+        @Override
+        public void run() {
+            int cube = -1;
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setKeepAlive(true);
+                socket.setSoTimeout(timeoutMillis);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                synchronized (this) {
+                    output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                    CubeProtocol.writeFormula(output, formula);
+                    output.flush();
+                }
+
+                while ((cube = takeCube()) >= 0) {
+                    synchronized (this) {
+                        if (stopSent) {
+                            break;
+                        }
+                        CubeProtocol.writeCube(output, cube, cubes.get(cube));
+                        output.flush();
+                    }
+
+                    byte type = input.readByte();
+                    while (type == CubeProtocol.HEARTBEAT) {
+                        type = input.readByte();
+                    }
+                    if (type != CubeProtocol.RESULT || input.readInt() != cube) {
+                        throw new IOException("Unexpected message from the worker.");
+                    }
+                    byte outcome = input.readByte();
+                    boolean[] assignment = null;
+                    if (outcome == CubeProtocol.SATISFIABLE) {
+                        assignment = CubeProtocol.readModel(input, formula.getNumberOfVariables());
+                        if (!SATUtils.checkAssignment(formula, assignment)) {
+                            throw new IOException("The worker sent an assignment which does not satisfy the formula.");
+                        }
+                    }
+                    complete(cube, outcome, assignment);
+                    cube = -1;
+                }
+                stop();
+            } catch (IOException e) {
+                if (cube >= 0) {
+                    release(cube);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                synchronized (CubeCoordinator.this) {
+                    connections.remove(this);
+                }
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // The worker is dropped either way.
+                }
+            }
+        }
+
+        /**
+         * Tells the worker to stop, interrupting the cube it solves. Can be called from any thread; before
+         * the formula is sent it does nothing, since the connection thread stops the worker itself.
+         */
+        synchronized void stop() {
+            if (stopSent || output == null) {
+                return;
+            }
+            stopSent = true;
+            try {
+                output.writeByte(CubeProtocol.STOP);
+                output.flush();
+            } catch (IOException ignored) {
+                // A worker which cannot be reached has stopped already.
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package algorithms.distributed;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Messages exchanged between a {@link CubeCoordinator} and its {@link CubeWorker}s over a socket.
+ * Every message starts with a one byte type followed by big-endian ints:
+ * <ul>
+ * <li>{@link #FORMULA}, coordinator to worker: number of variables, number of clauses, then the size and
+ * the encoded literals of every clause. Sent once, first.</li>
+ * <li>{@link #CUBE}, coordinator to worker: cube number, size, encoded literals.</li>
+ * <li>{@link #RESULT}, worker to coordinator: cube number, outcome, and for {@link #SATISFIABLE} the model
+ * packed in ints of 32 variables.</li>
+ * <li>{@link #STOP}, coordinator to worker: no payload. Sent when the search is over, also while the
+ * worker is solving a cube.</li>
+ * <li>{@link #HEARTBEAT}, worker to coordinator: no payload. Sent every
+ * {@link #HEARTBEAT_INTERVAL_MILLIS} milliseconds from the moment the worker connects, also while it reads
+ * the formula and builds its solver, so the coordinator can tell a worker which is still busy from one
+ * which hangs or cannot be reached any more.</li>
+ * </ul>
+ */
+public class CubeProtocol {
+    /**
+     * Type of the message carrying the formula.
+     */
+    public static final byte FORMULA = 1;
+
+    /**
+     * Type of the message carrying a cube.
+     */
+    public static final byte CUBE = 2;
+
+    /**
+     * Type of the message carrying the outcome of a cube.
+     */
+    public static final byte RESULT = 3;
+
+    /**
+     * Type of the message ending the work of a worker.
+     */
+    public static final byte STOP = 4;
+
+    /**
+     * Type of the message telling the coordinator that the worker is alive.
+     */
+    public static final byte HEARTBEAT = 5;
+
+    /**
+     * Number of milliseconds between two heartbeats of a worker.
+     */
+    public static final int HEARTBEAT_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Outcome of a satisfiable cube.
+     */
+    public static final byte SATISFIABLE = 0;
+
+    /**
+     * Outcome of an unsatisfiable cube.
+     */
+    public static final byte UNSATISFIABLE = 1;
+
+    /**
+     * Outcome of a cube whose search proved the formula itself unsatisfiable.
+     */
+    public static final byte REFUTED = 2;
+
+    /**
+     * Outcome of a cube whose search was cancelled.
+     */
+    public static final byte UNKNOWN = 3;
+
+    /**
+     * Writes a formula message.
+     *
+     * @param output  The stream to the worker.
+     * @param formula The formula.
+     * @throws IOException The message cannot be written.
+     */
+    public static void writeFormula(DataOutputStream output, Formula formula) throws IOException {
+        ClauseArena arena = formula.getArena();
+        output.writeByte(FORMULA);
+        output.writeInt(formula.getNumberOfVariables());
+        output.writeInt(arena.getNumberOfClauses());
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
+            output.writeInt(arena.getSize(clause));
+            for (int i = 0; i < arena.getSize(clause); i++) {
+                output.writeInt(arena.getLiteral(clause, i));
+            }
+        }
+    }
+
+    /**
+     * Reads the payload of a formula message.
+     *
+     * @param input The stream from the coordinator.
+     * @return The formula.
+     * @throws IOException The message cannot be read.
+     */
+    public static Formula readFormula(DataInputStream input) throws IOException {
+        Formula formula = new Formula(input.readInt());
+        int numberOfClauses = input.readInt();
+        int[] literals = new int[16];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int size = input.readInt();
+            if (size > literals.length) {
+                literals = new int[Math.max(size, 2 * literals.length)];
+            }
+            for (int i = 0; i < size; i++) {
+                literals[i] = input.readInt();
+            }
+            formula.addClause(literals, 0, size);
+        }
+        return formula;
+    }
+
+    /**
+     * Writes a cube message.
+     *
+     * @param output The stream to the worker.
+     * @param number The number of the cube.
+     * @param cube   The encoded literals of the cube.
+     * @throws IOException The message cannot be written.
+     */
+    public static void writeCube(DataOutputStream output, int number, int[] cube) throws IOException {
+        output.writeByte(CUBE);
+        output.writeInt(number);
+        writeInts(output, cube);
+    }
+
+    /**
+     * Writes a result message.
+     *
+     * @param output  The stream to the coordinator.
+     * @param number  The number of the cube.
+     * @param outcome The outcome of the cube.
+     * @param model   The satisfying assignment for a satisfiable cube, null otherwise.
+     * @throws IOException The message cannot be written.
+     */
+    public static void writeResult(DataOutputStream output, int number, byte outcome, boolean[] model)
+            throws IOException {
+        output.writeByte(RESULT);
+        output.writeInt(number);
+        output.writeByte(outcome);
+        if (outcome == SATISFIABLE) {
+            int[] packed = new int[(model.length + 31) / 32];
+            for (int i = 0; i < model.length; i++) {
+                if (model[i]) {
+                    packed[i >> 5] |= 1 << (i & 31);
+                }
+            }
+            writeInts(output, packed);
+        }
+    }
+
+    /**
+     * Reads a packed model following a satisfiable outcome.
+     *
+     * @param input             The stream from the worker.
+     * @param numberOfVariables Number of variables of the formula.
+     * @return The value of every variable, the variable i being at index i - 1.
+     * @throws IOException The model cannot be read or has the wrong size.
+     */
+    public static boolean[] readModel(DataInputStream input, int numberOfVariables) throws IOException {
+        int[] packed = readInts(input);
+        if (packed.length != (numberOfVariables + 31) / 32) {
+            throw new IOException("The model has " + packed.length + " words instead of "
+                    + (numberOfVariables + 31) / 32 + ".");
+        }
+        boolean[] model = new boolean[numberOfVariables];
+        for (int i = 0; i < numberOfVariables; i++) {
+            model[i] = (packed[i >> 5] & (1 << (i & 31))) != 0;
+        }
+        return model;
+    }
+
+    /**
+     * Writes an array of ints preceded by its length.
+     *
+     * @param output The stream.
+     * @param values The ints.
+     * @throws IOException The ints cannot be written.
+     */
+    public static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads an array of ints preceded by its length.
+     *
+     * @param input The stream.
+     * @return The ints.
+     * @throws IOException The ints cannot be read.
+     */
+    public static int[] readInts(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Negative length " + length + ".");
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+}
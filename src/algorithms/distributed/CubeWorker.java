@@ -0,0 +1,179 @@
+package algorithms.distributed;
+
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Worker of a distributed cube-and-conquer search, solving the cubes handed out by a
+ * {@link CubeCoordinator}. A single CDCL solver solves all cubes as assumptions, keeping its learned
+ * clauses from one cube to the next. The messages of the coordinator are read on a thread of their own,
+ * so a stop message cancels the cube being solved, and another thread sends heartbeats to the coordinator
+ * from the moment the worker connects, so that reading a large formula and building the solver do not
+ * count as silence.
+ */
+public class CubeWorker {
+    /**
+     * The host of the coordinator.
+     */
+    private final String host;
+
+    /**
+     * The port of the coordinator.
+     */
+    private final int port;
+
+    /**
+     * The configuration of the solver.
+     */
+    private final SolverConfiguration configuration;
+
+    /**
+     * Constructor.
+     *
+     * @param host          The host of the coordinator.
+     * @param port          The port of the coordinator.
+     * @param configuration The configuration of the solver.
+     */
+    public CubeWorker(String host, int port, SolverConfiguration configuration) {
+        this.host = host;
+        this.port = port;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Connects to the coordinator and solves cubes until told to stop or disconnected.
+     *
+     * @return The number of cubes solved.
+     * @throws IOException The coordinator cannot be reached or breaks the protocol.
+     */
+    public int run() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Thread heartbeat = new Thread(() -> beat(output), "cube-worker-heartbeat");
+            heartbeat.setDaemon(true);
+            heartbeat.start();
+
+            try {
+                if (input.readByte() != CubeProtocol.FORMULA) {
+                    throw new IOException("The coordinator did not send the formula first.");
+                }
+                Formula formula = CubeProtocol.readFormula(input);
+                CDCLSolver solver = new CDCLSolver(formula, configuration);
+
+                BlockingQueue<int[]> cubes = new LinkedBlockingQueue<>();
+                Thread reader = new Thread(() -> read(input, solver, cubes), "cube-worker-reader");
+                reader.setDaemon(true);
+                reader.start();
+                return solve(solver, cubes, output);
+            } finally {
+                heartbeat.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Solves the queued cubes and sends their outcome until the queue holds an empty array.
+     *
+     * @param solver The solver of the cubes.
+     * @param cubes  The queue of cubes to solve.
+     * @param output The stream to the coordinator.
+     * @return The number of cubes solved.
+     * @throws IOException The outcome cannot be sent.
+     */
+    private static int solve(CDCLSolver solver, BlockingQueue<int[]> cubes, DataOutputStream output)
+            throws IOException {
+        int solved = 0;
+        while (true) {
+            int[] message;
+            try {
+                message = cubes.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return solved;
+            }
+            if (message.length == 0) {
+                return solved;
+            }
+
+            int[] cube = new int[message.length - 1];
+            System.arraycopy(message, 1, cube, 0, cube.length);
+            SolverResult result = solver.solve(cube);
+            byte outcome;
+            if (result == SolverResult.SATISFIABLE) {
+                outcome = CubeProtocol.SATISFIABLE;
+            } else if (result == SolverResult.UNSATISFIABLE) {
+                outcome = solver.isUnsatisfiable() ? CubeProtocol.REFUTED : CubeProtocol.UNSATISFIABLE;
+            } else {
+                outcome = CubeProtocol.UNKNOWN;
+            }
+            synchronized (output) {
+                CubeProtocol.writeResult(output, message[0], outcome,
+                        outcome == CubeProtocol.SATISFIABLE ? solver.getModel() : null);
+                output.flush();
+            }
+            solved++;
+        }
+    }
+
+    /**
+     * Sends a heartbeat to the coordinator every {@link CubeProtocol#HEARTBEAT_INTERVAL_MILLIS}
+     * milliseconds until interrupted or disconnected.
+     *
+     * @param output The stream to the coordinator, shared with the outcomes of the cubes.
+     */
+    private static void beat(DataOutputStream output) {
+        try {
+            while (true) {
+                synchronized (output) {
+                    output.writeByte(CubeProtocol.HEARTBEAT);
+                    output.flush();
+                }
+                Thread.sleep(CubeProtocol.HEARTBEAT_INTERVAL_MILLIS);
+            }
+        } catch (InterruptedException | IOException e) {
+            // The worker is stopping or the connection is broken.
+        }
+    }
+
+    /**
+     * Reads the messages of the coordinator. Cubes are queued with their number in front; a stop message
+     * or a broken connection cancels the solver and queues an empty array.
+     *
+     * @param input  The stream from the coordinator.
+     * @param solver The solver of the cubes.
+     * @param cubes  The queue of cubes to solve.
+     */
+    private static void read(DataInputStream input, CDCLSolver solver, BlockingQueue<int[]> cubes) {
+        try {
+            while (true) {
+                byte type = input.readByte();
+                if (type != CubeProtocol.CUBE) {
+                    break;
+                }
+                int number = input.readInt();
+                int[] literals = CubeProtocol.readInts(input);
+                int[] message = new int[literals.length + 1];
+                message[0] = number;
+                System.arraycopy(literals, 0, message, 1, literals.length);
+                cubes.add(message);
+            }
+        } catch (IOException e) {
+            // A broken connection stops the worker like a stop message.
+        }
+        solver.cancel();
+        cubes.add(new int[0]);
+    }
+}
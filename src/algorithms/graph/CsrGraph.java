@@ -0,0 +1,189 @@
+package algorithms.graph;
+
+/**
+ * Directed graph over the int vertices 0..n-1 stored in Compressed Sparse Row form.
+ * The destinations of the edges leaving vertex v are {@code targets[offsets[v]..offsets[v + 1] - 1]},
+ * so the whole graph is held in two int arrays. The Strongly Connected Components are computed by an
+ * iterative Tarjan's algorithm with explicit stacks, which neither recurses nor allocates per vertex and
+ * therefore handles graphs with very long paths.
+ */
+public class CsrGraph {
+    /**
+     * Index in the targets array of the first edge of every vertex, followed by the number of edges.
+     */
+    private final int[] offsets;
+
+    /**
+     * Destinations of the edges, grouped by source vertex.
+     */
+    private final int[] targets;
+
+    /**
+     * Number of Strongly Connected Components found by the last computation.
+     */
+    private int numberOfStronglyConnectedComponents;
+
+    /**
+     * Constructor.
+     *
+     * @param offsets Index of the first edge of every vertex, followed by the number of edges.
+     * @param targets Destinations of the edges, grouped by source vertex.
+     */
+    public CsrGraph(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Creates a graph from a list of edges.
+     *
+     * @param numberOfVertices Number of vertices.
+     * @param sources          Source vertex of every edge.
+     * @param destinations     Destination vertex of every edge.
+     * @param numberOfEdges    Number of edges, read from the start of the arrays.
+     * @return The graph.
+     */
+    public static CsrGraph fromEdges(int numberOfVertices, int[] sources, int[] destinations, int numberOfEdges) {
+        int[] offsets = new int[numberOfVertices + 1];
+        for (int i = 0; i < numberOfEdges; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (int v = 0; v < numberOfVertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] next = new int[numberOfVertices];
+        System.arraycopy(offsets, 0, next, 0, numberOfVertices);
+        int[] targets = new int[numberOfEdges];
+        for (int i = 0; i < numberOfEdges; i++) {
+            targets[next[sources[i]]++] = destinations[i];
+        }
+        return new CsrGraph(offsets, targets);
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return Vertices number.
+     */
+    public int getNumberOfVertices() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return Edges number.
+     */
+    public int getNumberOfEdges() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * Returns the index in the targets array of the first edge leaving a vertex.
+     *
+     * @param vertex The vertex.
+     * @return Index of the first edge.
+     */
+    public int getFirstEdge(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * Returns the index in the targets array following the last edge leaving a vertex.
+     *
+     * @param vertex The vertex.
+     * @return Index after the last edge.
+     */
+    public int getEndEdge(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the destination of an edge.
+     *
+     * @param edge Index of the edge in the targets array.
+     * @return The destination vertex.
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Performs Tarjan's Strongly Connected Components Algorithm on the graph.
+     * The components are numbered in the order in which they are completed, which is a reverse
+     * topological order: no edge leads from a component to a component with a greater number.
+     *
+     * @return The component of every vertex.
+     */
+    public int[] getStronglyConnectedComponents() {
+        int n = getNumberOfVertices();
+        int[] component = new int[n];
+        int[] index = new int[n];
+        int[] lowLink = new int[n];
+        int[] nextEdge = new int[n];
+        int[] componentStack = new int[n];
+        int[] callStack = new int[n];
+        int componentStackSize = 0;
+        int callStackSize = 0;
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            index[root] = lowLink[root] = ++counter;
+            nextEdge[root] = offsets[root];
+            componentStack[componentStackSize++] = root;
+            callStack[callStackSize++] = root;
+
+            while (callStackSize > 0) {
+                int vertex = callStack[callStackSize - 1];
+                if (nextEdge[vertex] < offsets[vertex + 1]) {
+                    int target = targets[nextEdge[vertex]++];
+                    if (index[target] == 0) {
+                        index[target] = lowLink[target] = ++counter;
+                        nextEdge[target] = offsets[target];
+                        componentStack[componentStackSize++] = target;
+                        callStack[callStackSize++] = target;
+                    } else if (component[target] == 0 && index[target] < lowLink[vertex]) {
+                        lowLink[vertex] = index[target];
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (lowLink[vertex] == index[vertex]) {
+                    components++;
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        component[member] = components;
+                    } while (member != vertex);
+                }
+                if (callStackSize > 0) {
+                    int parent = callStack[callStackSize - 1];
+                    if (lowLink[vertex] < lowLink[parent]) {
+                        lowLink[parent] = lowLink[vertex];
+                    }
+                }
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            component[v]--;
+        }
+        numberOfStronglyConnectedComponents = components;
+        return component;
+    }
+
+    /**
+     * Returns the number of Strongly Connected Components found by the last computation.
+     *
+     * @return Components number.
+     */
+    public int getNumberOfStronglyConnectedComponents() {
+        return numberOfStronglyConnectedComponents;
+    }
+}
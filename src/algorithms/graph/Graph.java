@@ -108,19 +108,41 @@ public class Graph<T> {
     }
 
     /**
-     * Recursively finds all vertices reachable from a certain vertex.
+     * Finds all vertices reachable from a certain vertex. The depth first search keeps an explicit stack
+     * of edge iterators instead of recursing, so long paths cannot overflow the call stack.
      *
      * @param vertex The vertex being explored.
      */
     public void explore(T vertex) {
-        visitedMap.put(vertex, true);
-        stronglyConnectedComponentsMap.put(vertex, stronglyConnectedComponentsCounter);
-        for (T v : graph.get(vertex)) {
-            if (!visitedMap.get(v)) {
-                explore(v);
+        Deque<T> path = new ArrayDeque<>();
+        Deque<Iterator<T>> edges = new ArrayDeque<>();
+        visit(vertex, path, edges);
+        while (!path.isEmpty()) {
+            Iterator<T> iterator = edges.peek();
+            if (iterator.hasNext()) {
+                T v = iterator.next();
+                if (!visitedMap.get(v)) {
+                    visit(v, path, edges);
+                }
+            } else {
+                edges.pop();
+                verticesStack.push(path.pop());
             }
         }
-        verticesStack.push(vertex);
+    }
+
+    /**
+     * Marks a vertex as visited and places it on the path of the depth first search.
+     *
+     * @param vertex The vertex being visited.
+     * @param path   The vertices of the current path.
+     * @param edges  The remaining edges of every vertex of the path.
+     */
+    private void visit(T vertex, Deque<T> path, Deque<Iterator<T>> edges) {
+        visitedMap.put(vertex, true);
+        stronglyConnectedComponentsMap.put(vertex, stronglyConnectedComponentsCounter);
+        path.push(vertex);
+        edges.push(graph.get(vertex).iterator());
     }
 
     /**
@@ -0,0 +1,18 @@
+package algorithms.localsearch;
+
+/**
+ * Rule choosing the variable to flip among those of an unsatisfied clause.
+ */
+public enum LocalSearchAlgorithm {
+    /**
+     * WalkSAT: a variable whose flip breaks no clause if there is one, otherwise a random variable with
+     * the noise probability and a variable breaking the fewest clauses else.
+     */
+    WALKSAT,
+
+    /**
+     * ProbSAT: a variable drawn with a probability decreasing polynomially with the number of clauses its
+     * flip breaks.
+     */
+    PROBSAT
+}
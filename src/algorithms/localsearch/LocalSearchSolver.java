@@ -0,0 +1,474 @@
+package algorithms.localsearch;
+
+import algorithms.SATUtils;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.Literal;
+import algorithms.portfolio.PortfolioMember;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Stochastic local search solver for satisfiable formulas, flipping one variable of an unsatisfied clause
+ * at a time according to a {@link LocalSearchAlgorithm}.
+ * The clauses, without the tautologies, and the clauses of every literal are held in flat arrays. Every
+ * clause keeps its number of true literals and the exclusive or of them, which is its only true literal
+ * when there is one, so the break count of every variable, the number of clauses its flip would falsify,
+ * is kept up to date by every flip instead of being recomputed. The unsatisfied clauses are kept in an
+ * array together with the position of every clause in it, so a clause is added or removed in constant time
+ * and a random one is drawn directly.
+ * <p>
+ * The search cannot prove a formula unsatisfiable, except when it contains the empty clause, and stops
+ * with {@link SolverResult#UNKNOWN} once its flip or time budget is spent or it is cancelled. Every model
+ * found is checked against the formula.
+ */
+public class LocalSearchSolver implements PortfolioMember {
+    /**
+     * Probability of a random walk step of WalkSAT.
+     */
+    private static final double NOISE = 0.567;
+
+    /**
+     * Base of the polynomial probability of ProbSAT.
+     */
+    private static final double PROBSAT_EPSILON = 0.9;
+
+    /**
+     * Exponent of the polynomial probability of ProbSAT.
+     */
+    private static final double PROBSAT_EXPONENT = 2.06;
+
+    /**
+     * Number of flips between two checks of the time budget and of the cancellation.
+     */
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    /**
+     * The formula in Conjunctive Normal Form.
+     */
+    private final Formula formula;
+
+    /**
+     * The rule choosing the variable to flip.
+     */
+    private final LocalSearchAlgorithm algorithm;
+
+    /**
+     * Largest number of flips of a search.
+     */
+    private final long maximumFlips;
+
+    /**
+     * Largest number of milliseconds of a search.
+     */
+    private final long timeBudgetMillis;
+
+    /**
+     * The source of the random choices.
+     */
+    private final Random random;
+
+    /**
+     * Number of variables of the formula.
+     */
+    private final int numberOfVariables;
+
+    /**
+     * Number of clauses of the formula.
+     */
+    private final int numberOfClauses;
+
+    /**
+     * Does the formula contain the empty clause.
+     */
+    private final boolean emptyClause;
+
+    /**
+     * The literals of all clauses, clause after clause, without repetitions.
+     */
+    private final int[] literals;
+
+    /**
+     * Index in literals of the first literal of every clause, followed by the number of literals.
+     */
+    private final int[] clauseStarts;
+
+    /**
+     * Index in occurrenceClauses of the first clause of every encoded literal, followed by the number of
+     * occurrences.
+     */
+    private final int[] occurrenceStarts;
+
+    /**
+     * The clauses in which every encoded literal occurs, grouped by literal.
+     */
+    private final int[] occurrenceClauses;
+
+    /**
+     * The value of every variable, the variable i being at index i.
+     */
+    private final boolean[] values;
+
+    /**
+     * Number of true literals of every clause.
+     */
+    private final int[] trueCounts;
+
+    /**
+     * Exclusive or of the true literals of every clause.
+     */
+    private final int[] trueLiterals;
+
+    /**
+     * Number of clauses which the flip of every variable would falsify.
+     */
+    private final int[] breakCounts;
+
+    /**
+     * The unsatisfied clauses.
+     */
+    private final int[] unsatisfied;
+
+    /**
+     * Number of unsatisfied clauses.
+     */
+    private int numberOfUnsatisfied;
+
+    /**
+     * Position of every unsatisfied clause in the unsatisfied array.
+     */
+    private final int[] positions;
+
+    /**
+     * Probability weight of ProbSAT for every break count.
+     */
+    private final double[] weights;
+
+    /**
+     * Scratch space for the probability weights of the variables of a clause.
+     */
+    private double[] scores;
+
+    /**
+     * The satisfying assignment found, null before.
+     */
+    private boolean[] model;
+
+    /**
+     * Number of flips of the last search.
+     */
+    private long flips;
+
+    /**
+     * Set when the search is cancelled from outside.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor of a ProbSAT solver without budget.
+     *
+     * @param formula The formula in Conjunctive Normal Form.
+     */
+    public LocalSearchSolver(Formula formula) {
+        this(formula, LocalSearchAlgorithm.PROBSAT, 0, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula          The formula in Conjunctive Normal Form.
+     * @param algorithm        The rule choosing the variable to flip.
+     * @param seed             The seed of the random choices.
+     * @param maximumFlips     Largest number of flips of a search.
+     * @param timeBudgetMillis Largest number of milliseconds of a search.
+     */
+    public LocalSearchSolver(Formula formula, LocalSearchAlgorithm algorithm, long seed, long maximumFlips,
+                             long timeBudgetMillis) {
+        this.formula = formula;
+        this.algorithm = algorithm;
+        this.maximumFlips = maximumFlips;
+        this.timeBudgetMillis = timeBudgetMillis;
+        random = new Random(seed);
+        numberOfVariables = formula.getNumberOfVariables();
+        ClauseArena arena = formula.getArena();
+
+        int numberOfLiterals = 0;
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
+            numberOfLiterals += arena.getSize(clause);
+        }
+        literals = new int[numberOfLiterals];
+        int[] starts = new int[arena.getNumberOfClauses() + 1];
+        boolean[] marks = new boolean[2 * numberOfVariables + 2];
+        boolean empty = false;
+        int clauses = 0;
+        int top = 0;
+        int longest = 0;
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
+            int size = arena.getSize(clause);
+            boolean tautology = false;
+            for (int i = 0; i < size; i++) {
+                int literal = arena.getLiteral(clause, i);
+                tautology |= marks[literal ^ 1];
+                if (!marks[literal]) {
+                    marks[literal] = true;
+                    literals[top++] = literal;
+                }
+            }
+            for (int k = starts[clauses]; k < top; k++) {
+                marks[literals[k]] = false;
+            }
+            empty |= size == 0;
+            if (tautology) {
+                top = starts[clauses];
+            } else {
+                longest = Math.max(longest, top - starts[clauses]);
+                starts[++clauses] = top;
+            }
+        }
+        emptyClause = empty;
+        numberOfClauses = clauses;
+        clauseStarts = starts;
+
+        occurrenceStarts = new int[2 * numberOfVariables + 3];
+        for (int k = 0; k < top; k++) {
+            occurrenceStarts[literals[k] + 1]++;
+        }
+
+        for (int literal = 0; literal < 2 * numberOfVariables + 2; literal++) {
+            occurrenceStarts[literal + 1] += occurrenceStarts[literal];
+        }
+        int[] next = Arrays.copyOf(occurrenceStarts, 2 * numberOfVariables + 2);
+        occurrenceClauses = new int[top];
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            for (int k = clauseStarts[clause]; k < clauseStarts[clause + 1]; k++) {
+                occurrenceClauses[next[literals[k]]++] = clause;
+            }
+        }
+
+        values = new boolean[numberOfVariables + 1];
+        trueCounts = new int[numberOfClauses];
+        trueLiterals = new int[numberOfClauses];
+        breakCounts = new int[numberOfVariables + 1];
+        unsatisfied = new int[numberOfClauses];
+        positions = new int[numberOfClauses];
+        scores = new double[Math.max(1, longest)];
+        weights = new double[64];
+        for (int breaks = 0; breaks < weights.length; breaks++) {
+            weights[breaks] = Math.pow(PROBSAT_EPSILON + breaks, -PROBSAT_EXPONENT);
+        }
+    }
+
+    /**
+     * Flips variables from a random assignment until every clause is satisfied or the budget is spent.
+     *
+     * @return {@link SolverResult#SATISFIABLE} with a checked model, {@link SolverResult#UNSATISFIABLE} if
+     * the formula contains the empty clause, and {@link SolverResult#UNKNOWN} otherwise.
+     */
+    @Override
+    public SolverResult solve() {
+        model = null;
+        flips = 0;
+        if (emptyClause) {
+            return SolverResult.UNSATISFIABLE;
+        }
+        initialize();
+
+        long deadline = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE
+                : System.nanoTime() + timeBudgetMillis * 1_000_000;
+        while (numberOfUnsatisfied > 0) {
+            if (flips % CHECK_INTERVAL == 0 && (cancelled || System.nanoTime() > deadline)) {
+                return SolverResult.UNKNOWN;
+            }
+            if (flips == maximumFlips) {
+                return SolverResult.UNKNOWN;
+            }
+            int clause = unsatisfied[random.nextInt(numberOfUnsatisfied)];
+            int literal = algorithm == LocalSearchAlgorithm.WALKSAT ? pickWalkSat(clause) : pickProbSat(clause);
+            flip(Literal.variable(literal));
+            flips++;
+        }
+
+        boolean[] assignment = Arrays.copyOfRange(values, 1, numberOfVariables + 1);
+        if (!SATUtils.checkAssignment(formula, assignment)) {
+            throw new IllegalStateException("The local search found an assignment which does not satisfy the formula.");
+        }
+        model = assignment;
+        return SolverResult.SATISFIABLE;
+    }
+
+    /**
+     * Returns the satisfying assignment found by the last successful search.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    @Override
+    public boolean[] getModel() {
+        return model;
+    }
+
+    /**
+     * Asks the search to stop. Can be called from any thread.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the number of flips of the last search.
+     *
+     * @return Flips number.
+     */
+    public long getNumberOfFlips() {
+        return flips;
+    }
+
+    /**
+     * Draws a random assignment and computes the true literals of every clause, the break counts and the
+     * unsatisfied clauses.
+     */
+    private void initialize() {
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            values[variable] = random.nextBoolean();
+        }
+        Arrays.fill(breakCounts, 0);
+        numberOfUnsatisfied = 0;
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            int count = 0;
+            int trueLiteral = 0;
+            for (int k = clauseStarts[clause]; k < clauseStarts[clause + 1]; k++) {
+                if (isTrue(literals[k])) {
+                    count++;
+                    trueLiteral ^= literals[k];
+                }
+            }
+            trueCounts[clause] = count;
+            trueLiterals[clause] = trueLiteral;
+            if (count == 0) {
+                addUnsatisfied(clause);
+            } else if (count == 1) {
+                breakCounts[Literal.variable(trueLiteral)]++;
+            }
+        }
+    }
+
+    /**
+     * Picks the literal to flip in an unsatisfied clause by the WalkSAT rule.
+     *
+     * @param clause The index of the clause.
+     * @return The encoded literal.
+     */
+    private int pickWalkSat(int clause) {
+        int start = clauseStarts[clause];
+        int size = clauseStarts[clause + 1] - start;
+        int best = literals[start];
+        int ties = 0;
+        for (int k = start; k < start + size; k++) {
+            int breaks = breakCounts[Literal.variable(literals[k])];
+            int bestBreaks = breakCounts[Literal.variable(best)];
+            if (breaks < bestBreaks) {
+                best = literals[k];
+                ties = 1;
+            } else if (breaks == bestBreaks && random.nextInt(++ties) == 0) {
+                best = literals[k];
+            }
+        }
+        if (breakCounts[Literal.variable(best)] > 0 && random.nextDouble() < NOISE) {
+            return literals[start + random.nextInt(size)];
+        }
+        return best;
+    }
+
+    /**
+     * Picks the literal to flip in an unsatisfied clause by the ProbSAT rule.
+     *
+     * @param clause The index of the clause.
+     * @return The encoded literal.
+     */
+    private int pickProbSat(int clause) {
+        int start = clauseStarts[clause];
+        int size = clauseStarts[clause + 1] - start;
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            int breaks = breakCounts[Literal.variable(literals[start + i])];
+            sum += breaks < weights.length ? weights[breaks] : Math.pow(PROBSAT_EPSILON + breaks, -PROBSAT_EXPONENT);
+            scores[i] = sum;
+        }
+        double threshold = random.nextDouble() * sum;
+        for (int i = 0; i < size - 1; i++) {
+            if (threshold < scores[i]) {
+                return literals[start + i];
+            }
+        }
+        return literals[start + size - 1];
+    }
+
+    /**
+     * Flips a variable and updates the true literals of its clauses, the break counts and the unsatisfied
+     * clauses.
+     *
+     * @param variable The variable number.
+     */
+    private void flip(int variable) {
+        int falsified = Literal.encode(values[variable] ? variable : -variable);
+        int satisfied = falsified ^ 1;
+        values[variable] = !values[variable];
+
+        for (int i = occurrenceStarts[satisfied]; i < occurrenceStarts[satisfied + 1]; i++) {
+            int clause = occurrenceClauses[i];
+            int count = trueCounts[clause]++;
+            if (count == 0) {
+                removeUnsatisfied(clause);
+                breakCounts[variable]++;
+            } else if (count == 1) {
+                breakCounts[Literal.variable(trueLiterals[clause])]--;
+            }
+            trueLiterals[clause] ^= satisfied;
+        }
+
+        for (int i = occurrenceStarts[falsified]; i < occurrenceStarts[falsified + 1]; i++) {
+            int clause = occurrenceClauses[i];
+            int count = --trueCounts[clause];
+            trueLiterals[clause] ^= falsified;
+            if (count == 0) {
+                addUnsatisfied(clause);
+                breakCounts[variable]--;
+            } else if (count == 1) {
+                breakCounts[Literal.variable(trueLiterals[clause])]++;
+            }
+        }
+    }
+
+    /**
+     * Checks if a literal is true under the current assignment.
+     *
+     * @param literal The encoded literal.
+     * @return Is the literal true.
+     */
+    private boolean isTrue(int literal) {
+        return values[Literal.variable(literal)] != Literal.isNegated(literal);
+    }
+
+    /**
+     * Adds a clause to the unsatisfied clauses.
+     *
+     * @param clause The index of the clause.
+     */
+    private void addUnsatisfied(int clause) {
+        positions[clause] = numberOfUnsatisfied;
+        unsatisfied[numberOfUnsatisfied++] = clause;
+    }
+
+    /**
+     * Removes a clause from the unsatisfied clauses. The last unsatisfied clause takes its place.
+     *
+     * @param clause The index of the clause.
+     */
+    private void removeUnsatisfied(int clause) {
+        int last = unsatisfied[--numberOfUnsatisfied];
+        unsatisfied[positions[clause]] = last;
+        positions[last] = positions[clause];
+    }
+}
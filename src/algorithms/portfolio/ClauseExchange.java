@@ -0,0 +1,178 @@
+package algorithms.portfolio;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free exchange of short learned clauses between the workers of a portfolio.
+ * The clauses are published in a ring of fixed capacity: a worker reserves a sequence number with an
+ * atomic increment and writes its clause in the slot of that number, and every worker reads the ring at
+ * its own pace from its own cursor. A reader too far behind skips the clauses which have been overwritten,
+ * so the memory of the exchange is bounded and a slow worker never blocks the others.
+ * <p>
+ * The budget limits what is shared: only unit and binary clauses and clauses whose Literal Block Distance
+ * is at most the maximum are eligible, and every worker exports at most a given number of clauses per
+ * thousand conflicts.
+ */
+public class ClauseExchange {
+    /**
+     * The ring of published clauses, indexed by sequence number modulo its length.
+     */
+    private final AtomicReferenceArray<SharedClause> ring;
+
+    /**
+     * Number of clauses published so far, which is the sequence number of the next clause.
+     */
+    private final AtomicLong published;
+
+    /**
+     * Largest Literal Block Distance of the clauses with more than two literals which may be shared.
+     */
+    private final int maximumLbd;
+
+    /**
+     * Largest number of clauses a worker may export per thousand conflicts.
+     */
+    private final int budget;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity   Number of clauses kept in the ring.
+     * @param maximumLbd Largest Literal Block Distance of the shared clauses with more than two literals.
+     * @param budget     Largest number of clauses a worker may export per thousand conflicts.
+     */
+    public ClauseExchange(int capacity, int maximumLbd, int budget) {
+        ring = new AtomicReferenceArray<>(capacity);
+        published = new AtomicLong();
+        this.maximumLbd = maximumLbd;
+        this.budget = budget;
+    }
+
+    /**
+     * Checks if a learned clause is short enough to be shared.
+     *
+     * @param size Number of literals of the clause.
+     * @param lbd  Literal Block Distance of the clause.
+     * @return May the clause be shared.
+     */
+    public boolean isEligible(int size, int lbd) {
+        return size <= 2 || lbd <= maximumLbd;
+    }
+
+    /**
+     * Returns the largest number of clauses a worker may export per thousand conflicts.
+     *
+     * @return The budget.
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Publishes a clause.
+     *
+     * @param source   The number of the exporting worker.
+     * @param literals The encoded literals. The array must not be modified afterwards.
+     * @param lbd      The Literal Block Distance of the clause.
+     */
+    public void publish(int source, int[] literals, int lbd) {
+        long sequence = published.getAndIncrement();
+        ring.set((int) (sequence % ring.length()), new SharedClause(sequence, source, literals, lbd));
+    }
+
+    /**
+     * Returns the number of clauses published so far.
+     *
+     * @return Published clauses number.
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Collects the clauses published by the other workers since the given cursor.
+     * Collection stops at a slot which has been reserved but not written yet, to be resumed later.
+     *
+     * @param cursor The sequence number of the first clause not read yet by the worker.
+     * @param reader The number of the reading worker, whose own clauses are skipped.
+     * @param into   The list receiving the clauses.
+     * @return The new cursor of the worker.
+     */
+    public long collect(long cursor, int reader, List<SharedClause> into) {
+        long end = published.get();
+        if (end - cursor > ring.length()) {
+            cursor = end - ring.length();
+        }
+        while (cursor < end) {
+            SharedClause clause = ring.get((int) (cursor % ring.length()));
+            if (clause == null || clause.sequence < cursor) {
+                break;
+            }
+            if (clause.sequence == cursor && clause.source != reader) {
+                into.add(clause);
+            }
+            cursor++;
+        }
+        return cursor;
+    }
+
+    /**
+     * A clause published in the exchange.
+     */
+    public static class SharedClause {
+        /**
+         * Sequence number of the clause.
+         */
+        private final long sequence;
+
+        /**
+         * Number of the worker which exported the clause.
+         */
+        private final int source;
+
+        /**
+         * The encoded literals.
+         */
+        private final int[] literals;
+
+        /**
+         * The Literal Block Distance of the clause.
+         */
+        private final int lbd;
+
+        /**
+         * Constructor.
+         *
+         * @param sequence Sequence number of the clause.
+         * @param source   Number of the worker which exported the clause.
+         * @param literals The encoded literals.
+         * @param lbd      The Literal Block Distance of the clause.
+         */
+        SharedClause(long sequence, int source, int[] literals, int lbd) {
+            this.sequence = sequence;
+            this.source = source;
+            this.literals = literals;
+            this.lbd = lbd;
+        }
+
+        /**
+         * Returns the encoded literals. The array must not be modified.
+         *
+         * @return The literals.
+         */
+        public int[] getLiterals() {
+            return literals;
+        }
+
+        /**
+         * Returns the Literal Block Distance of the clause.
+         *
+         * @return The Literal Block Distance.
+         */
+        public int getLbd() {
+            return lbd;
+        }
+    }
+}
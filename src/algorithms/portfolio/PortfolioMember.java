@@ -0,0 +1,30 @@
+package algorithms.portfolio;
+
+import algorithms.cdcl.SolverResult;
+
+/**
+ * A solver which can run as one of the workers of a {@link PortfolioSolver}.
+ * The search runs on the calling thread and must stop soon after {@link #cancel()} is called from another
+ * thread.
+ */
+public interface PortfolioMember {
+    /**
+     * Searches for a satisfying assignment.
+     *
+     * @return The outcome of the search, {@link SolverResult#UNKNOWN} if it was cancelled or gave up.
+     */
+    SolverResult solve();
+
+    /**
+     * Returns the satisfying assignment found by the last search which returned
+     * {@link SolverResult#SATISFIABLE}.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    boolean[] getModel();
+
+    /**
+     * Asks the search to stop. Can be called from any thread.
+     */
+    void cancel();
+}
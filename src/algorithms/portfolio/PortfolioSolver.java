@@ -0,0 +1,205 @@
+package algorithms.portfolio;
+
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.RestartStrategy;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel solver running several diversified solvers on the same formula, one thread each.
+ * The first worker to reach an answer wins and the other workers are cancelled cooperatively. The CDCL
+ * workers share their short learned clauses through a {@link ClauseExchange}. Every CDCL worker keeps its
+ * own copy of the clauses, so memory grows with the number of workers.
+ */
+public class PortfolioSolver {
+    /**
+     * Default number of clauses kept by the exchange.
+     */
+    private static final int EXCHANGE_CAPACITY = 1 << 14;
+
+    /**
+     * Default largest Literal Block Distance of the shared clauses.
+     */
+    private static final int SHARED_LBD = 2;
+
+    /**
+     * Default largest number of clauses a worker exports per thousand conflicts.
+     */
+    private static final int SHARING_BUDGET = 200;
+
+    /**
+     * The workers of the portfolio.
+     */
+    private final List<PortfolioMember> members;
+
+    /**
+     * The worker which found the answer, null before.
+     */
+    private final AtomicReference<PortfolioMember> winner;
+
+    /**
+     * Set when the portfolio is cancelled from outside.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor of a portfolio of diversified CDCL solvers sharing clauses with the default budget.
+     *
+     * @param formula         The formula in Conjunctive Normal Form.
+     * @param numberOfWorkers Number of solvers running in parallel.
+     */
+    public PortfolioSolver(Formula formula, int numberOfWorkers) {
+        this(formula, diversify(numberOfWorkers), new ClauseExchange(EXCHANGE_CAPACITY, SHARED_LBD, SHARING_BUDGET));
+    }
+
+    /**
+     * Constructor of a portfolio of CDCL solvers.
+     *
+     * @param formula        The formula in Conjunctive Normal Form.
+     * @param configurations The configuration of every solver.
+     * @param exchange       The exchange of learned clauses, null for no sharing.
+     */
+    public PortfolioSolver(Formula formula, List<SolverConfiguration> configurations, ClauseExchange exchange) {
+        members = new ArrayList<>();
+        winner = new AtomicReference<>();
+        for (SolverConfiguration configuration : configurations) {
+            CDCLSolver solver = new CDCLSolver(formula, configuration);
+            if (exchange != null) {
+                solver.connect(exchange, members.size());
+            }
+            members.add(solver);
+        }
+    }
+
+    /**
+     * Constructor of a portfolio of arbitrary solvers of the same formula.
+     *
+     * @param members The workers of the portfolio.
+     */
+    public PortfolioSolver(List<PortfolioMember> members) {
+        this.members = new ArrayList<>(members);
+        winner = new AtomicReference<>();
+    }
+
+    /**
+     * Creates configurations which differ in their seed, restart strategy, decay, initial phase and
+     * random decisions. The first configuration is the default one.
+     *
+     * @param numberOfWorkers Number of configurations.
+     * @return The configurations.
+     */
+    public static List<SolverConfiguration> diversify(int numberOfWorkers) {
+        RestartStrategy[] strategies = {RestartStrategy.GLUCOSE, RestartStrategy.LUBY, RestartStrategy.GEOMETRIC};
+        double[] decays = {0.95, 0.9, 0.99};
+        List<SolverConfiguration> configurations = new ArrayList<>();
+        for (int i = 0; i < numberOfWorkers; i++) {
+            SolverConfiguration configuration = new SolverConfiguration();
+            if (i > 0) {
+                configuration.setRandomSeed(i);
+                configuration.setRestartStrategy(strategies[i % strategies.length]);
+                configuration.setVariableDecay(decays[(i / strategies.length) % decays.length]);
+                configuration.setNegativeInitialPhase(i % 2 == 1);
+                configuration.setRandomDecisionFrequency(i % 4 == 3 ? 0.02 : 0);
+            }
+            configurations.add(configuration);
+        }
+        return configurations;
+    }
+
+    /**
+     * Runs every worker on a thread of its own until one of them reaches an answer.
+     *
+     * @return The answer of the winning worker, {@link SolverResult#UNKNOWN} if the portfolio was
+     * cancelled or every worker gave up.
+     */
+    public SolverResult solve() {
+        AtomicReference<SolverResult> result = new AtomicReference<>(SolverResult.UNKNOWN);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            PortfolioMember member = members.get(i);
+            Thread thread = new Thread(() -> {
+                try {
+                    SolverResult answer = member.solve();
+                    if (answer != SolverResult.UNKNOWN && winner.compareAndSet(null, member)) {
+                        result.set(answer);
+                        cancelMembers();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "portfolio-worker-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        if (cancelled) {
+            cancelMembers();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            cancelMembers();
+            Thread.currentThread().interrupt();
+        }
+
+        if (winner.get() == null && failure.get() != null && !cancelled) {
+            throw new IllegalStateException("A portfolio worker failed.", failure.get());
+        }
+        return result.get();
+    }
+
+    /**
+     * Returns the satisfying assignment found by the winning worker.
+     *
+     * @return The value of every variable, the variable i being at index i - 1.
+     */
+    public boolean[] getModel() {
+        return winner.get().getModel();
+    }
+
+    /**
+     * Returns the index of the worker which found the answer.
+     *
+     * @return The index of the winner, -1 if there is none.
+     */
+    public int getWinner() {
+        return members.indexOf(winner.get());
+    }
+
+    /**
+     * Returns the workers of the portfolio.
+     *
+     * @return The workers.
+     */
+    public List<PortfolioMember> getMembers() {
+        return members;
+    }
+
+    /**
+     * Asks every worker to stop. Can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        cancelMembers();
+    }
+
+    /**
+     * Cancels every worker.
+     */
+    private void cancelMembers() {
+        for (PortfolioMember member : members) {
+            member.cancel();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package algorithms.preprocessing;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of the clauses in which a literal occurs.
+ * Used by the {@link Preprocessor}, which drops the entries of removed clauses lazily while scanning the
+ * list. Clauses are referenced by their index in the preprocessor.
+ */
+public class OccurrenceList {
+    /**
+     * The indices of the clauses. Only the first size entries are valid.
+     */
+    private int[] clauses;
+
+    /**
+     * Number of clauses.
+     */
+    private int size;
+
+    /**
+     * Default constructor.
+     */
+    public OccurrenceList() {
+        clauses = new int[4];
+        size = 0;
+    }
+
+    /**
+     * Adds a clause at the end of the list.
+     *
+     * @param clause The index of the clause.
+     */
+    public void add(int clause) {
+        if (size == clauses.length) {
+            clauses = Arrays.copyOf(clauses, 2 * size);
+        }
+        clauses[size++] = clause;
+    }
+
+    /**
+     * Returns the clause at the given position.
+     *
+     * @param index Position in the list.
+     * @return The index of the clause.
+     */
+    public int get(int index) {
+        return clauses[index];
+    }
+
+    /**
+     * Overwrites the clause at the given position.
+     *
+     * @param index  Position in the list.
+     * @param clause The index of the clause.
+     */
+    public void set(int index, int clause) {
+        clauses[index] = clause;
+    }
+
+    /**
+     * Returns the number of clauses.
+     *
+     * @return Clauses number.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes a clause from the list. The last clause takes its place.
+     *
+     * @param clause The index of the clause.
+     */
+    public void remove(int clause) {
+        for (int i = 0; i < size; i++) {
+            if (clauses[i] == clause) {
+                clauses[i] = clauses[--size];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops every clause from the given position onwards.
+     *
+     * @param newSize The new number of clauses.
+     */
+    public void shrink(int newSize) {
+        size = newSize;
+    }
+}
@@ -0,0 +1,1124 @@
+package algorithms.preprocessing;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.Literal;
+import algorithms.graph.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Simplification of a formula before the search, by subsumption, self-subsuming resolution, failed-literal
+ * probing, equivalent-literal substitution and bounded variable elimination in the style of SatELite.
+ * <p>
+ * A clause subsumed by another one, whose literals it all contains, is removed. A clause which contains
+ * all the literals of another one but one, present in it negated, is strengthened by removing that
+ * negated literal, since it is the resolvent of both clauses. Every new or strengthened clause is checked
+ * against the clauses which contain its literal of fewest occurrences, or its negation, so each check
+ * only visits a short occurrence list. A 64-bit signature of the variables of every clause rules out most
+ * candidates without comparing their literals.
+ * <p>
+ * Both literals of every variable occurring in binary clauses are probed: a literal whose unit propagation
+ * falsifies a clause is failed and its negation is fixed, and the literals implied by both literals of the
+ * variable are necessary and fixed as well. Literals in the same Strongly Connected Component of the
+ * implication graph of the binary clauses, built as a {@link CsrGraph}, are equivalent, and each of them is
+ * replaced in every clause by the one of smallest variable, which makes the others free.
+ * <p>
+ * A variable is eliminated by replacing the clauses in which it occurs with all their non-tautological
+ * resolvents on it, which is done only when there are no more resolvents than clauses and none of them is
+ * longer than the resolvent size limit, so the formula never grows. Variables are tried in increasing
+ * order of the product of their numbers of positive and negative occurrences, found through occurrence
+ * lists, and the variables whose clauses changed are tried again until no variable can be eliminated.
+ * Unit clauses are propagated along the way.
+ * <p>
+ * The simplified formula keeps the numbering of the variables, and a satisfying assignment of it is
+ * extended to one of the original formula by {@link #extendModel(boolean[])}: the clauses of one polarity
+ * of every eliminated variable are saved, and in reverse order of elimination the variable takes the
+ * value which satisfies them. A substituted variable is saved as the two binary clauses of its equivalence,
+ * so it takes the value of the literal which replaced it.
+ */
+public class Preprocessor {
+    /**
+     * Default largest number of literals of a resolvent added by the elimination of a variable.
+     */
+    public static final int DEFAULT_RESOLVENT_SIZE_LIMIT = 20;
+
+    /**
+     * Largest product of the numbers of positive and negative occurrences of a variable tried for
+     * elimination, which bounds the number of resolutions of one attempt.
+     */
+    private static final long PAIR_LIMIT = 1 << 14;
+
+    /**
+     * Largest number of clause visits spent on probing.
+     */
+    private static final long PROBING_LIMIT = 1L << 24;
+
+    /**
+     * Value of a true literal.
+     */
+    private static final byte TRUE = 1;
+
+    /**
+     * Value of a false literal.
+     */
+    private static final byte FALSE = -1;
+
+    /**
+     * Value of an unassigned literal.
+     */
+    private static final byte UNASSIGNED = 0;
+
+    /**
+     * Number of variables of the formula.
+     */
+    private final int numberOfVariables;
+
+    /**
+     * Largest number of literals of a resolvent added by the elimination of a variable.
+     */
+    private final int resolventSizeLimit;
+
+    /**
+     * The literals of all clauses, clause after clause.
+     */
+    private int[] memory;
+
+    /**
+     * Index after the literals of the last clause.
+     */
+    private int top;
+
+    /**
+     * Index in memory of the first literal of every clause.
+     */
+    private int[] starts;
+
+    /**
+     * Number of literals of every clause.
+     */
+    private int[] sizes;
+
+    /**
+     * Marks of the removed clauses.
+     */
+    private boolean[] removed;
+
+    /**
+     * Signature of every clause: the bit of index v modulo 64 is set for every variable v of the clause.
+     */
+    private long[] signatures;
+
+    /**
+     * Marks of the clauses waiting in the subsumption queue.
+     */
+    private boolean[] queued;
+
+    /**
+     * The clauses whose subsumption of other clauses has to be checked.
+     */
+    private int[] queue;
+
+    /**
+     * Number of clauses in the queue.
+     */
+    private int queueSize;
+
+    /**
+     * Clauses subsumed and strengthened during a subsumption check, stored as pairs of the clause index and
+     * the literal removed from it, -1 for subsumed clauses.
+     */
+    private int[] pending;
+
+    /**
+     * Number of clauses stored, removed ones included.
+     */
+    private int numberOfClauses;
+
+    /**
+     * The clauses in which every encoded literal occurs, removed clauses being dropped lazily.
+     */
+    private final OccurrenceList[] occurrences;
+
+    /**
+     * Number of clauses which are not removed in which every encoded literal occurs.
+     */
+    private final int[] occurrenceCounts;
+
+    /**
+     * The value of every encoded literal fixed by a unit clause.
+     */
+    private final byte[] values;
+
+    /**
+     * The literals fixed by unit clauses, in order.
+     */
+    private final int[] units;
+
+    /**
+     * Number of fixed literals.
+     */
+    private int numberOfUnits;
+
+    /**
+     * Index of the next fixed literal to propagate.
+     */
+    private int unitHead;
+
+    /**
+     * Marks of the eliminated variables.
+     */
+    private final boolean[] eliminated;
+
+    /**
+     * Marks of the variables whose clauses changed since they were last tried.
+     */
+    private final boolean[] touched;
+
+    /**
+     * The saved clauses of the eliminated variables, in elimination order. Every clause is stored as its
+     * literals, the literal of the eliminated variable first, followed by its size.
+     */
+    private int[] eliminationStack;
+
+    /**
+     * Number of ints of the elimination stack.
+     */
+    private int stackSize;
+
+    /**
+     * Marks of the encoded literals of the clause being resolved.
+     */
+    private final boolean[] marks;
+
+    /**
+     * Scratch space for the literals of a resolvent.
+     */
+    private int[] resolvent;
+
+    /**
+     * The value of every encoded literal under the literal being probed.
+     */
+    private final byte[] probeValues;
+
+    /**
+     * The literals assigned by the literal being probed, in order, the probed literal first.
+     */
+    private final int[] trail;
+
+    /**
+     * Number of literals of the trail.
+     */
+    private int trailSize;
+
+    /**
+     * The literals assigned by the positive literal of the variable being probed.
+     */
+    private final int[] implied;
+
+    /**
+     * Number of clause visits spent on probing.
+     */
+    private long probingEffort;
+
+    /**
+     * Has the formula been proven unsatisfiable.
+     */
+    private boolean unsatisfiable;
+
+    /**
+     * Number of eliminated variables.
+     */
+    private int eliminatedVariables;
+
+    /**
+     * Number of clauses removed because another clause subsumes them.
+     */
+    private int subsumedClauses;
+
+    /**
+     * Number of literals removed from clauses by self-subsuming resolution.
+     */
+    private int strengthenedClauses;
+
+    /**
+     * Number of failed literals found by probing.
+     */
+    private int failedLiterals;
+
+    /**
+     * Number of literals fixed because both literals of a variable imply them.
+     */
+    private int necessaryAssignments;
+
+    /**
+     * Number of variables replaced by an equivalent literal.
+     */
+    private int substitutedVariables;
+
+    /**
+     * Constructor using the default resolvent size limit.
+     *
+     * @param formula The formula in Conjunctive Normal Form.
+     */
+    public Preprocessor(Formula formula) {
+        this(formula, DEFAULT_RESOLVENT_SIZE_LIMIT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param formula            The formula in Conjunctive Normal Form.
+     * @param resolventSizeLimit Largest number of literals of a resolvent added by the elimination of a
+     *                           variable.
+     */
+    public Preprocessor(Formula formula, int resolventSizeLimit) {
+        this.resolventSizeLimit = resolventSizeLimit;
+        numberOfVariables = formula.getNumberOfVariables();
+        ClauseArena arena = formula.getArena();
+        int clauses = arena.getNumberOfClauses();
+
+        memory = new int[1024];
+        starts = new int[Math.max(16, clauses)];
+        sizes = new int[starts.length];
+        removed = new boolean[starts.length];
+        signatures = new long[starts.length];
+        queued = new boolean[starts.length];
+        queue = new int[starts.length];
+        pending = new int[16];
+        occurrences = new OccurrenceList[2 * numberOfVariables + 2];
+        for (int literal = 0; literal < occurrences.length; literal++) {
+            occurrences[literal] = new OccurrenceList();
+        }
+        occurrenceCounts = new int[2 * numberOfVariables + 2];
+        values = new byte[2 * numberOfVariables + 2];
+        units = new int[numberOfVariables];
+        eliminated = new boolean[numberOfVariables + 1];
+        touched = new boolean[numberOfVariables + 1];
+        eliminationStack = new int[1024];
+        marks = new boolean[2 * numberOfVariables + 2];
+        resolvent = new int[16];
+        probeValues = new byte[2 * numberOfVariables + 2];
+        trail = new int[numberOfVariables + 1];
+        implied = new int[numberOfVariables + 1];
+
+        for (int clause = 0; clause < clauses && !unsatisfiable; clause++) {
+            int size = arena.getSize(clause);
+            if (size > resolvent.length) {
+                resolvent = new int[Math.max(size, 2 * resolvent.length)];
+            }
+            boolean tautology = false;
+            for (int i = 0; i < size; i++) {
+                resolvent[i] = arena.getLiteral(clause, i);
+                tautology |= marks[resolvent[i] ^ 1];
+                marks[resolvent[i]] = true;
+            }
+            for (int i = 0; i < size; i++) {
+                marks[resolvent[i]] = false;
+            }
+            if (!tautology) {
+                addClause(resolvent, size);
+            }
+        }
+    }
+
+    /**
+     * Simplifies the formula.
+     *
+     * @return The simplified formula, over the same variables. It holds only the empty clause if the
+     * formula was proven unsatisfiable.
+     */
+    public Formula simplify() {
+        propagate();
+        subsume();
+        probe();
+        substituteEquivalences();
+        subsume();
+        int[] candidates = new int[numberOfVariables];
+        int numberOfCandidates = 0;
+        for (int variable = 1; variable <= numberOfVariables; variable++) {
+            candidates[numberOfCandidates++] = variable;
+        }
+
+        while (numberOfCandidates > 0 && !unsatisfiable) {
+            long[] keys = new long[numberOfCandidates];
+            for (int i = 0; i < numberOfCandidates; i++) {
+                int variable = candidates[i];
+                long cost = (long) occurrenceCounts[2 * variable] * occurrenceCounts[2 * variable + 1];
+                keys[i] = (cost << 32) | variable;
+                touched[variable] = false;
+            }
+            Arrays.sort(keys);
+
+            boolean progress = false;
+            for (int i = 0; i < keys.length && !unsatisfiable; i++) {
+                progress |= eliminate((int) keys[i]);
+            }
+            subsume();
+
+            numberOfCandidates = 0;
+            for (int variable = 1; variable <= numberOfVariables && progress; variable++) {
+                if (touched[variable] && !eliminated[variable] && values[2 * variable] == UNASSIGNED) {
+                    candidates[numberOfCandidates++] = variable;
+                }
+            }
+        }
+        return toFormula();
+    }
+
+    /**
+     * Extends a satisfying assignment of the simplified formula to one of the original formula.
+     *
+     * @param model The value of every variable in the simplified formula, the variable i being at index
+     *              i - 1.
+     * @return A new array with the value of every variable in the original formula.
+     */
+    public boolean[] extendModel(boolean[] model) {
+        boolean[] extended = Arrays.copyOf(model, numberOfVariables);
+        for (int i = 0; i < numberOfUnits; i++) {
+            extended[Literal.variable(units[i]) - 1] = !Literal.isNegated(units[i]);
+        }
+
+        int end = stackSize - 1;
+        while (end >= 0) {
+            int first = end - eliminationStack[end];
+            boolean satisfied = false;
+            for (int k = first; k < end && !satisfied; k++) {
+                int literal = eliminationStack[k];
+                satisfied = extended[Literal.variable(literal) - 1] != Literal.isNegated(literal);
+            }
+            if (!satisfied) {
+                int pivot = eliminationStack[first];
+                extended[Literal.variable(pivot) - 1] = !Literal.isNegated(pivot);
+            }
+            end = first - 1;
+        }
+        return extended;
+    }
+
+    /**
+     * Checks if the formula has been proven unsatisfiable.
+     *
+     * @return Is the formula unsatisfiable.
+     */
+    public boolean isUnsatisfiable() {
+        return unsatisfiable;
+    }
+
+    /**
+     * Returns the number of eliminated variables.
+     *
+     * @return Eliminated variables number.
+     */
+    public int getNumberOfEliminatedVariables() {
+        return eliminatedVariables;
+    }
+
+    /**
+     * Returns the number of variables fixed by unit clauses.
+     *
+     * @return Fixed variables number.
+     */
+    public int getNumberOfFixedVariables() {
+        return numberOfUnits;
+    }
+
+    /**
+     * Returns the number of clauses removed because another clause subsumes them.
+     *
+     * @return Subsumed clauses number.
+     */
+    public int getNumberOfSubsumedClauses() {
+        return subsumedClauses;
+    }
+
+    /**
+     * Returns the number of times a clause was strengthened by self-subsuming resolution.
+     *
+     * @return Strengthened clauses number.
+     */
+    public int getNumberOfStrengthenedClauses() {
+        return strengthenedClauses;
+    }
+
+    /**
+     * Returns the number of failed literals found by probing, whose negation was fixed.
+     *
+     * @return Failed literals number.
+     */
+    public int getNumberOfFailedLiterals() {
+        return failedLiterals;
+    }
+
+    /**
+     * Returns the number of literals fixed because both literals of a variable imply them.
+     *
+     * @return Necessary assignments number.
+     */
+    public int getNumberOfNecessaryAssignments() {
+        return necessaryAssignments;
+    }
+
+    /**
+     * Returns the number of variables replaced by an equivalent literal.
+     *
+     * @return Substituted variables number.
+     */
+    public int getNumberOfSubstitutedVariables() {
+        return substitutedVariables;
+    }
+
+    /**
+     * Probes both literals of every variable occurring in binary clauses, until the probing limit is
+     * reached. The negation of a failed literal is fixed, and so are the literals implied by both literals
+     * of a variable.
+     */
+    private void probe() {
+        for (int variable = 1; variable <= numberOfVariables && !unsatisfiable; variable++) {
+            int positive = 2 * variable;
+            int negative = positive + 1;
+            if (probingEffort > PROBING_LIMIT || eliminated[variable] || values[positive] != UNASSIGNED
+                    || !hasBinaryClause(positive) && !hasBinaryClause(negative)) {
+                continue;
+            }
+
+            boolean failed = !probe(positive);
+            int impliedSize = trailSize;
+            System.arraycopy(trail, 0, implied, 0, impliedSize);
+            unprobe();
+            if (failed) {
+                fix(negative);
+                failedLiterals++;
+                propagate();
+                continue;
+            }
+
+            failed = !probe(negative);
+            for (int i = 0; i < trailSize; i++) {
+                marks[trail[i]] = true;
+            }
+            for (int i = 1; i < impliedSize && !failed; i++) {
+                if (marks[implied[i]]) {
+                    fix(implied[i]);
+                    necessaryAssignments++;
+                }
+            }
+            for (int i = 0; i < trailSize; i++) {
+                marks[trail[i]] = false;
+            }
+            unprobe();
+            if (failed) {
+                fix(positive);
+                failedLiterals++;
+            }
+            propagate();
+        }
+    }
+
+    /**
+     * Assigns a literal true and propagates it through the clauses, leaving the assigned literals on the
+     * trail.
+     *
+     * @param literal The encoded literal.
+     * @return False if a clause is falsified.
+     */
+    private boolean probe(int literal) {
+        assign(literal);
+        for (int head = 0; head < trailSize; head++) {
+            OccurrenceList falsified = occurrences(trail[head] ^ 1);
+            probingEffort += falsified.size();
+            for (int i = 0; i < falsified.size(); i++) {
+                int clause = falsified.get(i);
+                int unassigned = -1;
+                int count = 0;
+                boolean satisfied = false;
+                for (int k = starts[clause]; k < starts[clause] + sizes[clause] && !satisfied; k++) {
+                    byte value = probeValues[memory[k]];
+                    satisfied = value == TRUE;
+                    if (value == UNASSIGNED) {
+                        unassigned = memory[k];
+                        count++;
+                    }
+                }
+                if (satisfied || count > 1) {
+                    continue;
+                }
+                if (count == 0) {
+                    return false;
+                }
+                assign(unassigned);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assigns a literal true while probing.
+     *
+     * @param literal The encoded literal.
+     */
+    private void assign(int literal) {
+        probeValues[literal] = TRUE;
+        probeValues[literal ^ 1] = FALSE;
+        trail[trailSize++] = literal;
+    }
+
+    /**
+     * Undoes the assignments of the last probe.
+     */
+    private void unprobe() {
+        for (int i = 0; i < trailSize; i++) {
+            probeValues[trail[i]] = UNASSIGNED;
+            probeValues[trail[i] ^ 1] = UNASSIGNED;
+        }
+        trailSize = 0;
+    }
+
+    /**
+     * Checks if a literal occurs in a binary clause.
+     *
+     * @param literal The encoded literal.
+     * @return Does a binary clause contain the literal.
+     */
+    private boolean hasBinaryClause(int literal) {
+        OccurrenceList list = occurrences(literal);
+        for (int i = 0; i < list.size(); i++) {
+            if (sizes[list.get(i)] == 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the equivalent literals as the Strongly Connected Components of the implication graph of the
+     * binary clauses, and replaces every literal by the literal of smallest variable of its component.
+     * Since the graph maps the component of a literal to the component of its negation, the replacement of
+     * the negation of a literal is the negation of its replacement.
+     */
+    private void substituteEquivalences() {
+        int numberOfVertices = 2 * numberOfVariables + 2;
+        int[] sources = new int[16];
+        int[] destinations = new int[16];
+        int numberOfEdges = 0;
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            if (removed[clause] || sizes[clause] != 2) {
+                continue;
+            }
+            if (numberOfEdges + 2 > sources.length) {
+                sources = Arrays.copyOf(sources, 2 * sources.length);
+                destinations = Arrays.copyOf(destinations, 2 * destinations.length);
+            }
+            int first = memory[starts[clause]];
+            int second = memory[starts[clause] + 1];
+            sources[numberOfEdges] = first ^ 1;
+            destinations[numberOfEdges++] = second;
+            sources[numberOfEdges] = second ^ 1;
+            destinations[numberOfEdges++] = first;
+        }
+        if (numberOfEdges == 0) {
+            return;
+        }
+
+        CsrGraph graph = CsrGraph.fromEdges(numberOfVertices, sources, destinations, numberOfEdges);
+        int[] components = graph.getStronglyConnectedComponents();
+        int[] representatives = new int[graph.getNumberOfStronglyConnectedComponents()];
+        Arrays.fill(representatives, Integer.MAX_VALUE);
+        for (int literal = numberOfVertices - 1; literal >= 2; literal--) {
+            representatives[components[literal]] = literal;
+        }
+
+        for (int variable = 1; variable <= numberOfVariables && !unsatisfiable; variable++) {
+            int positive = 2 * variable;
+            if (components[positive] == components[positive + 1]) {
+                unsatisfiable = true;
+                return;
+            }
+            int replacement = representatives[components[positive]];
+            if (replacement == positive) {
+                continue;
+            }
+            if (values[positive] != UNASSIGNED) {
+                fix(values[positive] == TRUE ? replacement : replacement ^ 1);
+                continue;
+            }
+
+            for (int polarity = 0; polarity < 2; polarity++) {
+                OccurrenceList list = occurrences(positive ^ polarity);
+                for (int i = 0; i < list.size(); i++) {
+                    int clause = list.get(i);
+                    int size = substitute(clause, components, representatives);
+                    removeClause(clause);
+                    if (size >= 0) {
+                        addClause(resolvent, size);
+                    }
+                }
+                list.shrink(0);
+            }
+            resolvent[0] = positive;
+            resolvent[1] = replacement ^ 1;
+            pushSaved(resolvent, 2);
+            resolvent[0] = positive ^ 1;
+            resolvent[1] = replacement;
+            pushSaved(resolvent, 2);
+            eliminated[variable] = true;
+            substitutedVariables++;
+        }
+        propagate();
+    }
+
+    /**
+     * Replaces the literals of a clause by their representatives into the resolvent buffer, dropping
+     * repeated literals.
+     *
+     * @param clause          The index of the clause.
+     * @param components      The component of every encoded literal.
+     * @param representatives The representative of every component.
+     * @return The number of literals of the new clause, or -1 if it is a tautology.
+     */
+    private int substitute(int clause, int[] components, int[] representatives) {
+        if (sizes[clause] > resolvent.length) {
+            resolvent = new int[2 * sizes[clause]];
+        }
+        int size = 0;
+        boolean tautology = false;
+        for (int k = starts[clause]; k < starts[clause] + sizes[clause] && !tautology; k++) {
+            int literal = representatives[components[memory[k]]];
+            if (marks[literal]) {
+                continue;
+            }
+            tautology = marks[literal ^ 1];
+            marks[literal] = true;
+            resolvent[size++] = literal;
+        }
+        for (int i = 0; i < size; i++) {
+            marks[resolvent[i]] = false;
+        }
+        return tautology ? -1 : size;
+    }
+
+    /**
+     * Checks the clauses of the subsumption queue, and the clauses added to it meanwhile, against the
+     * clauses they may subsume or strengthen.
+     */
+    private void subsume() {
+        for (int i = 0; i < queueSize && !unsatisfiable; i++) {
+            int clause = queue[i];
+            queued[clause] = false;
+            if (!removed[clause]) {
+                subsume(clause);
+                propagate();
+            }
+        }
+        queueSize = 0;
+    }
+
+    /**
+     * Removes the clauses subsumed by a clause and strengthens the clauses it subsumes but for one negated
+     * literal. The candidates are the clauses which contain the literal of the clause with the fewest
+     * occurrences, or its negation, and whose signature contains the signature of the clause.
+     *
+     * @param clause The index of the clause.
+     */
+    private void subsume(int clause) {
+        int start = starts[clause];
+        int size = sizes[clause];
+        int best = memory[start];
+        for (int k = start; k < start + size; k++) {
+            int literal = memory[k];
+            marks[literal] = true;
+            if (occurrenceCounts[literal] + occurrenceCounts[literal ^ 1]
+                    < occurrenceCounts[best] + occurrenceCounts[best ^ 1]) {
+                best = literal;
+            }
+        }
+
+        int pendingSize = 0;
+        long signature = signatures[clause];
+        for (int polarity = 0; polarity < 2; polarity++) {
+            OccurrenceList candidates = occurrences(best ^ polarity);
+            for (int i = 0; i < candidates.size(); i++) {
+                int other = candidates.get(i);
+                if (other == clause || sizes[other] < size || (signature & ~signatures[other]) != 0) {
+                    continue;
+                }
+                int matched = 0;
+                int negated = -1;
+                boolean candidate = true;
+                for (int k = starts[other]; k < starts[other] + sizes[other] && candidate; k++) {
+                    int literal = memory[k];
+                    if (marks[literal]) {
+                        matched++;
+                    } else if (marks[literal ^ 1]) {
+                        candidate = negated < 0;
+                        negated = literal;
+                    }
+                }
+                if (candidate && matched + (negated >= 0 ? 1 : 0) == size) {
+                    if (pendingSize + 2 > pending.length) {
+                        pending = Arrays.copyOf(pending, 2 * pending.length);
+                    }
+                    pending[pendingSize++] = other;
+                    pending[pendingSize++] = negated;
+                }
+            }
+        }
+        for (int k = start; k < start + size; k++) {
+            marks[memory[k]] = false;
+        }
+
+        for (int i = 0; i < pendingSize; i += 2) {
+            if (pending[i + 1] < 0) {
+                removeClause(pending[i]);
+                subsumedClauses++;
+            } else {
+                strengthen(pending[i], pending[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Removes a literal from a clause by self-subsuming resolution, and queues the clause since it may now
+     * subsume other clauses.
+     *
+     * @param clause  The index of the clause.
+     * @param literal The encoded literal removed.
+     */
+    private void strengthen(int clause, int literal) {
+        int start = starts[clause];
+        int size = sizes[clause];
+        for (int k = start; k < start + size; k++) {
+            if (memory[k] == literal) {
+                memory[k] = memory[start + size - 1];
+                break;
+            }
+        }
+        sizes[clause] = --size;
+        occurrences[literal].remove(clause);
+        occurrenceCounts[literal]--;
+        touched[Literal.variable(literal)] = true;
+        strengthenedClauses++;
+        if (size == 1) {
+            removeClause(clause);
+            fix(memory[start]);
+        } else {
+            signatures[clause] = signature(clause);
+            enqueue(clause);
+        }
+    }
+
+    /**
+     * Computes the signature of a clause.
+     *
+     * @param clause The index of the clause.
+     * @return The signature.
+     */
+    private long signature(int clause) {
+        long signature = 0;
+        for (int k = starts[clause]; k < starts[clause] + sizes[clause]; k++) {
+            signature |= 1L << (Literal.variable(memory[k]) & 63);
+        }
+        return signature;
+    }
+
+    /**
+     * Adds a clause to the subsumption queue unless it is waiting in it already.
+     *
+     * @param clause The index of the clause.
+     */
+    private void enqueue(int clause) {
+        if (!queued[clause]) {
+            if (queueSize == queue.length) {
+                queue = Arrays.copyOf(queue, 2 * queueSize);
+            }
+            queued[clause] = true;
+            queue[queueSize++] = clause;
+        }
+    }
+
+    /**
+     * Tries to eliminate a variable.
+     *
+     * @param variable The variable number.
+     * @return Was the variable eliminated.
+     */
+    private boolean eliminate(int variable) {
+        if (eliminated[variable] || values[2 * variable] != UNASSIGNED) {
+            return false;
+        }
+        int positive = 2 * variable;
+        int negative = positive + 1;
+        int positiveCount = occurrenceCounts[positive];
+        int negativeCount = occurrenceCounts[negative];
+        if (positiveCount + negativeCount == 0 || (long) positiveCount * negativeCount > PAIR_LIMIT) {
+            return false;
+        }
+
+        OccurrenceList positives = occurrences(positive);
+        OccurrenceList negatives = occurrences(negative);
+        int resolvents = 0;
+        for (int i = 0; i < positives.size(); i++) {
+            for (int j = 0; j < negatives.size(); j++) {
+                int size = resolve(positives.get(i), negatives.get(j), variable);
+                if (size > resolventSizeLimit || (size >= 0 && ++resolvents > positiveCount + negativeCount)) {
+                    return false;
+                }
+            }
+        }
+
+        boolean savePositives = positiveCount <= negativeCount;
+        OccurrenceList saved = savePositives ? positives : negatives;
+        for (int i = 0; i < saved.size(); i++) {
+            save(saved.get(i), savePositives ? positive : negative);
+        }
+        resolvent[0] = savePositives ? negative : positive;
+        pushSaved(resolvent, 1);
+
+        for (int i = 0; i < positives.size(); i++) {
+            for (int j = 0; j < negatives.size(); j++) {
+                int size = resolve(positives.get(i), negatives.get(j), variable);
+                if (size >= 0) {
+                    addClause(resolvent, size);
+                }
+            }
+        }
+        for (int i = 0; i < positives.size(); i++) {
+            removeClause(positives.get(i));
+        }
+        for (int i = 0; i < negatives.size(); i++) {
+            removeClause(negatives.get(i));
+        }
+        positives.shrink(0);
+        negatives.shrink(0);
+        eliminated[variable] = true;
+        eliminatedVariables++;
+        propagate();
+        return true;
+    }
+
+    /**
+     * Computes the resolvent of two clauses on a variable into the resolvent buffer.
+     *
+     * @param positive The index of the clause with the positive literal of the variable.
+     * @param negative The index of the clause with the negative literal of the variable.
+     * @param variable The variable number.
+     * @return The number of literals of the resolvent, or -1 if it is a tautology.
+     */
+    private int resolve(int positive, int negative, int variable) {
+        if (sizes[positive] + sizes[negative] > resolvent.length) {
+            resolvent = new int[2 * (sizes[positive] + sizes[negative])];
+        }
+        int size = 0;
+        for (int k = starts[positive]; k < starts[positive] + sizes[positive]; k++) {
+            if (Literal.variable(memory[k]) != variable) {
+                marks[memory[k]] = true;
+                resolvent[size++] = memory[k];
+            }
+        }
+        int shared = size;
+        boolean tautology = false;
+        for (int k = starts[negative]; k < starts[negative] + sizes[negative] && !tautology; k++) {
+            int literal = memory[k];
+            if (Literal.variable(literal) == variable || marks[literal]) {
+                continue;
+            }
+            tautology = marks[literal ^ 1];
+            resolvent[size++] = literal;
+        }
+        for (int i = 0; i < shared; i++) {
+            marks[resolvent[i]] = false;
+        }
+        return tautology ? -1 : size;
+    }
+
+    /**
+     * Saves a clause of an eliminated variable for the extension of models.
+     *
+     * @param clause The index of the clause.
+     * @param pivot  The literal of the eliminated variable in the clause.
+     */
+    private void save(int clause, int pivot) {
+        int size = sizes[clause];
+        if (size > resolvent.length) {
+            resolvent = new int[2 * size];
+        }
+        resolvent[0] = pivot;
+        int length = 1;
+        for (int k = starts[clause]; k < starts[clause] + size; k++) {
+            if (memory[k] != pivot) {
+                resolvent[length++] = memory[k];
+            }
+        }
+        pushSaved(resolvent, length);
+    }
+
+    /**
+     * Pushes a clause on the elimination stack.
+     *
+     * @param literals The literals, the literal of the eliminated variable first.
+     * @param size     Number of literals.
+     */
+    private void pushSaved(int[] literals, int size) {
+        if (stackSize + size + 1 > eliminationStack.length) {
+            eliminationStack = Arrays.copyOf(eliminationStack, Math.max(stackSize + size + 1,
+                    2 * eliminationStack.length));
+        }
+        System.arraycopy(literals, 0, eliminationStack, stackSize, size);
+        stackSize += size;
+        eliminationStack[stackSize++] = size;
+    }
+
+    /**
+     * Adds a clause without repeated or complementary literals. Unit clauses fix their literal instead,
+     * and the empty clause proves the formula unsatisfiable.
+     *
+     * @param literals The encoded literals.
+     * @param size     Number of literals.
+     */
+    private void addClause(int[] literals, int size) {
+        if (size == 0) {
+            unsatisfiable = true;
+            return;
+        }
+        if (size == 1) {
+            fix(literals[0]);
+            return;
+        }
+
+        if (numberOfClauses == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * numberOfClauses);
+            sizes = Arrays.copyOf(sizes, 2 * numberOfClauses);
+            removed = Arrays.copyOf(removed, 2 * numberOfClauses);
+            signatures = Arrays.copyOf(signatures, 2 * numberOfClauses);
+            queued = Arrays.copyOf(queued, 2 * numberOfClauses);
+        }
+        if (top + size > memory.length) {
+            long capacity = Math.max(top + (long) size, 2L * memory.length);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("The formula has too many literals to be preprocessed.");
+            }
+            memory = Arrays.copyOf(memory, (int) capacity);
+        }
+        int clause = numberOfClauses++;
+        starts[clause] = top;
+        sizes[clause] = size;
+        System.arraycopy(literals, 0, memory, top, size);
+        top += size;
+        for (int i = 0; i < size; i++) {
+            occurrences[literals[i]].add(clause);
+            occurrenceCounts[literals[i]]++;
+            touched[Literal.variable(literals[i])] = true;
+        }
+        signatures[clause] = signature(clause);
+        enqueue(clause);
+    }
+
+    /**
+     * Removes a clause. Its entries in the occurrence lists are dropped lazily.
+     *
+     * @param clause The index of the clause.
+     */
+    private void removeClause(int clause) {
+        if (removed[clause]) {
+            return;
+        }
+        removed[clause] = true;
+        for (int k = starts[clause]; k < starts[clause] + sizes[clause]; k++) {
+            occurrenceCounts[memory[k]]--;
+            touched[Literal.variable(memory[k])] = true;
+        }
+    }
+
+    /**
+     * Returns the occurrence list of a literal after dropping the removed clauses from it.
+     *
+     * @param literal The encoded literal.
+     * @return The clauses which are not removed in which the literal occurs.
+     */
+    private OccurrenceList occurrences(int literal) {
+        OccurrenceList list = occurrences[literal];
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (!removed[list.get(i)]) {
+                list.set(kept++, list.get(i));
+            }
+        }
+        list.shrink(kept);
+        return list;
+    }
+
+    /**
+     * Fixes a literal true. Fixing a false literal proves the formula unsatisfiable.
+     *
+     * @param literal The encoded literal.
+     */
+    private void fix(int literal) {
+        if (values[literal] == FALSE) {
+            unsatisfiable = true;
+        } else if (values[literal] == UNASSIGNED) {
+            values[literal] = TRUE;
+            values[literal ^ 1] = FALSE;
+            units[numberOfUnits++] = literal;
+        }
+    }
+
+    /**
+     * Propagates the fixed literals: the clauses they satisfy are removed and their negation is removed
+     * from the other clauses, which may fix further literals.
+     */
+    private void propagate() {
+        while (unitHead < numberOfUnits && !unsatisfiable) {
+            int literal = units[unitHead++];
+            OccurrenceList satisfied = occurrences(literal);
+            for (int i = 0; i < satisfied.size(); i++) {
+                removeClause(satisfied.get(i));
+            }
+            satisfied.shrink(0);
+
+            OccurrenceList falsified = occurrences(literal ^ 1);
+            for (int i = 0; i < falsified.size() && !unsatisfiable; i++) {
+                int clause = falsified.get(i);
+                int start = starts[clause];
+                int size = sizes[clause];
+                for (int k = start; k < start + size; k++) {
+                    if (memory[k] == (literal ^ 1)) {
+                        memory[k] = memory[start + size - 1];
+                        break;
+                    }
+                }
+                sizes[clause] = --size;
+                for (int k = start; k < start + size; k++) {
+                    touched[Literal.variable(memory[k])] = true;
+                }
+                if (size == 1) {
+                    removeClause(clause);
+                    fix(memory[start]);
+                } else {
+                    signatures[clause] = signature(clause);
+                    enqueue(clause);
+                }
+            }
+            falsified.shrink(0);
+            occurrenceCounts[literal ^ 1] = 0;
+        }
+    }
+
+    /**
+     * Builds the formula of the clauses which are not removed.
+     *
+     * @return The simplified formula.
+     */
+    private Formula toFormula() {
+        Formula formula = new Formula(numberOfVariables);
+        if (unsatisfiable) {
+            formula.addClause(new int[0], 0, 0);
+            return formula;
+        }
+        for (int clause = 0; clause < numberOfClauses; clause++) {
+            if (!removed[clause]) {
+                formula.addClause(memory, starts[clause], sizes[clause]);
+            }
+        }
+        return formula;
+    }
+}
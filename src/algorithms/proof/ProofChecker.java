@@ -0,0 +1,985 @@
+package algorithms.proof;
+
+import algorithms.cdcl.WatchList;
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Checker of proofs of unsatisfiability, validating the UNSAT answers of the solvers without external
+ * tools.
+ * <p>
+ * DRAT proofs are checked backwards. A forward pass adds and deletes the clauses of the proof with
+ * watched-literal unit propagation at level 0, until propagation reaches a conflict. The backward pass
+ * then undoes the steps from the last one and only checks the lemmas which took part in the conflict or
+ * in the check of a later lemma, the core lemmas, so the lemmas the refutation does not need are never
+ * checked. A lemma is checked by reverse unit propagation: its literals are assumed false, and propagation
+ * must reach a conflict, whose clauses join the core. If it does not, the lemma must be a resolution
+ * asymmetric tautology on its first literal. Propagation visits the core clauses before the others, which
+ * keeps the core, and so the work of the backward pass, small. As in the usual checkers, the deletion of a
+ * clause which is the reason of a level 0 assignment is ignored.
+ * <p>
+ * LRAT proofs carry the chain of clauses proving every lemma, so they are checked forwards, one lemma at a
+ * time, without search. Only the unit propagation hints of LRAT are supported.
+ * <p>
+ * Proofs are streamed by a {@link ProofReader}, so only their clauses are kept in memory.
+ */
+public class ProofChecker {
+    /**
+     * Number of ints of the header of a clause: its size, its flags, the next clause of its bucket of the
+     * hash table and its first literal in the proof.
+     */
+    private static final int HEADER_SIZE = 4;
+
+    /**
+     * Flag of the clauses which are currently part of the formula.
+     */
+    private static final int ACTIVE = 1;
+
+    /**
+     * Flag of the clauses which take part in the refutation.
+     */
+    private static final int CORE = 2;
+
+    /**
+     * Value of a true literal.
+     */
+    private static final byte TRUE = 1;
+
+    /**
+     * Value of a false literal.
+     */
+    private static final byte FALSE = -1;
+
+    /**
+     * Value of an unassigned literal.
+     */
+    private static final byte UNASSIGNED = 0;
+
+    /**
+     * The formula the proof refutes.
+     */
+    private final Formula formula;
+
+    /**
+     * The headers and literals of the clauses of the formula and of the proof.
+     */
+    private int[] memory;
+
+    /**
+     * Index after the last clause.
+     */
+    private int top;
+
+    /**
+     * The steps of the proof read by the forward pass: the reference of an added clause, or its bitwise
+     * complement for a deleted clause.
+     */
+    private int[] steps;
+
+    /**
+     * Number of steps.
+     */
+    private int numberOfSteps;
+
+    /**
+     * The references of the unit clauses, which have no watches.
+     */
+    private int[] units;
+
+    /**
+     * Number of unit clauses.
+     */
+    private int numberOfUnits;
+
+    /**
+     * Hash table of the active clauses, for finding the deleted ones: the first clause of every bucket or -1.
+     */
+    private int[] buckets;
+
+    /**
+     * Number of clauses in the hash table.
+     */
+    private int hashed;
+
+    /**
+     * Number of variables the per-variable arrays hold, at least the largest variable met so far.
+     */
+    private int numberOfVariables;
+
+    /**
+     * The value of every encoded literal.
+     */
+    private byte[] values;
+
+    /**
+     * The reason of every assigned variable, -1 for assumptions.
+     */
+    private int[] reasons;
+
+    /**
+     * The position of every assigned variable on the trail.
+     */
+    private int[] positions;
+
+    /**
+     * Marks of the variables met by the analysis of a conflict.
+     */
+    private boolean[] seen;
+
+    /**
+     * Marks of the encoded literals of the clause being stored or searched.
+     */
+    private boolean[] marks;
+
+    /**
+     * The assigned literals in assignment order.
+     */
+    private int[] trail;
+
+    /**
+     * Number of assigned literals.
+     */
+    private int trailSize;
+
+    /**
+     * Index of the next literal whose core watches are propagated.
+     */
+    private int coreHead;
+
+    /**
+     * Index of the next literal whose other watches are propagated.
+     */
+    private int head;
+
+    /**
+     * The watches of the core clauses, indexed by the watched literal.
+     */
+    private WatchList[] coreWatches;
+
+    /**
+     * The watches of the other clauses, indexed by the watched literal.
+     */
+    private WatchList[] watches;
+
+    /**
+     * Scratch space for the literals of resolvents.
+     */
+    private int[] resolvent;
+
+    /**
+     * Number of lemmas read.
+     */
+    private long lemmas;
+
+    /**
+     * Number of lemmas checked.
+     */
+    private long checkedLemmas;
+
+    /**
+     * Number of deletions ignored.
+     */
+    private long ignoredDeletions;
+
+    /**
+     * Constructor.
+     *
+     * @param formula The formula in Conjunctive Normal Form the proofs refute.
+     */
+    public ProofChecker(Formula formula) {
+        this.formula = formula;
+    }
+
+    /**
+     * Checks a proof of unsatisfiability of the formula.
+     *
+     * @param proofFileName The name of the proof file.
+     * @param format        The format of the proof.
+     * @return Is the proof valid.
+     * @throws IOException              The proof cannot be read.
+     * @throws IllegalArgumentException The proof is malformed.
+     */
+    public boolean check(String proofFileName, ProofFormat format) throws IOException {
+        initialize();
+        try (ProofReader reader = new ProofReader(proofFileName, format)) {
+            return format == ProofFormat.LRAT ? checkLrat(reader) : checkDrat(reader);
+        }
+    }
+
+    /**
+     * Returns the number of lemmas read by the last check.
+     *
+     * @return Lemmas number.
+     */
+    public long getNumberOfLemmas() {
+        return lemmas;
+    }
+
+    /**
+     * Returns the number of lemmas checked by the last check, the core lemmas for DRAT.
+     *
+     * @return Checked lemmas number.
+     */
+    public long getNumberOfCheckedLemmas() {
+        return checkedLemmas;
+    }
+
+    /**
+     * Returns the number of deletions ignored by the last check, because they deleted reasons of level 0
+     * assignments or clauses which were not in the formula.
+     *
+     * @return Ignored deletions number.
+     */
+    public long getNumberOfIgnoredDeletions() {
+        return ignoredDeletions;
+    }
+
+    /**
+     * Resets the state of the checker and loads the clauses of the formula.
+     */
+    private void initialize() {
+        numberOfVariables = 0;
+        values = new byte[2];
+        reasons = new int[1];
+        positions = new int[1];
+        seen = new boolean[1];
+        marks = new boolean[2];
+        trail = new int[0];
+        coreWatches = new WatchList[0];
+        watches = new WatchList[0];
+        ensureVariable(formula.getNumberOfVariables());
+        memory = new int[1024];
+        top = 0;
+        steps = new int[1024];
+        numberOfSteps = 0;
+        units = new int[16];
+        numberOfUnits = 0;
+        buckets = new int[1024];
+        Arrays.fill(buckets, -1);
+        hashed = 0;
+        trailSize = 0;
+        coreHead = 0;
+        head = 0;
+        resolvent = new int[16];
+        lemmas = 0;
+        checkedLemmas = 0;
+        ignoredDeletions = 0;
+
+        ClauseArena arena = formula.getArena();
+        int[] literals = new int[16];
+        for (int clause = 0; clause < arena.getNumberOfClauses(); clause++) {
+            int size = arena.getSize(clause);
+            if (size > literals.length) {
+                literals = new int[Math.max(size, 2 * literals.length)];
+            }
+            for (int i = 0; i < size; i++) {
+                literals[i] = arena.getLiteral(clause, i);
+            }
+            store(literals, size);
+        }
+    }
+
+    /**
+     * Checks a DRAT proof with a forward pass up to the first conflict and a backward pass over the core.
+     *
+     * @param reader The reader of the proof.
+     * @return Is the proof valid.
+     * @throws IOException The proof cannot be read.
+     */
+    private boolean checkDrat(ProofReader reader) throws IOException {
+        int conflict = -1;
+        for (int clause = 0; clause < top && conflict < 0; clause = next(clause)) {
+            hash(clause);
+            conflict = attach(clause);
+        }
+        if (conflict < 0) {
+            conflict = propagate();
+        }
+
+        while (conflict < 0 && reader.next()) {
+            int[] literals = reader.getLiterals();
+            int size = reader.getSize();
+            if (reader.isDeletion()) {
+                int clause = find(literals, size);
+                if (clause < 0 || isReason(clause)) {
+                    ignoredDeletions++;
+                    continue;
+                }
+                unhash(clause);
+                detach(clause);
+                addStep(~clause);
+            } else {
+                lemmas++;
+                if (size == 0) {
+                    return false;
+                }
+                int clause = store(literals, size);
+                addStep(clause);
+                hash(clause);
+                conflict = attach(clause);
+                if (conflict < 0) {
+                    conflict = propagate();
+                }
+            }
+        }
+        if (conflict < 0) {
+            return false;
+        }
+
+        analyze(conflict, -1);
+        for (int i = numberOfSteps - 1; i >= 0; i--) {
+            int clause = steps[i];
+            if (clause < 0) {
+                if (attach(~clause) >= 0 || propagate() >= 0) {
+                    throw new IllegalStateException("Restored clause conflicts at level 0.");
+                }
+                continue;
+            }
+
+            boolean reason = isReason(clause);
+            detach(clause);
+            if (reason) {
+                unassignLevel0(positions[variable(memory[clause + HEADER_SIZE])]);
+            }
+            if (propagate() >= 0) {
+                throw new IllegalStateException("Clauses before a lemma conflict at level 0.");
+            }
+            if ((memory[clause + 1] & CORE) != 0) {
+                checkedLemmas++;
+                if (!isImplied(memory, clause + HEADER_SIZE, memory[clause])
+                        && !isResolutionAsymmetricTautology(clause)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks an LRAT proof step by step: the hints of every lemma must be unit in turn once the lemma is
+     * falsified, and the last one falsified.
+     *
+     * @param reader The reader of the proof.
+     * @return Is the proof valid.
+     * @throws IOException The proof cannot be read.
+     */
+    private boolean checkLrat(ProofReader reader) throws IOException {
+        int numberOfClauses = formula.getArena().getNumberOfClauses();
+        int[] clauses = new int[Math.max(16, 2 * numberOfClauses + 1)];
+        Arrays.fill(clauses, -1);
+        for (int clause = 0, id = 1; clause < top; clause = next(clause), id++) {
+            clauses[id] = clause;
+        }
+
+        while (reader.next()) {
+            int[] hints = reader.getHints();
+            if (reader.isDeletion()) {
+                for (int i = 0; i < reader.getHintCount(); i++) {
+                    if (hints[i] < clauses.length) {
+                        clauses[hints[i]] = -1;
+                    }
+                }
+                continue;
+            }
+
+            lemmas++;
+            checkedLemmas++;
+            int[] literals = reader.getLiterals();
+            int size = reader.getSize();
+            for (int i = 0; i < size; i++) {
+                ensureVariable(variable(literals[i]));
+                if (values[literals[i]] == UNASSIGNED) {
+                    assign(literals[i] ^ 1, -1);
+                }
+            }
+            boolean conflict = false;
+            for (int i = 0; i < reader.getHintCount() && !conflict; i++) {
+                int clause = hints[i] > 0 && hints[i] < clauses.length ? clauses[hints[i]] : -1;
+                if (clause < 0) {
+                    break;
+                }
+                int unit = -1;
+                int open = 0;
+                for (int k = clause + HEADER_SIZE; k < next(clause); k++) {
+                    if (values[memory[k]] == TRUE) {
+                        open = 2;
+                    } else if (values[memory[k]] == UNASSIGNED) {
+                        unit = memory[k];
+                        open++;
+                    }
+                }
+                if (open > 1) {
+                    break;
+                }
+                if (open == 0) {
+                    conflict = true;
+                } else {
+                    assign(unit, clause);
+                }
+            }
+            backtrack(0);
+            if (!conflict) {
+                return false;
+            }
+            if (size == 0) {
+                return true;
+            }
+
+            int id = reader.getId();
+            if (id <= 0) {
+                return false;
+            }
+            if (id >= clauses.length) {
+                int length = clauses.length;
+                clauses = Arrays.copyOf(clauses, Math.max(id + 1, 2 * length));
+                Arrays.fill(clauses, length, clauses.length, -1);
+            }
+            clauses[id] = store(literals, size);
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a clause is implied by reverse unit propagation: assuming its literals false leads to a
+     * conflict. The clauses of the conflict join the core. Must be called with the level 0 assignments
+     * propagated, which are kept.
+     *
+     * @param literals The array holding the encoded literals.
+     * @param from     Index of the first literal.
+     * @param size     Number of literals.
+     * @return Does propagation reach a conflict.
+     */
+    private boolean isImplied(int[] literals, int from, int size) {
+        int level0 = trailSize;
+        int satisfied = -1;
+        for (int i = from; i < from + size; i++) {
+            if (values[literals[i]] == TRUE) {
+                satisfied = literals[i];
+                break;
+            }
+            if (values[literals[i]] == UNASSIGNED) {
+                assign(literals[i] ^ 1, -1);
+            }
+        }
+        int conflict = satisfied < 0 ? propagate() : -1;
+        boolean implied = satisfied >= 0 || conflict >= 0;
+        if (implied) {
+            analyze(conflict, satisfied);
+        }
+        backtrack(level0);
+        return implied;
+    }
+
+    /**
+     * Checks if a lemma is a resolution asymmetric tautology on its first literal in the proof: every
+     * resolvent with an active clause containing the negation of that literal is implied by reverse unit
+     * propagation.
+     *
+     * @param lemma The reference of the lemma, which must not be active.
+     * @return Is the lemma a resolution asymmetric tautology.
+     */
+    private boolean isResolutionAsymmetricTautology(int lemma) {
+        int size = memory[lemma];
+        if (size == 0) {
+            return false;
+        }
+        int pivot = memory[lemma + 3];
+        for (int clause = 0; clause < top; clause = next(clause)) {
+            if ((memory[clause + 1] & ACTIVE) == 0) {
+                continue;
+            }
+            int first = clause + HEADER_SIZE;
+            int end = first + memory[clause];
+            boolean candidate = false;
+            for (int k = first; k < end && !candidate; k++) {
+                candidate = memory[k] == (pivot ^ 1);
+            }
+            if (!candidate) {
+                continue;
+            }
+
+            if (size + end - first > resolvent.length) {
+                resolvent = new int[2 * (size + end - first)];
+            }
+            System.arraycopy(memory, lemma + HEADER_SIZE, resolvent, 0, size);
+            int length = size;
+            for (int k = first; k < end; k++) {
+                if (memory[k] != (pivot ^ 1)) {
+                    resolvent[length++] = memory[k];
+                }
+            }
+            if (!isImplied(resolvent, 0, length)) {
+                return false;
+            }
+            memory[clause + 1] |= CORE;
+        }
+        return true;
+    }
+
+    /**
+     * Adds to the core the clauses responsible for a conflict: the conflicting clause and the reasons of
+     * the assignments which falsify it, found by walking the trail backwards.
+     *
+     * @param conflict  The reference of the conflicting clause, -1 if there is none.
+     * @param satisfied A literal assumed false while being true, -1 if there is none.
+     */
+    private void analyze(int conflict, int satisfied) {
+        if (conflict >= 0) {
+            memory[conflict + 1] |= CORE;
+            for (int k = conflict + HEADER_SIZE; k < conflict + HEADER_SIZE + memory[conflict]; k++) {
+                seen[variable(memory[k])] = true;
+            }
+        } else {
+            seen[variable(satisfied)] = true;
+        }
+
+        for (int i = trailSize - 1; i >= 0; i--) {
+            int variable = variable(trail[i]);
+            if (!seen[variable]) {
+                continue;
+            }
+            seen[variable] = false;
+            int reason = reasons[variable];
+            if (reason < 0) {
+                continue;
+            }
+            memory[reason + 1] |= CORE;
+            for (int k = reason + HEADER_SIZE + 1; k < reason + HEADER_SIZE + memory[reason]; k++) {
+                seen[variable(memory[k])] = true;
+            }
+        }
+    }
+
+    /**
+     * Propagates the pending assignments, through the core clauses first: a watch of another clause is
+     * only visited when the core clauses have nothing left to propagate.
+     *
+     * @return The reference of a conflicting clause or -1 if there is no conflict.
+     */
+    private int propagate() {
+        while (true) {
+            int conflict;
+            if (coreHead < trailSize) {
+                conflict = propagate(trail[coreHead++] ^ 1, true);
+            } else if (head < trailSize) {
+                conflict = propagate(trail[head++] ^ 1, false);
+            } else {
+                return -1;
+            }
+            if (conflict >= 0) {
+                return conflict;
+            }
+        }
+    }
+
+    /**
+     * Visits the clauses of one watch list of a literal which became false. Clauses of the other watch
+     * lists which joined the core since they were attached move to the core watch lists.
+     *
+     * @param falseLiteral The literal which became false.
+     * @param core         Is the watch list the one of the core clauses.
+     * @return The reference of a conflicting clause or -1 if there is no conflict.
+     */
+    private int propagate(int falseLiteral, boolean core) {
+        WatchList watchList = core ? coreWatches[falseLiteral] : watches[falseLiteral];
+        int size = watchList.size();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int clause = watchList.get(i);
+            int first = clause + HEADER_SIZE;
+            if (memory[first] == falseLiteral) {
+                memory[first] = memory[first + 1];
+                memory[first + 1] = falseLiteral;
+            }
+            boolean moved = !core && (memory[clause + 1] & CORE) != 0;
+
+            if (values[memory[first]] != TRUE) {
+                boolean replaced = false;
+                int end = first + memory[clause];
+                for (int k = first + 2; k < end; k++) {
+                    if (values[memory[k]] != FALSE) {
+                        memory[first + 1] = memory[k];
+                        memory[k] = falseLiteral;
+                        watchListOf(clause, memory[first + 1]).add(clause);
+                        replaced = true;
+                        break;
+                    }
+                }
+                if (replaced) {
+                    continue;
+                }
+            }
+
+            if (moved) {
+                coreWatches[falseLiteral].add(clause);
+            } else {
+                watchList.set(kept++, clause);
+            }
+            if (values[memory[first]] == FALSE) {
+                while (++i < size) {
+                    watchList.set(kept++, watchList.get(i));
+                }
+                watchList.shrink(kept);
+                return clause;
+            }
+            if (values[memory[first]] == UNASSIGNED) {
+                assign(memory[first], clause);
+            }
+        }
+        watchList.shrink(kept);
+        return -1;
+    }
+
+    /**
+     * Makes a clause active and watches two of its literals, preferring literals which are not false.
+     * A clause with at most one literal which is not false has it assigned, or is a conflict.
+     *
+     * @param clause The reference of the clause.
+     * @return The reference of the clause if it is falsified, -1 otherwise.
+     */
+    private int attach(int clause) {
+        memory[clause + 1] |= ACTIVE;
+        int first = clause + HEADER_SIZE;
+        int size = memory[clause];
+        int open = 0;
+        for (int k = first; k < first + size && open < 2; k++) {
+            if (values[memory[k]] != FALSE) {
+                int literal = memory[k];
+                memory[k] = memory[first + open];
+                memory[first + open++] = literal;
+            }
+        }
+
+        if (size == 1) {
+            if (numberOfUnits == units.length) {
+                units = Arrays.copyOf(units, 2 * numberOfUnits);
+            }
+            units[numberOfUnits++] = clause;
+        } else if (size > 1) {
+            watchListOf(clause, memory[first]).add(clause);
+            watchListOf(clause, memory[first + 1]).add(clause);
+        }
+        if (open == 0) {
+            return clause;
+        }
+        if (open == 1 && values[memory[first]] == UNASSIGNED) {
+            assign(memory[first], clause);
+        }
+        return -1;
+    }
+
+    /**
+     * Makes a clause inactive and removes its watches.
+     *
+     * @param clause The reference of the clause.
+     */
+    private void detach(int clause) {
+        memory[clause + 1] &= ~ACTIVE;
+        int first = clause + HEADER_SIZE;
+        if (memory[clause] > 1) {
+            removeWatch(memory[first], clause);
+            removeWatch(memory[first + 1], clause);
+        }
+    }
+
+    /**
+     * Removes the watch of a clause from the watch lists of a literal.
+     *
+     * @param literal The watched literal.
+     * @param clause  The reference of the clause.
+     */
+    private void removeWatch(int literal, int clause) {
+        for (WatchList watchList : new WatchList[]{watches[literal], coreWatches[literal]}) {
+            int size = watchList.size();
+            for (int i = 0; i < size; i++) {
+                if (watchList.get(i) == clause) {
+                    for (int k = i + 1; k < size; k++) {
+                        watchList.set(k - 1, watchList.get(k));
+                    }
+                    watchList.shrink(size - 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the watch list a clause is added to when it watches a literal.
+     *
+     * @param clause  The reference of the clause.
+     * @param literal The watched literal.
+     * @return The core watch list of the literal for core clauses, its other watch list otherwise.
+     */
+    private WatchList watchListOf(int clause, int literal) {
+        return (memory[clause + 1] & CORE) != 0 ? coreWatches[literal] : watches[literal];
+    }
+
+    /**
+     * Checks if a clause is the reason of a level 0 assignment. The literal implied by a clause is always
+     * its first one.
+     *
+     * @param clause The reference of the clause.
+     * @return Is the clause a reason.
+     */
+    private boolean isReason(int clause) {
+        if (memory[clause] == 0) {
+            return false;
+        }
+        int literal = memory[clause + HEADER_SIZE];
+        return values[literal] == TRUE && reasons[variable(literal)] == clause;
+    }
+
+    /**
+     * Assigns a literal true.
+     *
+     * @param literal The encoded literal.
+     * @param reason  The reference of the clause implying it, -1 for an assumption.
+     */
+    private void assign(int literal, int reason) {
+        values[literal] = TRUE;
+        values[literal ^ 1] = FALSE;
+        reasons[variable(literal)] = reason;
+        positions[variable(literal)] = trailSize;
+        trail[trailSize++] = literal;
+    }
+
+    /**
+     * Undoes the assignments from a position of the trail on, which were made after the level 0
+     * assignments.
+     *
+     * @param position The position of the first assignment undone.
+     */
+    private void backtrack(int position) {
+        for (int i = position; i < trailSize; i++) {
+            values[trail[i]] = UNASSIGNED;
+            values[trail[i] ^ 1] = UNASSIGNED;
+        }
+        trailSize = position;
+        coreHead = Math.min(coreHead, position);
+        head = Math.min(head, position);
+    }
+
+    /**
+     * Undoes level 0 assignments from a position of the trail on, once their first one lost its reason.
+     * The undone literals may still be implied through other clauses, so the unit clauses are assigned
+     * again and the whole trail is propagated again.
+     *
+     * @param position The position of the first assignment undone.
+     */
+    private void unassignLevel0(int position) {
+        backtrack(position);
+        coreHead = 0;
+        head = 0;
+        for (int i = 0; i < numberOfUnits; i++) {
+            int literal = memory[units[i] + HEADER_SIZE];
+            if ((memory[units[i] + 1] & ACTIVE) != 0 && values[literal] == UNASSIGNED) {
+                assign(literal, units[i]);
+            }
+        }
+    }
+
+    /**
+     * Stores a clause without activating it. Duplicate literals are dropped.
+     *
+     * @param literals The encoded literals.
+     * @param size     Number of literals.
+     * @return The reference of the clause.
+     */
+    private int store(int[] literals, int size) {
+        if (top + HEADER_SIZE + size > memory.length) {
+            long capacity = Math.max(top + HEADER_SIZE + (long) size, 2L * memory.length);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("The proof has too many literals.");
+            }
+            memory = Arrays.copyOf(memory, (int) capacity);
+        }
+        int clause = top;
+        int first = clause + HEADER_SIZE;
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            ensureVariable(variable(literals[i]));
+            if (!marks[literals[i]]) {
+                marks[literals[i]] = true;
+                memory[first + length++] = literals[i];
+            }
+        }
+        for (int k = first; k < first + length; k++) {
+            marks[memory[k]] = false;
+        }
+        memory[clause] = length;
+        memory[clause + 1] = 0;
+        memory[clause + 2] = -1;
+        memory[clause + 3] = size > 0 ? literals[0] : -1;
+        top = first + length;
+        return clause;
+    }
+
+    /**
+     * Returns the reference of the clause after a clause.
+     *
+     * @param clause The reference of the clause.
+     * @return The reference of the next clause, or {@link #top} after the last one.
+     */
+    private int next(int clause) {
+        return clause + HEADER_SIZE + memory[clause];
+    }
+
+    /**
+     * Appends a step to the steps of the forward pass.
+     *
+     * @param step The reference of an added clause, or its bitwise complement for a deleted clause.
+     */
+    private void addStep(int step) {
+        if (numberOfSteps == steps.length) {
+            steps = Arrays.copyOf(steps, 2 * numberOfSteps);
+        }
+        steps[numberOfSteps++] = step;
+    }
+
+    /**
+     * Finds an active clause with the given literals, in any order.
+     *
+     * @param literals The encoded literals, possibly repeated.
+     * @param size     Number of literals.
+     * @return The reference of the clause, -1 if there is none.
+     */
+    private int find(int[] literals, int size) {
+        if (size > resolvent.length) {
+            resolvent = new int[2 * size];
+        }
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            ensureVariable(variable(literals[i]));
+            if (!marks[literals[i]]) {
+                marks[literals[i]] = true;
+                resolvent[distinct++] = literals[i];
+            }
+        }
+
+        int found = -1;
+        for (int clause = buckets[hash(resolvent, 0, distinct) & (buckets.length - 1)];
+             clause >= 0 && found < 0; clause = memory[clause + 2]) {
+            boolean same = memory[clause] == distinct;
+            for (int k = clause + HEADER_SIZE; k < next(clause) && same; k++) {
+                same = marks[memory[k]];
+            }
+            if (same) {
+                found = clause;
+            }
+        }
+        for (int i = 0; i < distinct; i++) {
+            marks[resolvent[i]] = false;
+        }
+        return found;
+    }
+
+    /**
+     * Inserts a clause into the hash table, which doubles when it holds as many clauses as buckets.
+     *
+     * @param clause The reference of the clause.
+     */
+    private void hash(int clause) {
+        if (hashed == buckets.length) {
+            int[] old = buckets;
+            buckets = new int[2 * old.length];
+            Arrays.fill(buckets, -1);
+            for (int bucket : old) {
+                while (bucket >= 0) {
+                    int next = memory[bucket + 2];
+                    insert(bucket);
+                    bucket = next;
+                }
+            }
+        }
+        insert(clause);
+        hashed++;
+    }
+
+    /**
+     * Links a clause at the start of its bucket.
+     *
+     * @param clause The reference of the clause.
+     */
+    private void insert(int clause) {
+        int bucket = hash(memory, clause + HEADER_SIZE, memory[clause]) & (buckets.length - 1);
+        memory[clause + 2] = buckets[bucket];
+        buckets[bucket] = clause;
+    }
+
+    /**
+     * Removes a clause from the hash table.
+     *
+     * @param clause The reference of the clause.
+     */
+    private void unhash(int clause) {
+        int bucket = hash(memory, clause + HEADER_SIZE, memory[clause]) & (buckets.length - 1);
+        if (buckets[bucket] == clause) {
+            buckets[bucket] = memory[clause + 2];
+        } else {
+            int previous = buckets[bucket];
+            while (memory[previous + 2] != clause) {
+                previous = memory[previous + 2];
+            }
+            memory[previous + 2] = memory[clause + 2];
+        }
+        hashed--;
+    }
+
+    /**
+     * Computes a hash of distinct literals which does not depend on their order.
+     *
+     * @param literals The array holding the encoded literals.
+     * @param from     Index of the first literal.
+     * @param size     Number of literals.
+     * @return The hash.
+     */
+    private static int hash(int[] literals, int from, int size) {
+        int sum = 0;
+        int xor = 0;
+        for (int i = from; i < from + size; i++) {
+            sum += literals[i] * 0x9E3779B1;
+            xor ^= literals[i] * 0x85EBCA77;
+        }
+        int hash = sum ^ xor;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Grows the per-variable arrays so that they hold a variable.
+     *
+     * @param variable The variable number.
+     */
+    private void ensureVariable(int variable) {
+        if (variable <= numberOfVariables) {
+            return;
+        }
+        int capacity = Math.max(variable, 2 * numberOfVariables);
+        values = Arrays.copyOf(values, 2 * capacity + 2);
+        reasons = Arrays.copyOf(reasons, capacity + 1);
+        positions = Arrays.copyOf(positions, capacity + 1);
+        seen = Arrays.copyOf(seen, capacity + 1);
+        marks = Arrays.copyOf(marks, 2 * capacity + 2);
+        trail = Arrays.copyOf(trail, capacity);
+        int literals = coreWatches.length;
+        coreWatches = Arrays.copyOf(coreWatches, 2 * capacity + 2);
+        watches = Arrays.copyOf(watches, 2 * capacity + 2);
+        for (int literal = literals; literal < coreWatches.length; literal++) {
+            coreWatches[literal] = new WatchList();
+            watches[literal] = new WatchList();
+        }
+        numberOfVariables = capacity;
+    }
+
+    /**
+     * Returns the variable of an encoded literal.
+     *
+     * @param literal The encoded literal.
+     * @return The variable number.
+     */
+    private static int variable(int literal) {
+        return literal >> 1;
+    }
+}
@@ -0,0 +1,25 @@
+package algorithms.proof;
+
+/**
+ * Formats of the proofs of unsatisfiability written by the CDCL solver.
+ */
+public enum ProofFormat {
+    /**
+     * Binary DRAT: every step is 'a' or 'd' followed by the literals as variable-length unsigned ints,
+     * the literal of variable v being 2v for v and 2v + 1 for its negation, ended by a 0 byte.
+     */
+    BINARY_DRAT,
+
+    /**
+     * Textual DRAT: one step per line, the literals in the DIMACS convention ended by 0, deletions
+     * starting with "d".
+     */
+    DRAT,
+
+    /**
+     * Textual LRAT: every added clause has an identifier and lists the identifiers of the clauses which
+     * prove it by unit propagation, in propagation order, so it can be checked without search. The clauses
+     * of the formula have identifiers 1 to m in their order.
+     */
+    LRAT
+}
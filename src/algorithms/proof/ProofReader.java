@@ -0,0 +1,356 @@
+package algorithms.proof;
+
+import algorithms.cnf.Literal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of the steps of a proof of unsatisfiability.
+ * The file is memory-mapped one window at a time, so proofs much larger than the heap are read without
+ * copying them, and steps crossing the end of a window are decoded across it. Every call to
+ * {@link #next()} decodes one step, whose content stays available until the next call.
+ */
+public class ProofReader implements Closeable {
+    /**
+     * Largest number of bytes mapped in memory at once.
+     */
+    private static final long MAPPING_WINDOW = 1L << 30;
+
+    /**
+     * The format of the proof.
+     */
+    private final ProofFormat format;
+
+    /**
+     * The channel of the proof file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Size of the proof file in bytes.
+     */
+    private final long fileSize;
+
+    /**
+     * The mapped window being decoded, null before the first one.
+     */
+    private ByteBuffer window;
+
+    /**
+     * Offset in the file of the end of the current window.
+     */
+    private long windowEnd;
+
+    /**
+     * Is the current step a deletion.
+     */
+    private boolean deletion;
+
+    /**
+     * Identifier of the current step, for LRAT.
+     */
+    private int id;
+
+    /**
+     * The encoded literals of the current step.
+     */
+    private int[] literals;
+
+    /**
+     * Number of literals of the current step.
+     */
+    private int size;
+
+    /**
+     * The hints of the current addition, or the identifiers of the clauses of the current deletion, for
+     * LRAT.
+     */
+    private int[] hints;
+
+    /**
+     * Number of hints of the current step.
+     */
+    private int hintCount;
+
+    /**
+     * Value of the last number read from a text proof.
+     */
+    private int number;
+
+    /**
+     * Constructor.
+     *
+     * @param fileName The name of the proof file.
+     * @param format   The format of the proof.
+     * @throws IOException The file cannot be opened.
+     */
+    public ProofReader(String fileName, ProofFormat format) throws IOException {
+        this.format = format;
+        channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        fileSize = channel.size();
+        literals = new int[16];
+        hints = new int[16];
+    }
+
+    /**
+     * Decodes the next step of the proof.
+     *
+     * @return False if the proof has no more steps.
+     * @throws IOException              The file cannot be read.
+     * @throws IllegalArgumentException The proof is malformed.
+     */
+    public boolean next() throws IOException {
+        size = 0;
+        hintCount = 0;
+        if (format == ProofFormat.BINARY_DRAT) {
+            return nextBinary();
+        } else if (format == ProofFormat.DRAT) {
+            return nextText();
+        } else {
+            return nextLrat();
+        }
+    }
+
+    /**
+     * Checks if the current step deletes clauses.
+     *
+     * @return Is the step a deletion.
+     */
+    public boolean isDeletion() {
+        return deletion;
+    }
+
+    /**
+     * Returns the identifier of the current step, for LRAT.
+     *
+     * @return The identifier.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the literals of the current step. Only the first {@link #getSize()} are meaningful.
+     *
+     * @return The encoded literals.
+     */
+    public int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * Returns the number of literals of the current step.
+     *
+     * @return Literals number.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the hints of the current addition, or the identifiers of the clauses of the current
+     * deletion, for LRAT. Only the first {@link #getHintCount()} are meaningful.
+     *
+     * @return The clause identifiers.
+     */
+    public int[] getHints() {
+        return hints;
+    }
+
+    /**
+     * Returns the number of hints of the current step.
+     *
+     * @return Hints number.
+     */
+    public int getHintCount() {
+        return hintCount;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException The file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Decodes a binary DRAT step: 'a' or 'd' followed by variable-length literals ended by 0.
+     *
+     * @return False at the end of the proof.
+     * @throws IOException The file cannot be read.
+     */
+    private boolean nextBinary() throws IOException {
+        int marker = nextByte();
+        if (marker < 0) {
+            return false;
+        }
+        if (marker != 'a' && marker != 'd') {
+            throw new IllegalArgumentException("Malformed binary proof file.");
+        }
+        deletion = marker == 'd';
+        while (true) {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = nextByte();
+                if (b < 0 || shift > 28) {
+                    throw new IllegalArgumentException("Malformed binary proof file.");
+                }
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (value == 0) {
+                return true;
+            }
+            addLiteral(value);
+        }
+    }
+
+    /**
+     * Decodes a text DRAT step: literals ended by 0, preceded by "d" for deletions.
+     *
+     * @return False at the end of the proof.
+     * @throws IOException The file cannot be read.
+     */
+    private boolean nextText() throws IOException {
+        int token = nextToken();
+        if (token < 0) {
+            return false;
+        }
+        deletion = token == 'd';
+        if (deletion) {
+            token = nextToken();
+        }
+        while (token == '0' && number != 0) {
+            addLiteral(Literal.encode(number));
+            token = nextToken();
+        }
+        if (token != '0') {
+            throw new IllegalArgumentException("Malformed proof file.");
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a text LRAT step: an identifier followed either by literals ended by 0 and hints ended by 0,
+     * or by "d" and the identifiers of the deleted clauses ended by 0.
+     *
+     * @return False at the end of the proof.
+     * @throws IOException The file cannot be read.
+     */
+    private boolean nextLrat() throws IOException {
+        int token = nextToken();
+        if (token < 0) {
+            return false;
+        }
+        if (token != '0') {
+            throw new IllegalArgumentException("Malformed proof file.");
+        }
+        id = number;
+        token = nextToken();
+        deletion = token == 'd';
+        if (deletion) {
+            token = nextToken();
+        } else {
+            while (token == '0' && number != 0) {
+                addLiteral(Literal.encode(number));
+                token = nextToken();
+            }
+            token = nextToken();
+        }
+        while (token == '0' && number != 0) {
+            if (hintCount == hints.length) {
+                hints = Arrays.copyOf(hints, 2 * hintCount);
+            }
+            hints[hintCount++] = number;
+            token = nextToken();
+        }
+        if (token != '0') {
+            throw new IllegalArgumentException("Malformed proof file.");
+        }
+        return true;
+    }
+
+    /**
+     * Appends a literal to the current step.
+     *
+     * @param literal The encoded literal.
+     */
+    private void addLiteral(int literal) {
+        if (size == literals.length) {
+            literals = Arrays.copyOf(literals, 2 * size);
+        }
+        literals[size++] = literal;
+    }
+
+    /**
+     * Reads the next token of a text proof, skipping whitespace and comment lines.
+     *
+     * @return '0' for a number, whose value is left in {@link #number}, 'd' for a deletion marker, or -1
+     * at the end of the file.
+     * @throws IOException The file cannot be read.
+     */
+    private int nextToken() throws IOException {
+        int b = nextByte();
+        while (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == 'c') {
+            if (b == 'c') {
+                while (b >= 0 && b != '\n') {
+                    b = nextByte();
+                }
+            }
+            b = nextByte();
+        }
+        if (b < 0) {
+            return -1;
+        }
+        if (b == 'd') {
+            return 'd';
+        }
+
+        boolean negative = b == '-';
+        if (negative) {
+            b = nextByte();
+        }
+        if (b < '0' || b > '9') {
+            throw new IllegalArgumentException("Malformed proof file.");
+        }
+        long value = 0;
+        while (b >= '0' && b <= '9') {
+            value = 10 * value + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Malformed proof file.");
+            }
+            b = nextByte();
+        }
+        number = (int) (negative ? -value : value);
+        return '0';
+    }
+
+    /**
+     * Reads the next byte of the file, mapping the next window when the current one is exhausted.
+     *
+     * @return The byte as an unsigned value, or -1 at the end of the file.
+     * @throws IOException The file cannot be mapped.
+     */
+    private int nextByte() throws IOException {
+        if (window == null || !window.hasRemaining()) {
+            if (windowEnd >= fileSize) {
+                return -1;
+            }
+            long length = Math.min(MAPPING_WINDOW, fileSize - windowEnd);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, length);
+            windowEnd += length;
+        }
+        return window.get() & 0xFF;
+    }
+}
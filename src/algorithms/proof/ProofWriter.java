@@ -0,0 +1,338 @@
+package algorithms.proof;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streaming writer of the proof of unsatisfiability produced by the CDCL solver.
+ * The steps are encoded into a large buffer, and full buffers are written to the file channel by a
+ * background thread while the solver fills a second buffer, so the solver only waits for the disk when
+ * it produces a proof faster than the disk can take it.
+ * <p>
+ * Since the steps are written from the inner loop of the solver, write failures are reported as
+ * {@link UncheckedIOException}s, at the latest by {@link #close()}.
+ */
+public class ProofWriter implements Closeable {
+    /**
+     * Size in bytes of each of the two buffers.
+     */
+    private static final int BUFFER_SIZE = 1 << 22;
+
+    /**
+     * Largest number of bytes written for a number, in any format.
+     */
+    private static final int NUMBER_SIZE = 12;
+
+    /**
+     * The format of the proof.
+     */
+    private final ProofFormat format;
+
+    /**
+     * The channel of the proof file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The buffer being filled.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Buffers waiting to be written by the background thread; an empty buffer stops the thread.
+     */
+    private final BlockingQueue<ByteBuffer> full;
+
+    /**
+     * Buffers which have been written and can be filled again.
+     */
+    private final BlockingQueue<ByteBuffer> free;
+
+    /**
+     * The background thread writing the full buffers.
+     */
+    private final Thread writer;
+
+    /**
+     * The failure of the background thread, null if there is none.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Number of bytes written to the buffers.
+     */
+    private long bytes;
+
+    /**
+     * Identifier of the last clause added, which numbers the deletion steps of LRAT proofs.
+     */
+    private int lastId;
+
+    /**
+     * Scratch space for the digits of a number.
+     */
+    private final byte[] digits;
+
+    /**
+     * Constructor. Creates the proof file or truncates it.
+     *
+     * @param fileName The name of the proof file.
+     * @param format   The format of the proof.
+     * @throws IOException The file cannot be opened.
+     */
+    public ProofWriter(String fileName, ProofFormat format) throws IOException {
+        this.format = format;
+        channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        full = new ArrayBlockingQueue<>(2);
+        free = new ArrayBlockingQueue<>(2);
+        free.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        digits = new byte[NUMBER_SIZE];
+        writer = new Thread(this::writeBuffers, "proof-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns the format of the proof.
+     *
+     * @return The format.
+     */
+    public ProofFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Checks if the proof needs the identifiers of the clauses and the hints of every added clause.
+     *
+     * @return Is the format LRAT.
+     */
+    public boolean isLrat() {
+        return format == ProofFormat.LRAT;
+    }
+
+    /**
+     * Returns the number of bytes of the proof so far.
+     *
+     * @return Bytes number.
+     */
+    public long getBytesWritten() {
+        return bytes + buffer.position();
+    }
+
+    /**
+     * Writes the addition of a clause.
+     *
+     * @param id        The identifier of the clause, used by LRAT.
+     * @param literals  The array holding the encoded literals.
+     * @param from      Index of the first literal.
+     * @param size      Number of literals.
+     * @param hints     The identifiers of the clauses proving the clause by unit propagation, used by LRAT.
+     * @param hintCount Number of hints.
+     */
+    public void add(int id, int[] literals, int from, int size, int[] hints, int hintCount) {
+        lastId = id;
+        if (format == ProofFormat.BINARY_DRAT) {
+            ensureRemaining(1);
+            buffer.put((byte) 'a');
+            writeBinaryLiterals(literals, from, size);
+        } else if (format == ProofFormat.DRAT) {
+            writeTextLiterals(literals, from, size);
+            ensureRemaining(1);
+            buffer.put((byte) '\n');
+        } else {
+            writeNumber(id);
+            writeTextLiterals(literals, from, size);
+            for (int i = 0; i < hintCount; i++) {
+                writeNumber(hints[i]);
+            }
+            ensureRemaining(2);
+            buffer.put((byte) '0').put((byte) '\n');
+        }
+    }
+
+    /**
+     * Writes the deletion of a clause.
+     *
+     * @param id       The identifier of the clause, used by LRAT.
+     * @param literals The array holding the encoded literals, used by DRAT.
+     * @param from     Index of the first literal.
+     * @param size     Number of literals.
+     */
+    public void delete(int id, int[] literals, int from, int size) {
+        if (format == ProofFormat.BINARY_DRAT) {
+            ensureRemaining(1);
+            buffer.put((byte) 'd');
+            writeBinaryLiterals(literals, from, size);
+        } else if (format == ProofFormat.DRAT) {
+            ensureRemaining(2);
+            buffer.put((byte) 'd').put((byte) ' ');
+            writeTextLiterals(literals, from, size);
+            ensureRemaining(1);
+            buffer.put((byte) '\n');
+        } else {
+            writeNumber(lastId);
+            ensureRemaining(2);
+            buffer.put((byte) 'd').put((byte) ' ');
+            writeNumber(id);
+            ensureRemaining(2);
+            buffer.put((byte) '0').put((byte) '\n');
+        }
+    }
+
+    /**
+     * Writes the remaining steps and closes the file.
+     *
+     * @throws IOException The proof cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (buffer.position() > 0) {
+                swap();
+            }
+            full.put(ByteBuffer.allocate(0));
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the proof.");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes literals as variable-length unsigned ints followed by a 0 byte. The encoding of the literals
+     * is the one of binary DRAT.
+     *
+     * @param literals The array holding the encoded literals.
+     * @param from     Index of the first literal.
+     * @param size     Number of literals.
+     */
+    private void writeBinaryLiterals(int[] literals, int from, int size) {
+        for (int i = from; i < from + size; i++) {
+            ensureRemaining(NUMBER_SIZE);
+            int value = literals[i];
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+        ensureRemaining(1);
+        buffer.put((byte) 0);
+    }
+
+    /**
+     * Writes literals in the DIMACS convention followed by 0.
+     *
+     * @param literals The array holding the encoded literals.
+     * @param from     Index of the first literal.
+     * @param size     Number of literals.
+     */
+    private void writeTextLiterals(int[] literals, int from, int size) {
+        for (int i = from; i < from + size; i++) {
+            int literal = literals[i];
+            writeNumber((literal & 1) == 0 ? literal >> 1 : -(literal >> 1));
+        }
+        ensureRemaining(2);
+        buffer.put((byte) '0').put((byte) ' ');
+    }
+
+    /**
+     * Writes a decimal number followed by a space.
+     *
+     * @param value The number.
+     */
+    private void writeNumber(int value) {
+        ensureRemaining(NUMBER_SIZE);
+        long magnitude = Math.abs((long) value);
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + magnitude % 10);
+            magnitude /= 10;
+        } while (magnitude > 0);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+        buffer.put((byte) ' ');
+    }
+
+    /**
+     * Makes sure the buffer has room for the given number of bytes, handing it to the background thread
+     * if it has not.
+     *
+     * @param needed Number of bytes.
+     */
+    private void ensureRemaining(int needed) {
+        if (buffer.remaining() < needed) {
+            try {
+                swap();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while writing the proof."));
+            }
+        }
+    }
+
+    /**
+     * Hands the current buffer to the background thread and takes a free one.
+     *
+     * @throws InterruptedException The thread was interrupted while waiting for a free buffer.
+     */
+    private void swap() throws InterruptedException {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        bytes += buffer.position();
+        buffer.flip();
+        full.put(buffer);
+        buffer = free.take();
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * Loop of the background thread, writing the full buffers until it receives an empty one.
+     */
+    private void writeBuffers() {
+        while (true) {
+            ByteBuffer next;
+            try {
+                next = full.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (next.capacity() == 0) {
+                return;
+            }
+            try {
+                while (next.hasRemaining() && failure == null) {
+                    channel.write(next);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            next.clear();
+            free.add(next);
+        }
+    }
+}
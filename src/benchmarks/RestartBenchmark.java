@@ -0,0 +1,143 @@
+package benchmarks;
+
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.RestartStrategy;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+import algorithms.cnf.Literal;
+import algorithms.cnf.utils.FileReaderUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the restart strategies of the CDCL solver.
+ * Every family of instances is solved once per strategy and the total time, conflicts and restarts are
+ * printed. The families are given on the command line as files, one family per argument with the files
+ * separated by commas; without arguments, random 3-SAT instances at the satisfiability threshold and
+ * pigeonhole instances are generated.
+ */
+public class RestartBenchmark {
+    /**
+     * Main method.
+     *
+     * @param args Families of formula files, the files of a family separated by commas.
+     */
+    public static void main(String[] args) {
+        Map<String, List<Formula>> families = new LinkedHashMap<>();
+        if (args.length == 0) {
+            families.put("random 3-SAT n=200", randomFamily(200, 4.26, 10));
+            families.put("pigeonhole 9 in 8", List.of(pigeonhole(8)));
+        } else {
+            for (String family : args) {
+                List<Formula> formulas = new ArrayList<>();
+                for (String fileName : family.split(",")) {
+                    formulas.add(FileReaderUtils.parseFormulaFromFile(fileName));
+                }
+                families.put(family, formulas);
+            }
+        }
+
+        Map<String, SolverConfiguration> configurations = new LinkedHashMap<>();
+        configurations.put("none", configuration(RestartStrategy.NONE, true));
+        configurations.put("luby", configuration(RestartStrategy.LUBY, true));
+        configurations.put("geometric", configuration(RestartStrategy.GEOMETRIC, true));
+        configurations.put("glucose", configuration(RestartStrategy.GLUCOSE, true));
+        configurations.put("glucose, no reuse", configuration(RestartStrategy.GLUCOSE, false));
+
+        System.out.printf("%-24s %-18s %10s %12s %10s %6s%n", "family", "strategy", "time (s)", "conflicts",
+                "restarts", "sat");
+        for (Map.Entry<String, List<Formula>> family : families.entrySet()) {
+            for (Map.Entry<String, SolverConfiguration> configuration : configurations.entrySet()) {
+                long conflicts = 0;
+                long restarts = 0;
+                int satisfiable = 0;
+                long start = System.nanoTime();
+                for (Formula formula : family.getValue()) {
+                    CDCLSolver solver = new CDCLSolver(formula, configuration.getValue());
+                    if (solver.solve() == SolverResult.SATISFIABLE) {
+                        satisfiable++;
+                    }
+                    conflicts += solver.getNumberOfConflicts();
+                    restarts += solver.getNumberOfRestarts();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-24s %-18s %10.3f %12d %10d %3d/%-2d%n", family.getKey(), configuration.getKey(),
+                        seconds, conflicts, restarts, satisfiable, family.getValue().size());
+            }
+        }
+    }
+
+    /**
+     * Creates a solver configuration with phase saving.
+     *
+     * @param strategy   The restart strategy.
+     * @param trailReuse Should restarts reuse the trail.
+     * @return The configuration.
+     */
+    private static SolverConfiguration configuration(RestartStrategy strategy, boolean trailReuse) {
+        SolverConfiguration configuration = new SolverConfiguration();
+        configuration.setRestartStrategy(strategy);
+        configuration.setTrailReuse(trailReuse);
+        return configuration;
+    }
+
+    /**
+     * Generates random 3-SAT formulas.
+     *
+     * @param numberOfVariables Number of variables of every formula.
+     * @param ratio             Ratio of clauses to variables.
+     * @param count             Number of formulas.
+     * @return The formulas.
+     */
+    private static List<Formula> randomFamily(int numberOfVariables, double ratio, int count) {
+        List<Formula> formulas = new ArrayList<>();
+        for (int seed = 0; seed < count; seed++) {
+            Random random = new Random(seed);
+            Formula formula = new Formula(numberOfVariables);
+            int[] clause = new int[3];
+            for (int i = 0; i < (int) (ratio * numberOfVariables); i++) {
+                for (int j = 0; j < 3; j++) {
+                    int variable = 1 + random.nextInt(numberOfVariables);
+                    clause[j] = Literal.encode(random.nextBoolean() ? variable : -variable);
+                }
+                formula.addClause(clause, 0, 3);
+            }
+            formulas.add(formula);
+        }
+        return formulas;
+    }
+
+    /**
+     * Generates the unsatisfiable formula placing one more pigeon than there are holes, with at most one
+     * pigeon per hole.
+     *
+     * @param holes Number of holes.
+     * @return The formula.
+     */
+    private static Formula pigeonhole(int holes) {
+        int pigeons = holes + 1;
+        Formula formula = new Formula(pigeons * holes);
+        int[] clause = new int[holes];
+        for (int pigeon = 0; pigeon < pigeons; pigeon++) {
+            for (int hole = 0; hole < holes; hole++) {
+                clause[hole] = Literal.encode(pigeon * holes + hole + 1);
+            }
+            formula.addClause(clause, 0, holes);
+        }
+        for (int hole = 0; hole < holes; hole++) {
+            for (int first = 0; first < pigeons; first++) {
+                for (int second = first + 1; second < pigeons; second++) {
+                    clause[0] = Literal.encode(-(first * holes + hole + 1));
+                    clause[1] = Literal.encode(-(second * holes + hole + 1));
+                    formula.addClause(clause, 0, 2);
+                }
+            }
+        }
+        return formula;
+    }
+}
@@ -0,0 +1,153 @@
+package checks;
+
+import algorithms.cnf.Clause;
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+import algorithms.cnf.Literal;
+import algorithms.cnf.OffHeapClauseArena;
+import algorithms.cnf.utils.BinaryFormulaFile;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Regression check of the binary formula files.
+ * Random formulas, some of whose clauses lost literals after being added, are written with both encodings
+ * and loaded back, memory-mapped and into a heap arena; the loaded clauses must be the written ones.
+ * Files whose header or content is corrupted must be rejected with an {@link IllegalArgumentException}.
+ */
+public class BinaryFormulaCheck {
+    /**
+     * Number of random formulas written and loaded.
+     */
+    private static final int ROUNDS = 500;
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     * @throws IOException The temporary files cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+        Path file = Files.createTempFile("binary-check", ".satb");
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Formula formula = randomFormula(random, round % 2 == 0
+                        ? new HeapClauseArena() : new OffHeapClauseArena(1L << 20));
+                for (int encoding : new int[]{BinaryFormulaFile.RAW, BinaryFormulaFile.COMPACT}) {
+                    BinaryFormulaFile.write(formula, file.toString(), encoding);
+                    if (!sameClauses(formula, BinaryFormulaFile.load(file.toString()))
+                            || !sameClauses(formula, BinaryFormulaFile.load(file.toString(), new HeapClauseArena()))) {
+                        throw new IllegalStateException("Binary formula check failed: round " + round
+                                + ", encoding " + encoding + ".");
+                    }
+                }
+            }
+
+            Formula formula;
+            do {
+                formula = randomFormula(random, new HeapClauseArena());
+            } while (formula.getArena().getNumberOfLiterals() == 0);
+            for (int encoding : new int[]{BinaryFormulaFile.RAW, BinaryFormulaFile.COMPACT}) {
+                BinaryFormulaFile.write(formula, file.toString(), encoding);
+                corrupt(file, 16, 0, "variable out of range, encoding " + encoding);
+                BinaryFormulaFile.write(formula, file.toString(), encoding);
+                corrupt(file, 24, 1 << 20, "wrong literal count, encoding " + encoding);
+            }
+        } finally {
+            Files.delete(file);
+        }
+        System.out.println("All binary formula checks passed.");
+    }
+
+    /**
+     * Generates a random formula of clauses without repeated literals, then removes a literal from some
+     * of its clauses, leaving gaps in the arena.
+     *
+     * @param random The source of randomness.
+     * @param arena  The empty arena in which the clauses are stored.
+     * @return The formula.
+     */
+    private static Formula randomFormula(Random random, ClauseArena arena) {
+        int numberOfVariables = 1 + random.nextInt(40);
+        Formula formula = new Formula(numberOfVariables, arena);
+        int numberOfClauses = random.nextInt(60);
+        int[] clause = new int[10];
+        for (int i = 0; i < numberOfClauses; i++) {
+            int size = random.nextInt(Math.min(clause.length, numberOfVariables) + 1);
+            int length = 0;
+            while (length < size) {
+                int literal = Literal.encode(random.nextBoolean() ? 1 + random.nextInt(numberOfVariables)
+                        : -1 - random.nextInt(numberOfVariables));
+                boolean repeated = false;
+                for (int j = 0; j < length; j++) {
+                    repeated |= Literal.variable(clause[j]) == Literal.variable(literal);
+                }
+                if (!repeated) {
+                    clause[length++] = literal;
+                }
+            }
+            formula.addClause(clause, 0, length);
+        }
+        for (Clause view : formula.getClauses()) {
+            if (view.getNumberOfLiterals() > 0 && random.nextInt(3) == 0) {
+                view.removeLiteral(new Literal(Literal.decode(view.getEncodedLiteral(0))));
+            }
+        }
+        return formula;
+    }
+
+    /**
+     * Overwrites an int of a binary formula file and checks that loading it fails.
+     *
+     * @param file     The file.
+     * @param position The position of the int, from the start of the file.
+     * @param value    The new value, little-endian.
+     * @param name     The name of the case.
+     * @throws IOException The file cannot be written.
+     */
+    private static void corrupt(Path file, long position, int value, String name) throws IOException {
+        try (RandomAccessFile access = new RandomAccessFile(file.toFile(), "rw")) {
+            access.seek(position);
+            access.writeInt(Integer.reverseBytes(value));
+        }
+        try {
+            BinaryFormulaFile.load(file.toString());
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new IllegalStateException("Binary formula check failed: " + name + " was loaded.");
+    }
+
+    /**
+     * Checks if two formulas hold the same clauses in the same order.
+     *
+     * @param first  The first formula.
+     * @param second The second formula.
+     * @return Are the clauses the same.
+     */
+    private static boolean sameClauses(Formula first, Formula second) {
+        ClauseArena a = first.getArena();
+        ClauseArena b = second.getArena();
+        if (first.getNumberOfVariables() != second.getNumberOfVariables()
+                || a.getNumberOfClauses() != b.getNumberOfClauses()) {
+            return false;
+        }
+        for (int clause = 0; clause < a.getNumberOfClauses(); clause++) {
+            if (a.getSize(clause) != b.getSize(clause)) {
+                return false;
+            }
+            for (int i = 0; i < a.getSize(clause); i++) {
+                if (a.getLiteral(clause, i) != b.getLiteral(clause, i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package checks;
+
+import algorithms.GeneralSAT;
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.RestartStrategy;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+import algorithms.cnf.exceptions.UnsatisfiableFormulaException;
+
+import java.util.Random;
+
+/**
+ * Regression check of the CDCL solver against a brute force search.
+ * Small random formulas are solved under several configurations, from the default one to frequent restarts
+ * and reductions of the learned clauses, random decisions and no phase saving. The outcome must be the one of
+ * the brute force search and every model must satisfy the formula. The same solver is then asked to solve the
+ * formula under random assumptions: a model must satisfy them, and the failed assumptions of an unsatisfiable
+ * search must be a subset of the assumptions which is unsatisfiable together with the formula.
+ */
+public class CDCLSolverCheck {
+    /**
+     * Number of random formulas.
+     */
+    private static final int ROUNDS = 4000;
+
+    /**
+     * Number of searches under assumptions for every formula and configuration.
+     */
+    private static final int ASSUMPTION_QUERIES = 4;
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        SolverConfiguration[] configurations = configurations();
+        for (int round = 0; round < ROUNDS; round++) {
+            int numberOfVariables = 1 + random.nextInt(14);
+            int[][] clauses = CheckUtils.randomClauses(random, numberOfVariables,
+                    1 + random.nextInt(6 * numberOfVariables), 1 + random.nextInt(4));
+            boolean expected = CheckUtils.bruteForce(numberOfVariables, clauses);
+            Formula formula = CheckUtils.formula(numberOfVariables, clauses);
+
+            for (int c = 0; c < configurations.length; c++) {
+                String name = "round " + round + ", configuration " + c;
+                CDCLSolver solver = new CDCLSolver(formula, configurations[c]);
+                SolverResult result = solver.solve();
+                if ((result == SolverResult.SATISFIABLE) != expected
+                        || (expected && !CheckUtils.satisfies(solver.getModel(), clauses))) {
+                    throw new IllegalStateException("CDCL solver check failed: " + name + ".");
+                }
+                for (int query = 0; query < ASSUMPTION_QUERIES; query++) {
+                    int[] assumptions = CheckUtils.randomClause(random, numberOfVariables,
+                            random.nextInt(Math.min(4, numberOfVariables) + 1));
+                    checkAssumptions(solver, numberOfVariables, clauses, assumptions, name + ", query " + query);
+                }
+            }
+
+            boolean correct;
+            try {
+                boolean[] model = GeneralSAT.solveGeneralSAT(formula);
+                correct = expected && CheckUtils.satisfies(model, clauses);
+            } catch (UnsatisfiableFormulaException e) {
+                correct = !expected;
+            }
+            if (!correct) {
+                throw new IllegalStateException("CDCL solver check failed: round " + round + ", with preprocessing.");
+            }
+        }
+        System.out.println("All CDCL solver checks passed.");
+    }
+
+    /**
+     * Returns the configurations under which every formula is solved.
+     *
+     * @return The configurations.
+     */
+    private static SolverConfiguration[] configurations() {
+        SolverConfiguration frequent = new SolverConfiguration();
+        frequent.setRestartStrategy(RestartStrategy.LUBY);
+        frequent.setRestartInterval(2);
+        frequent.setFirstReduction(2);
+        frequent.setReductionIncrement(1);
+        frequent.setLearnedClauseMemoryLimit(64);
+
+        SolverConfiguration randomized = new SolverConfiguration();
+        randomized.setRandomSeed(7);
+        randomized.setRandomDecisionFrequency(0.2);
+        randomized.setNegativeInitialPhase(false);
+
+        SolverConfiguration plain = new SolverConfiguration();
+        plain.setRestartStrategy(RestartStrategy.NONE);
+        plain.setPhaseSaving(false);
+        plain.setTrailReuse(false);
+        return new SolverConfiguration[]{new SolverConfiguration(), frequent, randomized, plain};
+    }
+
+    /**
+     * Solves a formula under assumptions and compares the outcome with a brute force search.
+     *
+     * @param solver            The solver of the formula.
+     * @param numberOfVariables Number of variables.
+     * @param clauses           The encoded literals of every clause of the formula.
+     * @param assumptions       The encoded literals assumed true.
+     * @param name              The name of the case.
+     */
+    private static void checkAssumptions(CDCLSolver solver, int numberOfVariables, int[][] clauses,
+                                         int[] assumptions, String name) {
+        int[][] assumed = CheckUtils.withUnits(clauses, assumptions);
+        boolean expected = CheckUtils.bruteForce(numberOfVariables, assumed);
+        SolverResult result = solver.solve(assumptions);
+        boolean correct;
+        if (result == SolverResult.SATISFIABLE) {
+            correct = expected && CheckUtils.satisfies(solver.getModel(), assumed);
+        } else {
+            int[] failed = solver.getFailedAssumptions();
+            correct = result == SolverResult.UNSATISFIABLE && !expected
+                    && CheckUtils.isSubset(failed, assumptions)
+                    && !CheckUtils.bruteForce(numberOfVariables, CheckUtils.withUnits(clauses, failed));
+        }
+        if (!correct) {
+            throw new IllegalStateException("CDCL solver check failed: " + name + ", assumptions.");
+        }
+    }
+}
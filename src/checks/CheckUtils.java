@@ -0,0 +1,200 @@
+package checks;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+import algorithms.cnf.Literal;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Random formulas and brute force searches shared by the checks.
+ */
+class CheckUtils {
+    /**
+     * Largest number of variables of a brute force search.
+     */
+    static final int MAX_BRUTE_FORCE_VARIABLES = 20;
+
+    /**
+     * Generates random clauses of distinct variables.
+     *
+     * @param random            The source of randomness.
+     * @param numberOfVariables Number of variables.
+     * @param numberOfClauses   Number of clauses.
+     * @param maximumSize       Largest number of literals of a clause.
+     * @return The encoded literals of every clause.
+     */
+    static int[][] randomClauses(Random random, int numberOfVariables, int numberOfClauses, int maximumSize) {
+        int[][] clauses = new int[numberOfClauses][];
+        for (int i = 0; i < numberOfClauses; i++) {
+            clauses[i] = randomClause(random, numberOfVariables,
+                    1 + random.nextInt(Math.min(maximumSize, numberOfVariables)));
+        }
+        return clauses;
+    }
+
+    /**
+     * Generates a random clause of distinct variables.
+     *
+     * @param random            The source of randomness.
+     * @param numberOfVariables Number of variables, at least the size of the clause.
+     * @param size              Number of literals.
+     * @return The encoded literals of the clause.
+     */
+    static int[] randomClause(Random random, int numberOfVariables, int size) {
+        int[] clause = new int[size];
+        for (int j = 0; j < size; j++) {
+            int variable;
+            boolean repeated;
+            do {
+                variable = 1 + random.nextInt(numberOfVariables);
+                repeated = false;
+                for (int k = 0; k < j; k++) {
+                    repeated |= Literal.variable(clause[k]) == variable;
+                }
+            } while (repeated);
+            clause[j] = Literal.encode(random.nextBoolean() ? variable : -variable);
+        }
+        return clause;
+    }
+
+    /**
+     * Builds a formula on the heap.
+     *
+     * @param numberOfVariables Number of variables.
+     * @param clauses           The encoded literals of every clause.
+     * @return The formula.
+     */
+    static Formula formula(int numberOfVariables, int[][] clauses) {
+        return formula(numberOfVariables, clauses, new HeapClauseArena());
+    }
+
+    /**
+     * Builds a formula in the given arena.
+     *
+     * @param numberOfVariables Number of variables.
+     * @param clauses           The encoded literals of every clause.
+     * @param arena             The empty arena in which the clauses are stored.
+     * @return The formula.
+     */
+    static Formula formula(int numberOfVariables, int[][] clauses, ClauseArena arena) {
+        Formula formula = new Formula(numberOfVariables, arena);
+        for (int[] clause : clauses) {
+            formula.addClause(clause, 0, clause.length);
+        }
+        return formula;
+    }
+
+    /**
+     * Returns the clauses of a formula.
+     *
+     * @param formula The formula.
+     * @return The encoded literals of every clause.
+     */
+    static int[][] clauses(Formula formula) {
+        ClauseArena arena = formula.getArena();
+        int[][] clauses = new int[arena.getNumberOfClauses()][];
+        for (int clause = 0; clause < clauses.length; clause++) {
+            clauses[clause] = new int[arena.getSize(clause)];
+            for (int i = 0; i < clauses[clause].length; i++) {
+                clauses[clause][i] = arena.getLiteral(clause, i);
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * Appends a unit clause for every given literal.
+     *
+     * @param clauses  The encoded literals of every clause.
+     * @param literals The encoded literals of the units.
+     * @return A new array of the clauses followed by the units.
+     */
+    static int[][] withUnits(int[][] clauses, int[] literals) {
+        int[][] all = Arrays.copyOf(clauses, clauses.length + literals.length);
+        for (int i = 0; i < literals.length; i++) {
+            all[clauses.length + i] = new int[]{literals[i]};
+        }
+        return all;
+    }
+
+    /**
+     * Checks if clauses are satisfiable by trying every assignment. Every clause is turned into the masks of
+     * its positive and negative variables, so an assignment is checked with two bitwise operations per
+     * clause.
+     *
+     * @param numberOfVariables Number of variables, at most {@link #MAX_BRUTE_FORCE_VARIABLES}.
+     * @param clauses           The encoded literals of every clause.
+     * @return Is there a satisfying assignment.
+     */
+    static boolean bruteForce(int numberOfVariables, int[][] clauses) {
+        if (numberOfVariables > MAX_BRUTE_FORCE_VARIABLES) {
+            throw new IllegalArgumentException("Too many variables for a brute force search: "
+                    + numberOfVariables + ".");
+        }
+        int[] positive = new int[clauses.length];
+        int[] negative = new int[clauses.length];
+        for (int i = 0; i < clauses.length; i++) {
+            for (int literal : clauses[i]) {
+                int bit = 1 << (Literal.variable(literal) - 1);
+                if (Literal.isNegated(literal)) {
+                    negative[i] |= bit;
+                } else {
+                    positive[i] |= bit;
+                }
+            }
+        }
+        for (int assignment = 0; assignment < 1 << numberOfVariables; assignment++) {
+            boolean satisfied = true;
+            for (int i = 0; i < clauses.length && satisfied; i++) {
+                satisfied = (assignment & positive[i]) != 0 || (~assignment & negative[i]) != 0;
+            }
+            if (satisfied) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if an assignment satisfies clauses.
+     *
+     * @param model   The value of every variable, the variable i being at index i - 1.
+     * @param clauses The encoded literals of every clause.
+     * @return Is every clause satisfied.
+     */
+    static boolean satisfies(boolean[] model, int[][] clauses) {
+        for (int[] clause : clauses) {
+            boolean satisfied = false;
+            for (int literal : clause) {
+                satisfied |= model[Literal.variable(literal) - 1] != Literal.isNegated(literal);
+            }
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if every literal of a set is one of the literals of another.
+     *
+     * @param subset   The encoded literals of the set.
+     * @param superset The encoded literals of the other set.
+     * @return Is the first set included in the second.
+     */
+    static boolean isSubset(int[] subset, int[] superset) {
+        for (int literal : subset) {
+            boolean found = false;
+            for (int other : superset) {
+                found |= literal == other;
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
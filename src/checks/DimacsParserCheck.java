@@ -0,0 +1,95 @@
+package checks;
+
+import algorithms.cnf.ClauseArena;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+import algorithms.cnf.utils.DimacsParser;
+import algorithms.cnf.utils.ParallelDimacsParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Regression check of the DIMACS parsers on the ends of files.
+ * Every input is parsed by the sequential and the parallel parser, which must produce the same clauses in
+ * the same order. The inputs include a last clause without its terminating 0 and without a final new line,
+ * on its own and at the end of a file large enough to be split into several chunks.
+ */
+public class DimacsParserCheck {
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     * @throws IOException The temporary files cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        check("unterminated last clause", "p cnf 3 2\n-1 0\n1 2 3", 2);
+        check("last literal without new line", "p cnf 3 2\n-1 0\n1 2 3 0", 2);
+        check("last clause with new line", "p cnf 3 2\n-1 0\n1 2 3\n", 2);
+        check("clause spanning lines", "p cnf 3 2\n-1\n0 1 2\n3", 2);
+        check("end of formula marker", "p cnf 3 2\n-1 0\n1 2 3 0\n%\n0\n", 2);
+
+        StringBuilder large = new StringBuilder("p cnf 1000 400001\n");
+        Random random = new Random(1);
+        for (int i = 0; i < 400000; i++) {
+            for (int j = 0; j < 3; j++) {
+                large.append(random.nextBoolean() ? "" : "-").append(1 + random.nextInt(1000)).append(' ');
+            }
+            large.append("0\n");
+        }
+        large.append("-12 345 678");
+        check("unterminated last clause of several chunks", large.toString(), 400001);
+        System.out.println("All DIMACS parser checks passed.");
+    }
+
+    /**
+     * Parses an input with both parsers and compares the formulas.
+     *
+     * @param name            The name of the case.
+     * @param content         The DIMACS input.
+     * @param expectedClauses The number of clauses of the input.
+     * @throws IOException The temporary file cannot be written.
+     */
+    private static void check(String name, String content, int expectedClauses) throws IOException {
+        Path file = Files.createTempFile("dimacs-check", ".cnf");
+        try {
+            Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+            Formula sequential = DimacsParser.parseFile(file.toString(), new HeapClauseArena());
+            Formula parallel = new ParallelDimacsParser().parseFile(file.toString(), new HeapClauseArena());
+            if (sequential.getNumberOfClauses() != expectedClauses || !sameClauses(sequential, parallel)) {
+                throw new IllegalStateException("DIMACS parser check failed: " + name + ".");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Checks if two formulas hold the same clauses in the same order.
+     *
+     * @param first  The first formula.
+     * @param second The second formula.
+     * @return Are the clauses the same.
+     */
+    private static boolean sameClauses(Formula first, Formula second) {
+        ClauseArena a = first.getArena();
+        ClauseArena b = second.getArena();
+        if (a.getNumberOfClauses() != b.getNumberOfClauses()) {
+            return false;
+        }
+        for (int clause = 0; clause < a.getNumberOfClauses(); clause++) {
+            if (a.getSize(clause) != b.getSize(clause)) {
+                return false;
+            }
+            for (int i = 0; i < a.getSize(clause); i++) {
+                if (a.getLiteral(clause, i) != b.getLiteral(clause, i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
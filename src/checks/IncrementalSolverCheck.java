@@ -0,0 +1,161 @@
+package checks;
+
+import algorithms.cdcl.IncrementalSolver;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Literal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Regression check of the incremental solver against a brute force search.
+ * Random sequences of new variables, clauses, pushes, pops and searches under random assumptions are run on
+ * one solver, while the clauses of every open scope are tracked separately. Every search must have the
+ * outcome of a brute force search over the clauses of the base formula and of the open scopes together with
+ * the assumptions. A model must satisfy them, and the failed assumptions of an unsatisfiable search must be
+ * a subset of the assumptions which is unsatisfiable together with the clauses.
+ */
+public class IncrementalSolverCheck {
+    /**
+     * Number of random sequences.
+     */
+    private static final int ROUNDS = 1000;
+
+    /**
+     * Number of operations of a sequence.
+     */
+    private static final int OPERATIONS = 60;
+
+    /**
+     * Largest number of variables of a sequence.
+     */
+    private static final int MAX_VARIABLES = 12;
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            int numberOfVariables = 1 + random.nextInt(6);
+            IncrementalSolver solver = new IncrementalSolver(numberOfVariables);
+            // The solver numbers of the variables, the variable i being at index i - 1.
+            int[] variables = new int[MAX_VARIABLES];
+            for (int i = 0; i < numberOfVariables; i++) {
+                variables[i] = i + 1;
+            }
+            // The clauses of the base formula first, then those of every open scope.
+            List<List<int[]>> scopes = new ArrayList<>();
+            scopes.add(new ArrayList<>());
+
+            for (int operation = 0; operation < OPERATIONS; operation++) {
+                String name = "round " + round + ", operation " + operation;
+                int kind = random.nextInt(10);
+                if (kind == 0 && numberOfVariables < MAX_VARIABLES) {
+                    variables[numberOfVariables++] = solver.newVariable();
+                } else if (kind == 1) {
+                    solver.push();
+                    scopes.add(new ArrayList<>());
+                } else if (kind == 2 && solver.getDepth() > 0) {
+                    solver.pop();
+                    scopes.remove(scopes.size() - 1);
+                } else if (kind < 7) {
+                    int[] clause = CheckUtils.randomClause(random, numberOfVariables,
+                            1 + random.nextInt(Math.min(3, numberOfVariables)));
+                    solver.addClause(toSolver(clause, variables));
+                    scopes.get(scopes.size() - 1).add(clause);
+                } else {
+                    int[] assumptions = CheckUtils.randomClause(random, numberOfVariables,
+                            random.nextInt(Math.min(3, numberOfVariables) + 1));
+                    checkSolve(solver, numberOfVariables, variables, scopes, assumptions, name);
+                }
+                if (solver.getDepth() != scopes.size() - 1) {
+                    throw new IllegalStateException("Incremental solver check failed: " + name + ", depth.");
+                }
+            }
+        }
+        System.out.println("All incremental solver checks passed.");
+    }
+
+    /**
+     * Solves the active clauses under assumptions and compares the outcome with a brute force search.
+     *
+     * @param solver            The incremental solver.
+     * @param numberOfVariables Number of variables of the sequence.
+     * @param variables         The solver numbers of the variables, the variable i being at index i - 1.
+     * @param scopes            The clauses of the base formula and of every open scope.
+     * @param assumptions       The encoded literals assumed true, over the variables of the sequence.
+     * @param name              The name of the case.
+     */
+    private static void checkSolve(IncrementalSolver solver, int numberOfVariables, int[] variables,
+                                   List<List<int[]>> scopes, int[] assumptions, String name) {
+        List<int[]> active = new ArrayList<>();
+        for (List<int[]> scope : scopes) {
+            active.addAll(scope);
+        }
+        int[][] clauses = active.toArray(new int[0][]);
+        int[][] assumed = CheckUtils.withUnits(clauses, assumptions);
+        boolean expected = CheckUtils.bruteForce(numberOfVariables, assumed);
+
+        int[] solverAssumptions = toSolver(assumptions, variables);
+        SolverResult result = solver.solve(solverAssumptions);
+        boolean correct;
+        if (result == SolverResult.SATISFIABLE) {
+            boolean[] solverModel = solver.getModel();
+            boolean[] model = new boolean[numberOfVariables];
+            for (int i = 0; i < numberOfVariables; i++) {
+                model[i] = solverModel[variables[i] - 1];
+            }
+            correct = expected && CheckUtils.satisfies(model, assumed);
+        } else {
+            int[] failed = solver.getFailedAssumptions();
+            correct = result == SolverResult.UNSATISFIABLE && !expected
+                    && CheckUtils.isSubset(failed, solverAssumptions)
+                    && !CheckUtils.bruteForce(numberOfVariables,
+                    CheckUtils.withUnits(clauses, fromSolver(failed, variables)));
+        }
+        if (!correct) {
+            throw new IllegalStateException("Incremental solver check failed: " + name + ", assumptions "
+                    + Arrays.toString(assumptions) + ".");
+        }
+    }
+
+    /**
+     * Translates literals over the variables of the sequence to literals over the variables of the solver.
+     *
+     * @param literals  The encoded literals over the variables of the sequence.
+     * @param variables The solver numbers of the variables, the variable i being at index i - 1.
+     * @return The encoded literals over the variables of the solver.
+     */
+    private static int[] toSolver(int[] literals, int[] variables) {
+        int[] translated = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            translated[i] = 2 * variables[Literal.variable(literals[i]) - 1] + (literals[i] & 1);
+        }
+        return translated;
+    }
+
+    /**
+     * Translates literals over the variables of the solver back to literals over the variables of the
+     * sequence.
+     *
+     * @param literals  The encoded literals over the variables of the solver.
+     * @param variables The solver numbers of the variables, the variable i being at index i - 1.
+     * @return The encoded literals over the variables of the sequence.
+     */
+    private static int[] fromSolver(int[] literals, int[] variables) {
+        int[] translated = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            int variable = 0;
+            while (variables[variable] != Literal.variable(literals[i])) {
+                variable++;
+            }
+            translated[i] = 2 * (variable + 1) + (literals[i] & 1);
+        }
+        return translated;
+    }
+}
@@ -0,0 +1,120 @@
+package checks;
+
+import algorithms.SATUtils;
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+import algorithms.cnf.HeapClauseArena;
+import algorithms.cnf.Literal;
+import algorithms.cnf.OffHeapClauseArena;
+import algorithms.cnf.exceptions.MemoryBudgetExceededException;
+import algorithms.cnf.utils.BinaryFormulaFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Regression check of the CDCL solver on formulas stored outside of the heap.
+ * Random formulas are stored on the heap, in an {@link OffHeapClauseArena} and in a memory-mapped binary
+ * file. Small ones are solved from every store and compared with a brute force search; larger ones, with
+ * frequent reductions of the learned clauses, must be solved with the same outcome after the same number of
+ * conflicts from every store. A database which does not fit in the budget left by the arena must fail with
+ * a {@link MemoryBudgetExceededException}.
+ */
+public class OffHeapSolverCheck {
+    /**
+     * Number of small random formulas checked against brute force.
+     */
+    private static final int SMALL_ROUNDS = 3000;
+
+    /**
+     * Number of larger random formulas solved from every store.
+     */
+    private static final int LARGE_ROUNDS = 20;
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     * @throws IOException The temporary file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+        Path file = Files.createTempFile("off-heap-check", ".satb");
+        try {
+            for (int round = 0; round < SMALL_ROUNDS; round++) {
+                int numberOfVariables = 1 + random.nextInt(12);
+                int[][] clauses = CheckUtils.randomClauses(random, numberOfVariables,
+                        1 + random.nextInt(5 * numberOfVariables), 1 + random.nextInt(4));
+                boolean expected = CheckUtils.bruteForce(numberOfVariables, clauses);
+                SolverConfiguration configuration = new SolverConfiguration();
+                for (Formula formula : stores(numberOfVariables, clauses, file)) {
+                    CDCLSolver solver = new CDCLSolver(formula, configuration);
+                    SolverResult result = solver.solve();
+                    if ((result == SolverResult.SATISFIABLE) != expected || (expected
+                            && !SATUtils.checkAssignment(formula, solver.getModel()))) {
+                        throw new IllegalStateException("Off-heap solver check failed: small round " + round + ".");
+                    }
+                }
+            }
+
+            for (int round = 0; round < LARGE_ROUNDS; round++) {
+                int numberOfVariables = 100 + random.nextInt(50);
+                int[][] clauses = CheckUtils.randomClauses(random, numberOfVariables,
+                        (int) (4.26 * numberOfVariables), 3);
+                SolverConfiguration configuration = new SolverConfiguration();
+                configuration.setFirstReduction(100);
+                configuration.setReductionIncrement(50);
+                configuration.setLearnedClauseMemoryLimit(1 << 14);
+                SolverResult expected = null;
+                long conflicts = 0;
+                for (Formula formula : stores(numberOfVariables, clauses, file)) {
+                    CDCLSolver solver = new CDCLSolver(formula, configuration);
+                    SolverResult result = solver.solve();
+                    if (expected == null) {
+                        expected = result;
+                        conflicts = solver.getNumberOfConflicts();
+                    } else if (result != expected || solver.getNumberOfConflicts() != conflicts
+                            || (result == SolverResult.SATISFIABLE
+                            && !SATUtils.checkAssignment(formula, solver.getModel()))) {
+                        throw new IllegalStateException("Off-heap solver check failed: large round " + round + ".");
+                    }
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+
+        Formula formula = new Formula(600, new OffHeapClauseArena(1 << 14));
+        for (int clause = 0; clause < 200; clause++) {
+            formula.addClause(new int[]{Literal.encode(3 * clause + 1), Literal.encode(-3 * clause - 2),
+                    Literal.encode(3 * clause + 3)}, 0, 3);
+        }
+        try {
+            new CDCLSolver(formula);
+            throw new IllegalStateException("Off-heap solver check failed: the memory budget was exceeded.");
+        } catch (MemoryBudgetExceededException e) {
+            // The database does not fit in the budget left by the arena.
+        }
+        System.out.println("All off-heap solver checks passed.");
+    }
+
+    /**
+     * Stores the same clauses on the heap, in direct memory and in a memory-mapped file.
+     *
+     * @param numberOfVariables Number of variables.
+     * @param clauses           The encoded literals of every clause.
+     * @param file              The file in which the clauses are written to be mapped.
+     * @return The three formulas.
+     * @throws IOException The file cannot be written.
+     */
+    private static Formula[] stores(int numberOfVariables, int[][] clauses, Path file) throws IOException {
+        Formula heap = CheckUtils.formula(numberOfVariables, clauses, new HeapClauseArena());
+        Formula offHeap = CheckUtils.formula(numberOfVariables, clauses, new OffHeapClauseArena(1 << 22));
+        BinaryFormulaFile.write(heap, file.toString(), BinaryFormulaFile.RAW);
+        return new Formula[]{heap, offHeap, BinaryFormulaFile.load(file.toString())};
+    }
+}
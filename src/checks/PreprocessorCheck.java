@@ -0,0 +1,89 @@
+package checks;
+
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Formula;
+import algorithms.preprocessing.Preprocessor;
+
+import java.util.Random;
+
+/**
+ * Regression check of the preprocessor against a brute force search.
+ * Small random formulas, many of them rich in binary clauses so that probing and equivalent-literal
+ * substitution have work to do, are simplified with several resolvent size limits. The simplified formula
+ * must be proven unsatisfiable exactly when the original one is, must keep the variables of the original
+ * formula, and must be satisfiable exactly when the original one is. A model of the simplified formula,
+ * found by the CDCL solver, must be extended to a model of the original formula. Every simplification must
+ * have been applied at least once over all the formulas.
+ */
+public class PreprocessorCheck {
+    /**
+     * Number of random formulas.
+     */
+    private static final int ROUNDS = 20000;
+
+    /**
+     * The resolvent size limits with which the formulas are simplified.
+     */
+    private static final int[] RESOLVENT_SIZE_LIMITS = {2, 3, 20};
+
+    /**
+     * The names of the simplifications, in the order of their counts.
+     */
+    private static final String[] SIMPLIFICATIONS = {"variable elimination", "unit propagation", "subsumption",
+            "self-subsuming resolution", "failed-literal probing", "necessary assignments",
+            "equivalent-literal substitution"};
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        long[] counts = new long[SIMPLIFICATIONS.length];
+        for (int round = 0; round < ROUNDS; round++) {
+            int numberOfVariables = 1 + random.nextInt(14);
+            int[][] binary = CheckUtils.randomClauses(random, numberOfVariables,
+                    random.nextInt(3 * numberOfVariables), 2);
+            int[][] other = CheckUtils.randomClauses(random, numberOfVariables,
+                    1 + random.nextInt(4 * numberOfVariables), 1 + random.nextInt(4));
+            int[][] clauses = new int[binary.length + other.length][];
+            System.arraycopy(binary, 0, clauses, 0, binary.length);
+            System.arraycopy(other, 0, clauses, binary.length, other.length);
+            boolean expected = CheckUtils.bruteForce(numberOfVariables, clauses);
+
+            Preprocessor preprocessor = new Preprocessor(CheckUtils.formula(numberOfVariables, clauses),
+                    RESOLVENT_SIZE_LIMITS[round % RESOLVENT_SIZE_LIMITS.length]);
+            Formula simplified = preprocessor.simplify();
+            boolean correct;
+            if (preprocessor.isUnsatisfiable()) {
+                correct = !expected;
+            } else {
+                CDCLSolver solver = new CDCLSolver(simplified);
+                boolean satisfiable = solver.solve() == SolverResult.SATISFIABLE;
+                correct = simplified.getNumberOfVariables() == numberOfVariables && satisfiable == expected
+                        && CheckUtils.bruteForce(numberOfVariables, CheckUtils.clauses(simplified)) == expected
+                        && (!expected || CheckUtils.satisfies(preprocessor.extendModel(solver.getModel()), clauses));
+            }
+            if (!correct) {
+                throw new IllegalStateException("Preprocessor check failed: round " + round + ".");
+            }
+
+            counts[0] += preprocessor.getNumberOfEliminatedVariables();
+            counts[1] += preprocessor.getNumberOfFixedVariables();
+            counts[2] += preprocessor.getNumberOfSubsumedClauses();
+            counts[3] += preprocessor.getNumberOfStrengthenedClauses();
+            counts[4] += preprocessor.getNumberOfFailedLiterals();
+            counts[5] += preprocessor.getNumberOfNecessaryAssignments();
+            counts[6] += preprocessor.getNumberOfSubstitutedVariables();
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new IllegalStateException("Preprocessor check failed: " + SIMPLIFICATIONS[i]
+                        + " was never applied.");
+            }
+        }
+        System.out.println("All preprocessor checks passed.");
+    }
+}
@@ -0,0 +1,94 @@
+package checks;
+
+import algorithms.SATUtils;
+import algorithms.cdcl.CDCLSolver;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.SolverResult;
+import algorithms.cnf.Literal;
+import algorithms.proof.ProofFormat;
+import algorithms.proof.ProofWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Regression check of the proof writer and of the proof checker against a brute force search.
+ * Small random 3-SAT formulas around the satisfiability threshold are solved with a proof in every format,
+ * with the default configuration and with frequent reductions of the learned clauses, which fill the proofs
+ * with deletions. The solver must be right about their satisfiability, and every proof of an unsatisfiable
+ * formula must be accepted by the checker. Clauses of the formula are then replaced, one at a time, by a
+ * unit clause of a new variable until the formula becomes satisfiable; the proof must be rejected against
+ * that weakening. The replacement keeps the positions, so the identifiers of the clauses of an LRAT proof
+ * still refer to the same positions.
+ */
+public class ProofCheck {
+    /**
+     * Number of random formulas.
+     */
+    private static final int ROUNDS = 600;
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     * @throws IOException The temporary file cannot be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+        SolverConfiguration frequent = new SolverConfiguration();
+        frequent.setFirstReduction(10);
+        frequent.setReductionIncrement(5);
+        frequent.setLearnedClauseMemoryLimit(256);
+        SolverConfiguration[] configurations = {new SolverConfiguration(), frequent};
+
+        int accepted = 0;
+        int rejected = 0;
+        Path file = Files.createTempFile("proof-check", ".proof");
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                int numberOfVariables = 8 + random.nextInt(10);
+                int[][] clauses = new int[(int) ((4 + 2 * random.nextDouble()) * numberOfVariables)][];
+                for (int i = 0; i < clauses.length; i++) {
+                    clauses[i] = CheckUtils.randomClause(random, numberOfVariables, 3);
+                }
+                boolean expected = CheckUtils.bruteForce(numberOfVariables, clauses);
+                ProofFormat format = ProofFormat.values()[round % ProofFormat.values().length];
+                String name = "round " + round + ", format " + format;
+
+                SolverResult result;
+                try (ProofWriter writer = new ProofWriter(file.toString(), format)) {
+                    CDCLSolver solver = new CDCLSolver(CheckUtils.formula(numberOfVariables, clauses),
+                            configurations[round / ProofFormat.values().length % 2], writer);
+                    result = solver.solve();
+                }
+                if ((result == SolverResult.SATISFIABLE) != expected) {
+                    throw new IllegalStateException("Proof check failed: " + name + ", solver.");
+                }
+                if (expected) {
+                    continue;
+                }
+                if (!SATUtils.checkProof(CheckUtils.formula(numberOfVariables, clauses), file.toString(), format)) {
+                    throw new IllegalStateException("Proof check failed: " + name + ", proof rejected.");
+                }
+                accepted++;
+
+                int[][] weakened = clauses.clone();
+                do {
+                    weakened[random.nextInt(weakened.length)] = new int[]{Literal.encode(numberOfVariables + 1)};
+                } while (!CheckUtils.bruteForce(numberOfVariables + 1, weakened));
+                if (SATUtils.checkProof(CheckUtils.formula(numberOfVariables + 1, weakened), file.toString(),
+                        format)) {
+                    throw new IllegalStateException("Proof check failed: " + name + ", proof of a satisfiable "
+                            + "formula accepted.");
+                }
+                rejected++;
+            }
+        } finally {
+            Files.delete(file);
+        }
+        System.out.println("All proof checks passed: " + accepted + " proofs accepted, " + rejected
+                + " proofs of satisfiable weakenings rejected.");
+    }
+}
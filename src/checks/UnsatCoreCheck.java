@@ -0,0 +1,123 @@
+package checks;
+
+import algorithms.GeneralSAT;
+import algorithms.cdcl.SolverConfiguration;
+import algorithms.cdcl.UnsatCore;
+import algorithms.cnf.exceptions.UnsatisfiableFormulaException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Regression check of the unsatisfiable cores against a brute force search.
+ * A core of clauses is computed for small random formulas. It must be missing exactly when the formula is
+ * satisfiable; otherwise its clauses must be unsatisfiable, and removing any one of them must make them
+ * satisfiable. The formulas are then solved under random assumptions: a model must satisfy the formula and
+ * the assumptions, and the failed assumptions reported on unsatisfiability must be a subset of the
+ * assumptions which is unsatisfiable together with the formula, and which becomes satisfiable when any one
+ * of them is removed.
+ */
+public class UnsatCoreCheck {
+    /**
+     * Number of random formulas.
+     */
+    private static final int ROUNDS = 5000;
+
+    /**
+     * Number of milliseconds the minimization of a core may take, enough for the small formulas of the check.
+     */
+    private static final long BUDGET_MILLIS = 10_000;
+
+    /**
+     * Main method.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            int numberOfVariables = 1 + random.nextInt(12);
+            int[][] clauses = CheckUtils.randomClauses(random, numberOfVariables,
+                    1 + random.nextInt(6 * numberOfVariables), 1 + random.nextInt(4));
+            boolean expected = CheckUtils.bruteForce(numberOfVariables, clauses);
+
+            int[] core = UnsatCore.findClauseCore(CheckUtils.formula(numberOfVariables, clauses),
+                    new SolverConfiguration(), BUDGET_MILLIS);
+            if ((core == null) != expected
+                    || (core != null && !isMinimalClauseCore(numberOfVariables, clauses, core))) {
+                throw new IllegalStateException("Unsat core check failed: round " + round + ", clauses.");
+            }
+
+            int[] assumptions = CheckUtils.randomClause(random, numberOfVariables,
+                    random.nextInt(numberOfVariables + 1));
+            int[][] assumed = CheckUtils.withUnits(clauses, assumptions);
+            boolean correct;
+            try {
+                boolean[] model = GeneralSAT.solveGeneralSAT(CheckUtils.formula(numberOfVariables, clauses),
+                        assumptions, BUDGET_MILLIS);
+                correct = CheckUtils.bruteForce(numberOfVariables, assumed) && CheckUtils.satisfies(model, assumed);
+            } catch (UnsatisfiableFormulaException e) {
+                int[] failed = e.getFailedAssumptions();
+                correct = !CheckUtils.bruteForce(numberOfVariables, assumed)
+                        && CheckUtils.isSubset(failed, assumptions)
+                        && isMinimalAssumptionCore(numberOfVariables, clauses, failed);
+            }
+            if (!correct) {
+                throw new IllegalStateException("Unsat core check failed: round " + round + ", assumptions "
+                        + Arrays.toString(assumptions) + ".");
+            }
+        }
+        System.out.println("All unsat core checks passed.");
+    }
+
+    /**
+     * Checks if clauses of a formula are unsatisfiable, and satisfiable without any one of them.
+     *
+     * @param numberOfVariables Number of variables.
+     * @param clauses           The encoded literals of every clause of the formula.
+     * @param core              The indices of the clauses of the core.
+     * @return Is the core a minimal unsatisfiable subset of the clauses.
+     */
+    private static boolean isMinimalClauseCore(int numberOfVariables, int[][] clauses, int[] core) {
+        int[][] selected = new int[core.length][];
+        for (int i = 0; i < core.length; i++) {
+            selected[i] = clauses[core[i]];
+        }
+        if (CheckUtils.bruteForce(numberOfVariables, selected)) {
+            return false;
+        }
+        for (int i = 0; i < core.length; i++) {
+            int[][] smaller = new int[core.length - 1][];
+            System.arraycopy(selected, 0, smaller, 0, i);
+            System.arraycopy(selected, i + 1, smaller, i, core.length - i - 1);
+            if (!CheckUtils.bruteForce(numberOfVariables, smaller)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if assumptions are unsatisfiable together with a formula, and satisfiable without any one of
+     * them.
+     *
+     * @param numberOfVariables Number of variables.
+     * @param clauses           The encoded literals of every clause of the formula.
+     * @param core              The encoded assumptions of the core.
+     * @return Is the core a minimal unsatisfiable subset of the assumptions.
+     */
+    private static boolean isMinimalAssumptionCore(int numberOfVariables, int[][] clauses, int[] core) {
+        if (CheckUtils.bruteForce(numberOfVariables, CheckUtils.withUnits(clauses, core))) {
+            return false;
+        }
+        for (int i = 0; i < core.length; i++) {
+            int[] smaller = new int[core.length - 1];
+            System.arraycopy(core, 0, smaller, 0, i);
+            System.arraycopy(core, i + 1, smaller, i, core.length - i - 1);
+            if (!CheckUtils.bruteForce(numberOfVariables, CheckUtils.withUnits(clauses, smaller))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}